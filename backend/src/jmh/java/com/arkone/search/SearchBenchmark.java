@@ -0,0 +1,189 @@
+package com.arkone.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 进程内倒排索引与LIKE查询路径的基准测试
+ * <p>
+ * 以固定种子生成中英文混排的语料（填充词按Zipf分布，查询词按固定比例插入正文），同一语料分别建立 {@link SearchIndex}（按生产默认值分批落盘为映射段）与LIKE路径的内存等价实现：
+ * 对标题、摘要、正文逐条做不区分大小写的子串匹配，统计总数并按发布时间取前10条，
+ * 对应 searchArticles 的 COUNT 加 LIMIT 两次全表扫描中的一次。LIKE路径不含数据库的I/O与网络开销，
+ * 是其耗时的下界；连接真实数据库的对比见 {@link SearchComparison}。
+ * <p>
+ * 运行：{@code mvn -P jmh test-compile exec:exec}，可通过 {@code -Djmh.args="-p docs=20000"} 传入JMH参数。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    /**
+     * 填充词表大小；词频按Zipf分布抽取，接近真实文章中常用词集中、长尾词稀疏的分布
+     */
+    private static final int VOCABULARY = 20_000;
+    /**
+     * 查询词及其出现在文档中的比例，覆盖稀有、中等与常见三种选择度
+     */
+    private static final String[] TOPICS = {"redis", "大模型", "kubernetes", "部署"};
+    private static final double[] TOPIC_RATES = {0.01, 0.05, 0.10, 0.10};
+    /**
+     * 与 arkone.search.segment 的默认值一致：每500篇落一次盘，最多保留8个段
+     */
+    private static final int FLUSH_DOCS = 500;
+    private static final int MAX_SEGMENTS = 8;
+
+    @Param({"2000", "20000"})
+    private int docs;
+
+    @Param({"redis", "大模型", "kubernetes 部署"})
+    private String keyword;
+
+    private SearchIndex index;
+    private List<LikeRow> rows;
+    private SearchQuery query;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        String[] vocabulary = vocabulary(random);
+        double[] cumulative = zipf();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        directory = Files.createTempDirectory("search-benchmark");
+        index = new SearchIndex("benchmark", directory, MAX_SEGMENTS);
+        index.startRebuild(base).commit();
+        rows = new ArrayList<>(docs);
+        for (int i = 1; i <= docs; i++) {
+            StringBuilder content = text(random, vocabulary, cumulative, 400);
+            for (int t = 0; t < TOPICS.length; t++) {
+                if (random.nextDouble() < TOPIC_RATES[t]) {
+                    content.insert(random.nextInt(content.length()), ' ' + TOPICS[t] + ' ');
+                }
+            }
+            SearchDocument document = new SearchDocument((long) i, text(random, vocabulary, cumulative, 8).toString(),
+                    text(random, vocabulary, cumulative, 40).toString(), content.toString(),
+                    base.plusMinutes(random.nextInt(500_000)));
+            index.upsert(document);
+            if (i % FLUSH_DOCS == 0) {
+                index.flush();
+            }
+            rows.add(new LikeRow(document.id(), document.publishedAt(),
+                    document.title().toLowerCase(Locale.ROOT), document.summary().toLowerCase(Locale.ROOT),
+                    document.content().toLowerCase(Locale.ROOT)));
+        }
+        index.flush();
+        query = SearchQuery.parse(keyword);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public SearchResult index() {
+        return index.search(query, 0, 10);
+    }
+
+    /**
+     * LIKE '%kw%' 的等价实现：关键词整体作为子串匹配，与 searchArticles 一致
+     */
+    @Benchmark
+    public List<Long> like() {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        List<LikeRow> matched = new ArrayList<>();
+        for (LikeRow row : rows) {
+            if (row.title().contains(needle) || row.summary().contains(needle) || row.content().contains(needle)) {
+                matched.add(row);
+            }
+        }
+        matched.sort(Comparator.comparing(LikeRow::publishedAt).reversed());
+        List<Long> page = new ArrayList<>(10);
+        for (int i = 0; i < Math.min(10, matched.size()); i++) {
+            page.add(matched.get(i).id());
+        }
+        return page;
+    }
+
+    /**
+     * 一半为拉丁字母的伪词，一半为两字的汉字词
+     */
+    private static String[] vocabulary(Random random) {
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            if (i % 2 == 0) {
+                int length = 4 + random.nextInt(6);
+                for (int k = 0; k < length; k++) {
+                    word.append((char) ('a' + random.nextInt(26)));
+                }
+            } else {
+                word.append((char) (0x4E00 + random.nextInt(3000))).append((char) (0x4E00 + random.nextInt(3000)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static double[] zipf() {
+        double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < VOCABULARY; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static StringBuilder text(Random random, String[] vocabulary, double[] cumulative, int words) {
+        StringBuilder builder = new StringBuilder(words * 6);
+        for (int i = 0; i < words; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            String word = vocabulary[Math.min(rank >= 0 ? rank : -rank - 1, VOCABULARY - 1)];
+            builder.append(word).append(word.charAt(0) < 0x80 ? " " : "");
+        }
+        return builder;
+    }
+
+    private record LikeRow(Long id, LocalDateTime publishedAt, String title, String summary, String content) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.arkone.cache;
+
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.Category;
+import com.arkone.service.AiNewsService;
+import com.arkone.service.ArticleService;
+import com.arkone.service.CategoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * 缓存预热
+ * <p>
+ * 正常关闭时把各详情缓存L1中最热的ID写入本地快照文件；启动后在后台线程中并行重新加载这些条目
+ * （经由二级缓存或数据库重新校验，不直接信任快照中的旧值），重建首页列表快照，
+ * 再对热点接口的查询与序列化路径反复调用以完成JIT预热。预热完成（或超时、失败）后
+ * {@link WarmupHealthIndicator} 才报告UP，readiness 探针据此决定是否接入流量；该检查只属于 readiness 分组，
+ * 不影响 /actuator/health 的总体状态。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer {
+
+    private static final int SNAPSHOT_FORMAT = 1;
+
+    private final TwoLevelCache<Article> articleDetailCache;
+    private final TwoLevelCache<AiNews> aiNewsDetailCache;
+    private final List<ContentListCache<?>> listCaches;
+    private final ArticleService articleService;
+    private final AiNewsService aiNewsService;
+    private final CategoryService categoryService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${arkone.warmup.path:data/warmup/cache-snapshot.json}")
+    private String snapshotPath;
+
+    @Value("${arkone.warmup.keys-per-cache:500}")
+    private int keysPerCache;
+
+    @Value("${arkone.warmup.parallelism:8}")
+    private int parallelism;
+
+    @Value("${arkone.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${arkone.warmup.timeout:60s}")
+    private Duration timeout;
+
+    private volatile boolean complete;
+
+    /**
+     * 预热是否已结束
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::warmUp, "cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 正常关闭时保存热点ID
+     */
+    @PreDestroy
+    public void saveSnapshot() {
+        Map<String, List<Long>> caches = new LinkedHashMap<>();
+        caches.put(articleDetailCache.getName(), articleDetailCache.hotKeys(keysPerCache));
+        caches.put(aiNewsDetailCache.getName(), aiNewsDetailCache.hotKeys(keysPerCache));
+        Path target = Paths.get(snapshotPath);
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), new Snapshot(SNAPSHOT_FORMAT, LocalDateTime.now(), caches));
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.info("缓存预热快照已保存: {}", caches.entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue().size()).toList());
+        } catch (IOException e) {
+            log.warn("保存缓存预热快照失败", e);
+        }
+    }
+
+    private void warmUp() {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + timeout.toNanos();
+        try {
+            reloadDetails(deadline);
+            listCaches.forEach(ContentListCache::refresh);
+            exerciseHotPaths(deadline);
+            log.info("缓存预热完成，耗时: {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (Exception e) {
+            log.warn("缓存预热未完成，直接接入流量", e);
+        } finally {
+            complete = true;
+        }
+    }
+
+    /**
+     * 并行重新加载快照中的详情条目；单个条目加载失败只计数，不影响其他条目及后续预热步骤
+     */
+    private void reloadDetails(long deadline) throws Exception {
+        Snapshot snapshot = readSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+        Map<String, LongConsumer> loaders = Map.of(
+                articleDetailCache.getName(), articleService::getArticleVersion,
+                aiNewsDetailCache.getName(), aiNewsService::getAiNewsVersion);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(parallelism, 1));
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            AtomicInteger failed = new AtomicInteger();
+            snapshot.caches().forEach((name, ids) -> {
+                LongConsumer loader = loaders.get(name);
+                if (loader == null || ids == null) {
+                    return;
+                }
+                for (Long id : ids) {
+                    futures.add(CompletableFuture.runAsync(() -> loader.accept(id), executor).exceptionally(e -> {
+                        failed.incrementAndGet();
+                        log.debug("详情缓存预热条目加载失败，缓存: {}, ID: {}", name, id, e);
+                        return null;
+                    }));
+                }
+            });
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            log.info("详情缓存预热完成，条目数: {}，失败: {}", futures.size(), failed.get());
+        } catch (TimeoutException e) {
+            log.warn("详情缓存预热超时，剩余条目按需加载");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 反复调用热点接口的查询与序列化路径，使其在接入流量前完成JIT编译
+     */
+    private void exerciseHotPaths(long deadline) throws IOException {
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            objectMapper.writeValueAsBytes(articleService.getHotArticles(10));
+            objectMapper.writeValueAsBytes(articleService.getLatestArticles(10));
+            objectMapper.writeValueAsBytes(articleService.getRecommendArticles(5));
+            objectMapper.writeValueAsBytes(aiNewsService.getHotAiNews(10));
+            objectMapper.writeValueAsBytes(aiNewsService.getLatestAiNews(10));
+            objectMapper.writeValueAsBytes(categoryService.getAllEnabledCategories());
+            for (Category.CategoryType type : Category.CategoryType.values()) {
+                categoryService.getCategoryTreeJson(type);
+            }
+        }
+    }
+
+    private Snapshot readSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+            if (snapshot.format() != SNAPSHOT_FORMAT || snapshot.caches() == null) {
+                log.info("缓存预热快照格式不兼容，跳过");
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            log.warn("读取缓存预热快照失败，跳过", e);
+            return null;
+        }
+    }
+
+    /**
+     * 预热快照：各缓存按热度排序的ID
+     */
+    private record Snapshot(int format, LocalDateTime createdAt, Map<String, List<Long>> caches) {
+    }
+}
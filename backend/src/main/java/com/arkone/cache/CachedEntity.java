@@ -0,0 +1,40 @@
+package com.arkone.cache;
+
+/**
+ * 进程内缓存涉及的实体类型，用于跨节点失效消息
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public enum CachedEntity {
+    ARTICLE("article", "文章"),
+    NEWS("news", "AI新闻"),
+    CATEGORY("category", "分类"),
+    TAG("tag", "标签"),
+    CONFIG("config", "系统配置");
+
+    private final String code;
+    private final String description;
+
+    CachedEntity(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public static CachedEntity fromCode(String code) {
+        for (CachedEntity entity : values()) {
+            if (entity.code.equals(code)) {
+                return entity;
+            }
+        }
+        return null;
+    }
+}
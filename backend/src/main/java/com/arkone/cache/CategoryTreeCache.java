@@ -0,0 +1,79 @@
+package com.arkone.cache;
+
+import com.arkone.dto.ContentVersion;
+import com.arkone.entity.Category;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 分类树快照缓存
+ * <p>
+ * 每种分类类型一份不可变快照，附带预先序列化的JSON，接口直接输出无需再次遍历序列化。
+ * 分类变更时按版本号失效，构建期间发生的失效会使本次构建结果作废，避免回填旧树。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache {
+
+    private final ObjectMapper objectMapper;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Category.CategoryType, TreeSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 获取分类树快照，不存在时调用builder构建
+     */
+    public TreeSnapshot get(Category.CategoryType type, Function<Category.CategoryType, List<Category>> builder) {
+        TreeSnapshot snapshot = snapshots.get(type);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long buildVersion = version.get();
+        List<Category> tree = List.copyOf(builder.apply(type));
+        TreeSnapshot built;
+        try {
+            String json = objectMapper.writeValueAsString(tree);
+            built = new TreeSnapshot(buildVersion, tree, new RawValue(json), ContentVersion.ofContent(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("分类树序列化失败", e);
+        }
+        // 构建期间没有发生失效才发布
+        if (version.get() == buildVersion) {
+            snapshots.putIfAbsent(type, built);
+        }
+        return built;
+    }
+
+    /**
+     * 失效全部分类树
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshots.clear();
+        log.debug("分类树缓存已失效，版本: {}", version.get());
+    }
+
+    /**
+     * 分类树快照
+     *
+     * @param version 构建时的版本号
+     * @param tree    根节点列表（子节点列表均不可变）
+     * @param json    预先序列化的JSON
+     * @param etag    按JSON内容计算的版本，用于条件请求
+     */
+    public record TreeSnapshot(long version, List<Category> tree, RawValue json, ContentVersion etag) {
+    }
+}
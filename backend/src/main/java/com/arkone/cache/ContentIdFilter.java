@@ -0,0 +1,153 @@
+package com.arkone.cache;
+
+import com.arkone.config.SchedulingConfig;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.ContentType;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.arkone.util.KeysetScan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * 内容ID布隆过滤器
+ * <p>
+ * 详情接口在查询缓存和数据库之前先判断ID是否可能存在，随机ID的探测请求直接返回不存在，
+ * 拦截次数记录在 {@code arkone.bloom.rejected} 指标中。启动后全量加载已有ID，新增内容时写入；
+ * 其他节点新增的ID通过 {@link InvalidationBus} 的变更消息获得，消息丢失或过滤器容量不足由定时全量重建兜底。
+ * 全量加载完成前不做拦截。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentIdFilter {
+
+    private final ArticleMapper articleMapper;
+    private final AiNewsMapper aiNewsMapper;
+    private final InvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${arkone.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${arkone.bloom.fpp:0.01}")
+    private double fpp;
+
+    @Value("${arkone.bloom.batch-size:5000}")
+    private int batchSize;
+
+    private final Map<ContentType, Counter> rejected = new EnumMap<>(ContentType.class);
+    private final Map<ContentType, BloomFilter> filters = new ConcurrentHashMap<>();
+    /**
+     * 全量重建期间新增的ID，重建完成后补写入新过滤器
+     */
+    private final Map<ContentType, Set<Long>> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (ContentType type : ContentType.values()) {
+            rejected.put(type, Counter.builder("arkone.bloom.rejected")
+                    .tag("type", type.getCode())
+                    .description("布隆过滤器判定不存在而拦截的请求数")
+                    .register(meterRegistry));
+        }
+        invalidationBus.subscribe(CachedEntity.ARTICLE, ids -> ids.forEach(id -> add(ContentType.ARTICLE, id)));
+        invalidationBus.subscribe(CachedEntity.NEWS, ids -> ids.forEach(id -> add(ContentType.NEWS, id)));
+    }
+
+    /**
+     * 返回false表示该ID一定不存在；过滤器尚未构建时返回true
+     */
+    public boolean mightContain(ContentType type, Long id) {
+        BloomFilter filter = filters.get(type);
+        if (id == null || filter == null || filter.mightContain(id)) {
+            return true;
+        }
+        rejected.get(type).increment();
+        return false;
+    }
+
+    /**
+     * 记录新增内容的ID；应在插入后、事务提交前调用，回滚只会造成假阳性
+     */
+    public void add(ContentType type, Long id) {
+        BloomFilter filter = filters.get(type);
+        if (filter != null) {
+            filter.put(id);
+        }
+        Set<Long> added = pending.get(type);
+        if (added != null) {
+            added.add(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * 全量重建，容量按当前记录数的两倍与配置值中的较大者计算
+     */
+    @Scheduled(initialDelayString = "${arkone.bloom.rebuild-interval:3600000}",
+            fixedDelayString = "${arkone.bloom.rebuild-interval:3600000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public synchronized void rebuild() {
+        for (ContentType type : ContentType.values()) {
+            Set<Long> added = ConcurrentHashMap.newKeySet();
+            pending.put(type, added);
+            try {
+                long count = count(type);
+                BloomFilter filter = BloomFilter.create(Math.max(expectedInsertions, count * 2), fpp);
+                forEachId(type, filter::put);
+                filters.put(type, filter);
+                // 切换后新增的ID直接写入新过滤器，切换前的由pending补写
+                added.forEach(filter::put);
+                log.info("内容ID布隆过滤器重建完成，类型: {}, 记录数: {}", type, count);
+            } catch (Exception e) {
+                log.error("内容ID布隆过滤器重建失败，类型: {}", type, e);
+            } finally {
+                pending.remove(type);
+            }
+        }
+    }
+
+    private long count(ContentType type) {
+        return switch (type) {
+            case ARTICLE -> articleMapper.selectCount(null);
+            case NEWS -> aiNewsMapper.selectCount(null);
+        };
+    }
+
+    /**
+     * 按ID分批遍历所有未删除的内容ID
+     */
+    private void forEachId(ContentType type, LongConsumer consumer) {
+        switch (type) {
+            case ARTICLE -> KeysetScan.forEachBatch(articleMapper, Article::getId,
+                    wrapper -> wrapper.select(Article::getId), batchSize,
+                    batch -> batch.forEach(article -> consumer.accept(article.getId())));
+            case NEWS -> KeysetScan.forEachBatch(aiNewsMapper, AiNews::getId,
+                    wrapper -> wrapper.select(AiNews::getId), batchSize,
+                    batch -> batch.forEach(aiNews -> consumer.accept(aiNews.getId())));
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.arkone.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 内容列表快照缓存
+ * <p>
+ * 首页的热门、最新、推荐及分组列表以不可变快照形式常驻内存，读取无锁且不访问数据库。
+ * 内容变更时按ID重新加载单条记录，在各列表中增量删除/插入后整体替换快照；
+ * 列表因删除而不足容量时从数据库重建该列表，另有定时全量重建以吸收排序字段（如浏览量）的漂移。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+public class ContentListCache<T> {
+
+    public static final String HOT = "hot";
+    public static final String LATEST = "latest";
+    public static final String RECOMMEND = "recommend";
+    public static final String BY_CATEGORY = "category";
+
+    private final String name;
+    private final int capacity;
+    private final Function<T, Long> idOf;
+    private final Function<Long, T> itemLoader;
+    private final Map<String, ListDefinition<T>> lists = new LinkedHashMap<>();
+    private final Map<String, GroupDefinition<T>> groups = new LinkedHashMap<>();
+
+    private volatile Snapshot<T> snapshot = new Snapshot<>(0, Map.of(), Map.of());
+
+    public ContentListCache(String name, int capacity, Function<T, Long> idOf, Function<Long, T> itemLoader) {
+        this.name = name;
+        this.capacity = capacity;
+        this.idOf = idOf;
+        this.itemLoader = itemLoader;
+    }
+
+    /**
+     * 注册列表
+     *
+     * @param key      列表名
+     * @param member   记录是否属于该列表
+     * @param order    列表排序，须与loader查询的ORDER BY一致
+     * @param loader   按容量从数据库加载列表
+     */
+    public ContentListCache<T> list(String key, Predicate<T> member, Comparator<T> order, IntFunction<List<T>> loader) {
+        lists.put(key, new ListDefinition<>(member, order, loader));
+        return this;
+    }
+
+    /**
+     * 注册分组列表（如按分类），各分组在首次读取时加载
+     *
+     * @param key      分组名
+     * @param groupOf  记录所属分组，不属于任何分组时返回null
+     * @param member   记录是否属于分组内的列表
+     * @param order    列表排序，须与loader查询的ORDER BY一致
+     * @param loader   按分组和容量从数据库加载列表
+     */
+    public ContentListCache<T> group(String key, Function<T, Long> groupOf, Predicate<T> member,
+                                     Comparator<T> order, BiFunction<Long, Integer, List<T>> loader) {
+        groups.put(key, new GroupDefinition<>(groupOf, member, order, loader));
+        return this;
+    }
+
+    /**
+     * 读取列表前limit条；limit超过容量时直接查询数据库
+     */
+    public List<T> get(String key, int limit) {
+        if (limit > capacity) {
+            return lists.get(key).loader().apply(limit);
+        }
+        List<T> items = snapshot.lists().get(key);
+        if (items == null) {
+            items = rebuildList(key);
+        }
+        return head(items, limit);
+    }
+
+    /**
+     * 读取分组列表前limit条；limit超过容量时直接查询数据库
+     */
+    public List<T> get(String key, Long groupId, int limit) {
+        if (limit > capacity) {
+            return groups.get(key).loader().apply(groupId, limit);
+        }
+        Map<Long, List<T>> members = snapshot.groups().get(key);
+        List<T> items = members != null ? members.get(groupId) : null;
+        if (items == null) {
+            items = loadGroup(key, groupId);
+        }
+        return head(items, limit);
+    }
+
+    /**
+     * 当前快照版本，每次替换递增
+     */
+    public long version() {
+        return snapshot.version();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 记录新增或变更：重新加载后在各列表中重新定位
+     */
+    public void upsert(Long id) {
+        apply(List.of(id));
+    }
+
+    /**
+     * 批量变更
+     */
+    public void upsert(Collection<Long> ids) {
+        apply(ids);
+    }
+
+    /**
+     * 全量重建所有列表，已加载的分组一并重建
+     */
+    public synchronized void refresh() {
+        Map<String, List<T>> newLists = new HashMap<>();
+        lists.forEach((key, definition) -> newLists.put(key, List.copyOf(definition.loader().apply(capacity))));
+        Map<String, Map<Long, List<T>>> newGroups = new HashMap<>();
+        snapshot.groups().forEach((key, members) -> {
+            GroupDefinition<T> definition = groups.get(key);
+            Map<Long, List<T>> rebuilt = new HashMap<>();
+            members.keySet().forEach(groupId ->
+                    rebuilt.put(groupId, List.copyOf(definition.loader().apply(groupId, capacity))));
+            newGroups.put(key, Map.copyOf(rebuilt));
+        });
+        publish(newLists, newGroups);
+        log.debug("列表缓存 {} 全量重建完成，版本: {}", name, snapshot.version());
+    }
+
+    private synchronized void apply(Collection<Long> ids) {
+        Snapshot<T> current = snapshot;
+        Map<String, List<T>> newLists = new HashMap<>(current.lists());
+        Map<String, Map<Long, List<T>>> newGroups = new HashMap<>();
+        current.groups().forEach((key, members) -> newGroups.put(key, new HashMap<>(members)));
+
+        for (Long id : ids) {
+            T item = itemLoader.apply(id);
+            newLists.replaceAll((key, items) -> {
+                ListDefinition<T> definition = lists.get(key);
+                return reposition(items, id, item, definition.member(), definition.order(),
+                        () -> definition.loader().apply(capacity));
+            });
+            newGroups.forEach((key, members) -> {
+                GroupDefinition<T> definition = groups.get(key);
+                Long target = item != null ? definition.groupOf().apply(item) : null;
+                members.replaceAll((groupId, items) -> {
+                    T candidate = groupId.equals(target) ? item : null;
+                    return reposition(items, id, candidate, definition.member(), definition.order(),
+                            () -> definition.loader().apply(groupId, capacity));
+                });
+            });
+        }
+
+        Map<String, Map<Long, List<T>>> frozenGroups = new HashMap<>();
+        newGroups.forEach((key, members) -> frozenGroups.put(key, Map.copyOf(members)));
+        publish(newLists, frozenGroups);
+    }
+
+    /**
+     * 在有序列表中移除旧记录并按顺序插入新记录；满容量列表因移除而出现空位时整表重新加载
+     */
+    private List<T> reposition(List<T> items, Long id, T item, Predicate<T> member, Comparator<T> order,
+                               Supplier<List<T>> reload) {
+        List<T> updated = new ArrayList<>(items.size() + 1);
+        for (T existing : items) {
+            if (!Objects.equals(idOf.apply(existing), id)) {
+                updated.add(existing);
+            }
+        }
+        boolean full = items.size() >= capacity;
+        if (item != null && member.test(item)) {
+            int index = Collections.binarySearch(updated, item, order);
+            int position = index >= 0 ? index : -index - 1;
+            // 满容量列表之外的记录未知，排在末尾之后的记录不能确定属于前N，不插入
+            if (!full || position < updated.size()) {
+                updated.add(position, item);
+            }
+            if (updated.size() > capacity) {
+                updated.remove(updated.size() - 1);
+            }
+        }
+        if (full && updated.size() < capacity) {
+            return List.copyOf(reload.get());
+        }
+        return List.copyOf(updated);
+    }
+
+    private synchronized List<T> rebuildList(String key) {
+        List<T> items = snapshot.lists().get(key);
+        if (items != null) {
+            return items;
+        }
+        List<T> loaded = List.copyOf(lists.get(key).loader().apply(capacity));
+        Map<String, List<T>> newLists = new HashMap<>(snapshot.lists());
+        newLists.put(key, loaded);
+        publish(newLists, snapshot.groups());
+        return loaded;
+    }
+
+    private synchronized List<T> loadGroup(String key, Long groupId) {
+        Map<Long, List<T>> members = snapshot.groups().get(key);
+        if (members != null && members.containsKey(groupId)) {
+            return members.get(groupId);
+        }
+        List<T> loaded = List.copyOf(groups.get(key).loader().apply(groupId, capacity));
+        Map<Long, List<T>> newMembers = members != null ? new HashMap<>(members) : new HashMap<>();
+        newMembers.put(groupId, loaded);
+        Map<String, Map<Long, List<T>>> newGroups = new HashMap<>(snapshot.groups());
+        newGroups.put(key, Map.copyOf(newMembers));
+        publish(snapshot.lists(), newGroups);
+        return loaded;
+    }
+
+    private void publish(Map<String, List<T>> newLists, Map<String, Map<Long, List<T>>> newGroups) {
+        snapshot = new Snapshot<>(snapshot.version() + 1, Map.copyOf(newLists), Map.copyOf(newGroups));
+    }
+
+    private static <T> List<T> head(List<T> items, int limit) {
+        return limit >= items.size() ? items : items.subList(0, Math.max(limit, 0));
+    }
+
+    private record Snapshot<T>(long version, Map<String, List<T>> lists, Map<String, Map<Long, List<T>>> groups) {
+    }
+
+    private record ListDefinition<T>(Predicate<T> member, Comparator<T> order, IntFunction<List<T>> loader) {
+    }
+
+    private record GroupDefinition<T>(Function<T, Long> groupOf, Predicate<T> member, Comparator<T> order,
+                                      BiFunction<Long, Integer, List<T>> loader) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.arkone.cache;
+
+import com.arkone.config.SchedulingConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 列表快照定时全量重建
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentListRefresher {
+
+    private final List<ContentListCache<?>> listCaches;
+
+    @Scheduled(initialDelayString = "${arkone.cache.list.refresh-interval:300000}",
+            fixedDelayString = "${arkone.cache.list.refresh-interval:300000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void refresh() {
+        for (ContentListCache<?> cache : listCaches) {
+            try {
+                cache.refresh();
+            } catch (Exception e) {
+                log.error("列表缓存全量重建失败，沿用当前快照", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.arkone.cache;
+
+import com.arkone.dto.ContentVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Enumeration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预序列化、预压缩的响应体缓存
+ * <p>
+ * 热点列表接口的响应按“接口键 + 内容版本（ETag）”缓存为已序列化的 JSON 字节及其 gzip 版本，
+ * 命中时按请求的 Accept-Encoding 直接写出对应字节并带上 Content-Encoding，省去重复的序列化与压缩；
+ * nginx 不会再次压缩已带 Content-Encoding 的响应。
+ * 内容版本不含浏览量等计数，条目在 ttl 后过期，以限制响应中计数的滞后。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public class EncodedResponseCache {
+
+    private static final String GZIP = "gzip";
+
+    private final Cache<String, EncodedBody> cache;
+    private final ObjectMapper objectMapper;
+    private final int compressMinSize;
+
+    public EncodedResponseCache(String name, CacheProperties properties, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.compressMinSize = properties.compressMinSize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * 返回编码后的响应；version为null（如查询失败）时只序列化本次结果，不缓存
+     *
+     * @param key     接口键，需包含影响结果的请求参数
+     * @param version 响应内容的版本
+     * @param body    生成响应对象，仅在未命中时调用
+     */
+    public ResponseEntity<byte[]> respond(String key, ContentVersion version, Supplier<?> body,
+                                          HttpServletRequest request) {
+        EncodedBody encoded = version == null
+                ? encode(body.get())
+                : cache.get(key + '@' + version.etag(), ignored -> encode(body.get()));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (encoded.gzip() == null) {
+            return builder.contentLength(encoded.identity().length).body(encoded.identity());
+        }
+        builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .contentLength(encoded.gzip().length)
+                    .body(encoded.gzip());
+        }
+        return builder.contentLength(encoded.identity().length).body(encoded.identity());
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private EncodedBody encode(Object body) {
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("响应序列化失败", e);
+        }
+        // 过小的响应压缩收益有限，与 nginx 的 gzip_min_length 保持一致
+        return new EncodedBody(identity, identity.length >= compressMinSize ? gzip(identity) : null);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 是否接受gzip编码；q=0 表示明确拒绝
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                String token = parts[0].trim();
+                if (!GZIP.equalsIgnoreCase(token) && !"*".equals(token)) {
+                    continue;
+                }
+                boolean rejected = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            rejected = Double.parseDouble(param.substring(2)) <= 0;
+                        } catch (NumberFormatException e) {
+                            rejected = false;
+                        }
+                    }
+                }
+                if (!rejected) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 缓存参数
+     */
+    public record CacheProperties(long maxSize, Duration ttl, int compressMinSize) {
+    }
+
+    /**
+     * 同一响应的各编码版本，gzip为null表示不压缩
+     */
+    private record EncodedBody(byte[] identity, byte[] gzip) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.arkone.cache;
+
+import com.arkone.util.RedisKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 跨节点缓存失效总线
+ * <p>
+ * 写操作在事务提交后发布失效消息 {@code 实体|版本|节点|ID列表}，其他节点收到后调用已订阅的处理器
+ * 失效或刷新本地缓存；发布节点自身在提交钩子中已处理，忽略自己的消息。
+ * 整体清空、不区分来源的缓存可通过 {@link #subscribeAll} 同时接收本节点发布与其他节点的变更。
+ * 版本号由 Redis 全局递增生成，各节点记录每个条目最近处理的版本，乱序到达的旧消息直接丢弃。
+ * Pub/Sub 不保证送达，消息丢失由各缓存自身的过期与定时重建兜底。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InvalidationBus {
+
+    private static final String CHANNEL = RedisKeys.channel("invalidation");
+    private static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<CachedEntity, List<Consumer<List<Long>>>> handlers = new EnumMap<>(CachedEntity.class);
+    private final Map<CachedEntity, List<Consumer<List<Long>>>> allHandlers = new EnumMap<>(CachedEntity.class);
+    /**
+     * 各条目最近处理的版本；只需覆盖消息可能乱序的时间窗口
+     */
+    private final Cache<String, Long> appliedVersions = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        for (CachedEntity entity : CachedEntity.values()) {
+            handlers.put(entity, new CopyOnWriteArrayList<>());
+            allHandlers.put(entity, new CopyOnWriteArrayList<>());
+        }
+        listenerContainer.addMessageListener((message, pattern) -> onMessage(message), new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 订阅其他节点对某类实体的变更，处理器收到的是尚未处理过更新版本的ID
+     */
+    public void subscribe(CachedEntity entity, Consumer<List<Long>> handler) {
+        handlers.get(entity).add(handler);
+    }
+
+    /**
+     * 订阅某类实体的全部变更：本节点发布时同步调用，其他节点的变更收到消息后调用
+     */
+    public void subscribeAll(CachedEntity entity, Consumer<List<Long>> handler) {
+        allHandlers.get(entity).add(handler);
+    }
+
+    /**
+     * 发布失效消息，应在事务提交后调用
+     */
+    public void publish(CachedEntity entity, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        dispatch(allHandlers.get(entity), entity, List.copyOf(ids));
+        try {
+            Long version = redisTemplate.opsForValue().increment(RedisKeys.invalidationVersion());
+            String message = entity.getCode() + SEPARATOR + version + SEPARATOR + nodeId + SEPARATOR
+                    + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("发布缓存失效消息失败，其他节点依赖缓存过期，实体: {}, 条数: {}", entity, ids.size(), e);
+        }
+    }
+
+    private void onMessage(Message message) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length != 4 || nodeId.equals(parts[2])) {
+            return;
+        }
+        CachedEntity entity = CachedEntity.fromCode(parts[0]);
+        if (entity == null) {
+            return;
+        }
+        try {
+            long version = Long.parseLong(parts[1]);
+            List<Long> ids = new ArrayList<>();
+            for (String value : parts[3].split(",")) {
+                Long id = Long.valueOf(value);
+                if (advance(entity, id, version)) {
+                    ids.add(id);
+                }
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            dispatch(handlers.get(entity), entity, ids);
+            dispatch(allHandlers.get(entity), entity, ids);
+        } catch (NumberFormatException e) {
+            log.warn("忽略格式错误的缓存失效消息: {}", parts[1]);
+        }
+    }
+
+    private static void dispatch(List<Consumer<List<Long>>> targets, CachedEntity entity, List<Long> ids) {
+        for (Consumer<List<Long>> handler : targets) {
+            try {
+                handler.accept(ids);
+            } catch (Exception e) {
+                log.error("处理缓存失效消息失败，实体: {}, ID: {}", entity, ids, e);
+            }
+        }
+    }
+
+    /**
+     * 记录条目的新版本，版本不大于已处理版本时返回false
+     */
+    private boolean advance(CachedEntity entity, Long id, long version) {
+        boolean[] advanced = {false};
+        appliedVersions.asMap().compute(entity.getCode() + ":" + id, (key, applied) -> {
+            if (applied != null && applied >= version) {
+                return applied;
+            }
+            advanced[0] = true;
+            return version;
+        });
+        return advanced[0];
+    }
+}
@@ -0,0 +1,81 @@
+package com.arkone.cache;
+
+import com.arkone.dto.ArticleQuery;
+import com.arkone.dto.PageQuery;
+import com.arkone.entity.Tag;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 响应缓存键：将查询参数规范化（去空白、统一排序方向与默认值），使等价请求命中同一条目
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class QueryKeys {
+
+    private QueryKeys() {
+    }
+
+    /**
+     * 带一个路径参数（如分类、来源）的分页查询
+     */
+    public record ScopedQuery(String scope, PageQuery query) {
+    }
+
+    /**
+     * 热门标签查询
+     */
+    public record HotTagsQuery(Tag.TagType type, Integer limit) {
+    }
+
+    public static PageQuery normalize(PageQuery query) {
+        PageQuery normalized = new PageQuery();
+        copyPaging(query, normalized);
+        return normalized;
+    }
+
+    public static ScopedQuery normalize(String scope, PageQuery query) {
+        return new ScopedQuery(scope != null ? scope.trim() : null, normalize(query));
+    }
+
+    public static ArticleQuery normalize(ArticleQuery query) {
+        ArticleQuery normalized = new ArticleQuery();
+        copyPaging(query, normalized);
+        normalized.setTitle(trimToNull(query.getTitle()));
+        normalized.setCategoryId(query.getCategoryId());
+        normalized.setStatus(query.getStatus());
+        normalized.setSourceType(query.getSourceType());
+        normalized.setIsTop(query.getIsTop());
+        normalized.setStartTime(query.getStartTime());
+        normalized.setEndTime(query.getEndTime());
+        if (query.getTags() != null && !query.getTags().isEmpty()) {
+            List<String> tags = query.getTags().stream()
+                    .map(QueryKeys::trimToNull)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            normalized.setTags(tags.isEmpty() ? null : tags);
+        }
+        return normalized;
+    }
+
+    private static void copyPaging(PageQuery source, PageQuery target) {
+        if (source.getPageNum() != null) {
+            target.setPageNum(source.getPageNum());
+        }
+        if (source.getPageSize() != null) {
+            target.setPageSize(source.getPageSize());
+        }
+        target.setSortField(trimToNull(source.getSortField()));
+        target.setSortOrder(source.isAsc() ? "asc" : "desc");
+        target.setKeyword(trimToNull(source.getKeyword()));
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.arkone.cache;
+
+import com.arkone.dto.ArticleQuery;
+import com.arkone.dto.PageQuery;
+import com.arkone.dto.Result;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.Tag;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 公共列表接口响应缓存的失效
+ * <p>
+ * 响应缓存按查询参数缓存整页结果，无法按ID定位条目，内容变更后整体清空：
+ * 文章、新闻、分类、标签的写操作在事务提交后经 {@link InvalidationBus} 发布，本节点与其他节点都会收到。
+ * 分类名称出现在文章与新闻列表中，标签使用次数随文章与新闻变化，因此相关缓存一并清空。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheInvalidator {
+
+    private final InvalidationBus invalidationBus;
+    private final StaleWhileRevalidateCache<ArticleQuery, IPage<Article>> articlePageCache;
+    private final StaleWhileRevalidateCache<PageQuery, Result<Page<AiNews>>> aiNewsPageCache;
+    private final StaleWhileRevalidateCache<QueryKeys.ScopedQuery, Result<Page<AiNews>>> aiNewsByCategoryCache;
+    private final StaleWhileRevalidateCache<QueryKeys.ScopedQuery, Result<Page<AiNews>>> aiNewsBySourceCache;
+    private final StaleWhileRevalidateCache<QueryKeys.HotTagsQuery, Result<List<Tag>>> hotTagsCache;
+    private final EncodedResponseCache encodedResponseCache;
+
+    @PostConstruct
+    public void subscribe() {
+        invalidationBus.subscribeAll(CachedEntity.ARTICLE, ids -> {
+            articlePageCache.invalidateAll();
+            hotTagsCache.invalidateAll();
+            encodedResponseCache.invalidateAll();
+        });
+        invalidationBus.subscribeAll(CachedEntity.NEWS, ids -> {
+            invalidateAiNews();
+            hotTagsCache.invalidateAll();
+            encodedResponseCache.invalidateAll();
+        });
+        invalidationBus.subscribeAll(CachedEntity.CATEGORY, ids -> {
+            articlePageCache.invalidateAll();
+            invalidateAiNews();
+            encodedResponseCache.invalidateAll();
+        });
+        invalidationBus.subscribeAll(CachedEntity.TAG, ids -> hotTagsCache.invalidateAll());
+    }
+
+    private void invalidateAiNews() {
+        aiNewsPageCache.invalidateAll();
+        aiNewsByCategoryCache.invalidateAll();
+        aiNewsBySourceCache.invalidateAll();
+    }
+}
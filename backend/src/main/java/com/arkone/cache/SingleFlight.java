@@ -0,0 +1,24 @@
+package com.arkone.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注方法的并发调用按参数合并：相同参数的并发调用只执行一次，其余调用共享结果
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    /**
+     * 等待进行中调用的超时时间（毫秒）
+     */
+    long timeoutMillis() default 3000;
+}
@@ -0,0 +1,43 @@
+package com.arkone.cache;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SingleFlight} 切面：以方法签名加参数列表为键合并并发调用
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Aspect
+@Component
+public class SingleFlightAspect {
+
+    private final Map<Long, SingleFlightGroup<List<Object>>> groups = new ConcurrentHashMap<>();
+
+    @Around("@annotation(singleFlight)")
+    public Object around(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) {
+        SingleFlightGroup<List<Object>> group = groups.computeIfAbsent(singleFlight.timeoutMillis(),
+                timeout -> new SingleFlightGroup<>(Duration.ofMillis(timeout)));
+        List<Object> key = Arrays.asList(joinPoint.getSignature().toLongString(), Arrays.asList(joinPoint.getArgs()));
+        return group.execute(key, () -> proceed(joinPoint));
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
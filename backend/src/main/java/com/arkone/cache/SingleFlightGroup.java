@@ -0,0 +1,74 @@
+package com.arkone.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 请求合并（single-flight）
+ * <p>
+ * 同一键的并发加载只执行一次：第一个调用方在自己的线程中执行加载，其余调用方等待同一个结果。
+ * 加载异常原样传递给所有等待方；等待超时抛出 {@link IllegalStateException}。加载结束即移除，不做缓存。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public class SingleFlightGroup<K> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+
+    public SingleFlightGroup(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Supplier<V> loader) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return (V) await(key, existing);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * 当前进行中的加载数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object await(K key, CompletableFuture<Object> call) {
+        try {
+            return call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("合并请求加载失败，键: " + key, cause);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("等待合并请求超时，键: " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待合并请求被中断，键: " + key, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.arkone.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 过期后台刷新（stale-while-revalidate）的响应缓存
+ * <p>
+ * 写入后 freshTtl 内直接返回；超过 freshTtl 未超过 staleTtl 时立即返回旧值，
+ * 同时在后台发起一次刷新（同一键并发请求只触发一次）；超过 staleTtl 后同步加载。
+ * 加载结果不可缓存（如查询失败）时直接返回给调用方；后台刷新失败时保留旧值。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public class StaleWhileRevalidateCache<K, V> {
+
+    private final LoadingCache<K, V> cache;
+
+    public StaleWhileRevalidateCache(String name, CacheProperties properties, Function<K, V> loader,
+                                     Predicate<V> cacheable, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .refreshAfterWrite(properties.freshTtl())
+                .expireAfterWrite(properties.staleTtl())
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public V load(K key) {
+                        V value = loader.apply(key);
+                        if (!cacheable.test(value)) {
+                            throw new UncacheableValueException(value);
+                        }
+                        return value;
+                    }
+
+                    @Override
+                    public V reload(K key, V oldValue) {
+                        V value = loader.apply(key);
+                        return cacheable.test(value) ? value : oldValue;
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        try {
+            return cache.get(key);
+        } catch (UncacheableValueException e) {
+            return (V) e.value;
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 缓存参数
+     */
+    public record CacheProperties(long maxSize, Duration freshTtl, Duration staleTtl) {
+    }
+
+    /**
+     * 携带不可缓存的加载结果跳出 Caffeine 的加载流程
+     */
+    private static final class UncacheableValueException extends RuntimeException {
+
+        private final transient Object value;
+
+        private UncacheableValueException(Object value) {
+            super(null, null, false, false);
+            this.value = value;
+        }
+    }
+}
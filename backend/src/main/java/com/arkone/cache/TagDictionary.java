@@ -0,0 +1,156 @@
+package com.arkone.cache;
+
+import com.arkone.config.SchedulingConfig;
+import com.arkone.entity.Tag;
+import com.arkone.mapper.TagMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 标签字典
+ * <p>
+ * 以 (名称, 类型) 为键常驻内存，键的大小写规则与 tags 表唯一索引的排序规则一致（不区分大小写）。
+ * 首次使用时全量加载，标签写入后同步更新，并定期全量重载以合并其他节点的变更。
+ *
+ * @author arkone
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagDictionary {
+
+    private final TagMapper tagMapper;
+
+    private volatile Map<Key, Tag> entries;
+
+    /**
+     * 按名称查找标签
+     */
+    public Tag get(String name, Tag.TagType type) {
+        return entries().get(Key.of(name, type));
+    }
+
+    /**
+     * 批量查找标签，返回命中的部分（键为规范化后的名称）
+     */
+    public Map<String, Tag> getAll(Collection<String> names, Tag.TagType type) {
+        Map<Key, Tag> current = entries();
+        Map<String, Tag> hits = new HashMap<>();
+        for (String name : names) {
+            Tag tag = current.get(Key.of(name, type));
+            if (tag != null) {
+                hits.put(normalize(name), tag);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 全部未删除的标签
+     */
+    public Collection<Tag> values() {
+        return Collections.unmodifiableCollection(entries().values());
+    }
+
+    /**
+     * 新增或更新标签
+     */
+    public synchronized void put(Tag tag) {
+        Map<Key, Tag> updated = new HashMap<>(entries());
+        updated.values().removeIf(existing -> existing.getId().equals(tag.getId()));
+        if (tag.getDeleted() == null || tag.getDeleted() == 0) {
+            updated.put(Key.of(tag.getName(), tag.getType()), tag);
+        }
+        entries = updated;
+    }
+
+    /**
+     * 批量新增或更新标签；先移除同ID的旧条目，改名或改类型后旧键不再命中，已删除的不再加入
+     */
+    public synchronized void putAll(Collection<Tag> tags) {
+        Map<Key, Tag> updated = new HashMap<>(entries());
+        Set<Long> ids = new HashSet<>();
+        tags.forEach(tag -> ids.add(tag.getId()));
+        updated.values().removeIf(existing -> ids.contains(existing.getId()));
+        for (Tag tag : tags) {
+            if (tag.getDeleted() == null || tag.getDeleted() == 0) {
+                updated.put(Key.of(tag.getName(), tag.getType()), tag);
+            }
+        }
+        entries = updated;
+    }
+
+    /**
+     * 移除标签
+     */
+    public synchronized void remove(Collection<Long> ids) {
+        Map<Key, Tag> updated = new HashMap<>(entries());
+        updated.values().removeIf(existing -> ids.contains(existing.getId()));
+        entries = updated;
+    }
+
+    /**
+     * 全量重载
+     */
+    @Scheduled(initialDelayString = "${arkone.tag.dictionary.refresh-interval:600000}",
+            fixedDelayString = "${arkone.tag.dictionary.refresh-interval:600000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public synchronized void reload() {
+        try {
+            entries = load();
+        } catch (Exception e) {
+            log.error("标签字典重载失败，沿用当前数据", e);
+        }
+    }
+
+    /**
+     * 名称规范化：去除首尾空白并转为小写
+     */
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Map<Key, Tag> entries() {
+        Map<Key, Tag> current = entries;
+        if (current == null) {
+            synchronized (this) {
+                current = entries;
+                if (current == null) {
+                    current = load();
+                    entries = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<Key, Tag> load() {
+        LambdaQueryWrapper<Tag> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Tag::getDeleted, 0);
+        List<Tag> tags = tagMapper.selectList(wrapper);
+        Map<Key, Tag> loaded = new HashMap<>(tags.size() * 2);
+        tags.forEach(tag -> loaded.put(Key.of(tag.getName(), tag.getType()), tag));
+        log.info("标签字典加载完成，条数: {}", loaded.size());
+        return loaded;
+    }
+
+    private record Key(String name, Tag.TagType type) {
+
+        static Key of(String name, Tag.TagType type) {
+            return new Key(normalize(name), type);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.arkone.cache;
+
+import com.arkone.util.RedisKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 两级缓存
+ * <p>
+ * L1 为进程内 Caffeine 缓存（容量受限，W-TinyLFU 准入淘汰），L2 为 Redis。
+ * L2 中的值为 JSON，超过阈值时 gzip 压缩，首字节标记编码方式。
+ * 命中与未命中通过 Micrometer 暴露到 actuator 的 metrics 端点。
+ * L1 未命中后的加载按ID合并，同一条目的并发未命中只访问一次 Redis 和数据库。
+ * 每次失效记录一个递增序号，加载开始后被失效的条目不回填，避免并发加载把旧值写回缓存。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+public class TwoLevelCache<V> {
+
+    private static final byte ENCODING_PLAIN = 0;
+    private static final byte ENCODING_GZIP = 1;
+
+    private final String name;
+    private final Class<V> type;
+    private final Cache<Long, V> local;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration remoteTtl;
+    private final int compressThreshold;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final SingleFlightGroup<Long> loads;
+    private final AtomicLong evictionSequence = new AtomicLong();
+    private final Cache<Long, Long> evictedAt;
+
+    public TwoLevelCache(String name, Class<V> type, CacheProperties properties,
+                         RedisTemplate<String, byte[]> redisTemplate, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.remoteTtl = properties.remoteTtl();
+        this.compressThreshold = properties.compressThreshold();
+        this.loads = new SingleFlightGroup<>(properties.loadTimeout());
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.localMaxSize())
+                .expireAfterWrite(properties.localTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name);
+        // 只需覆盖进行中加载的时长
+        this.evictedAt = Caffeine.newBuilder()
+                .expireAfterWrite(properties.loadTimeout().multipliedBy(2).plusSeconds(1))
+                .build();
+        this.remoteHits = Counter.builder("arkone.cache.remote.requests")
+                .tag("cache", name).tag("result", "hit")
+                .description("二级缓存（Redis）命中次数")
+                .register(meterRegistry);
+        this.remoteMisses = Counter.builder("arkone.cache.remote.requests")
+                .tag("cache", name).tag("result", "miss")
+                .description("二级缓存（Redis）未命中次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 依次查询L1、L2，均未命中时调用loader加载并回填；loader返回null时不缓存
+     */
+    public V get(Long id, Function<Long, V> loader) {
+        V value = local.getIfPresent(id);
+        if (value != null) {
+            return value;
+        }
+        return loads.execute(id, () -> load(id, loader));
+    }
+
+    /**
+     * 失效指定条目（L1 + L2）
+     */
+    public void evict(Long id) {
+        evictLocal(id);
+        try {
+            redisTemplate.delete(RedisKeys.cache(name, id));
+        } catch (Exception e) {
+            log.warn("删除二级缓存失败，缓存: {}, ID: {}", name, id, e);
+        }
+    }
+
+    /**
+     * 只失效本节点的L1，用于其他节点已删除L2后的通知
+     */
+    public void evictLocal(Long id) {
+        evictedAt.put(id, evictionSequence.incrementAndGet());
+        local.invalidate(id);
+    }
+
+    /**
+     * L1中最热的前limit个ID，按热度从高到低
+     */
+    public List<Long> hotKeys(int limit) {
+        return local.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElseGet(() -> local.asMap().keySet().stream().limit(limit).toList());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private V load(Long id, Function<Long, V> loader) {
+        // 等待期间可能已被前一次加载回填
+        V value = local.getIfPresent(id);
+        if (value != null) {
+            return value;
+        }
+        long started = evictionSequence.get();
+        value = getRemote(id);
+        if (value != null) {
+            remoteHits.increment();
+            if (!evictedSince(id, started)) {
+                local.put(id, value);
+            }
+            return value;
+        }
+        remoteMisses.increment();
+        value = loader.apply(id);
+        if (value != null && !evictedSince(id, started)) {
+            local.put(id, value);
+            putRemote(id, value);
+        }
+        return value;
+    }
+
+    private boolean evictedSince(Long id, long sequence) {
+        Long evicted = evictedAt.getIfPresent(id);
+        return evicted != null && evicted > sequence;
+    }
+
+    private V getRemote(Long id) {
+        try {
+            byte[] bytes = redisTemplate.opsForValue().get(RedisKeys.cache(name, id));
+            return bytes != null ? decode(bytes) : null;
+        } catch (Exception e) {
+            log.warn("读取二级缓存失败，缓存: {}, ID: {}", name, id, e);
+            return null;
+        }
+    }
+
+    private void putRemote(Long id, V value) {
+        try {
+            redisTemplate.opsForValue().set(RedisKeys.cache(name, id), encode(value), remoteTtl);
+        } catch (Exception e) {
+            log.warn("写入二级缓存失败，缓存: {}, ID: {}", name, id, e);
+        }
+    }
+
+    private byte[] encode(V value) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2 + 16);
+        if (json.length < compressThreshold) {
+            out.write(ENCODING_PLAIN);
+            out.write(json);
+            return out.toByteArray();
+        }
+        out.write(ENCODING_GZIP);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    private V decode(byte[] bytes) throws IOException {
+        InputStream in = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+        if (bytes[0] == ENCODING_GZIP) {
+            in = new GZIPInputStream(in);
+        }
+        try (InputStream input = in) {
+            return objectMapper.readValue(input, type);
+        }
+    }
+
+    /**
+     * 缓存参数
+     */
+    public record CacheProperties(long localMaxSize, Duration localTtl, Duration remoteTtl, int compressThreshold,
+                                  Duration loadTimeout) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.arkone.cache;
+
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.health.AdditionalHealthEndpointPath;
+import org.springframework.boot.actuate.health.HealthEndpointGroup;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.HealthEndpointGroupsPostProcessor;
+import org.springframework.boot.actuate.health.HttpCodeStatusMapper;
+import org.springframework.boot.actuate.health.StatusAggregator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 把缓存预热检查从 /actuator/health 的总体状态中排除
+ * <p>
+ * 总体状态汇总所有已注册的健康检查，无法通过配置排除单个检查；这里替换主分组，
+ * 使其不包含 {@link WarmupHealthIndicator#NAME}，预热检查仍按配置属于 readiness 分组。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Component
+public class WarmupHealthGroupsPostProcessor implements HealthEndpointGroupsPostProcessor {
+
+    @Override
+    public HealthEndpointGroups postProcessHealthEndpointGroups(HealthEndpointGroups groups) {
+        Map<String, HealthEndpointGroup> named = new LinkedHashMap<>();
+        groups.getNames().forEach(name -> named.put(name, groups.get(name)));
+        return HealthEndpointGroups.of(new ExcludingGroup(groups.getPrimary(), WarmupHealthIndicator.NAME), named);
+    }
+
+    /**
+     * 排除指定检查的分组，其余行为与原分组相同
+     */
+    private record ExcludingGroup(HealthEndpointGroup delegate, String excluded) implements HealthEndpointGroup {
+
+        @Override
+        public boolean isMember(String name) {
+            return !excluded.equals(name) && delegate.isMember(name);
+        }
+
+        @Override
+        public boolean showComponents(SecurityContext securityContext) {
+            return delegate.showComponents(securityContext);
+        }
+
+        @Override
+        public boolean showDetails(SecurityContext securityContext) {
+            return delegate.showDetails(securityContext);
+        }
+
+        @Override
+        public StatusAggregator getStatusAggregator() {
+            return delegate.getStatusAggregator();
+        }
+
+        @Override
+        public HttpCodeStatusMapper getHttpCodeStatusMapper() {
+            return delegate.getHttpCodeStatusMapper();
+        }
+
+        @Override
+        public AdditionalHealthEndpointPath getAdditionalPath() {
+            return delegate.getAdditionalPath();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.arkone.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 缓存预热健康检查，只纳入 readiness 分组：预热结束前报告 OUT_OF_SERVICE。
+ * 由 {@link WarmupHealthGroupsPostProcessor} 从 /actuator/health 的总体状态中排除，预热期间不影响存活检查与监控
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    /**
+     * 健康检查名称，即 management.endpoint.health.group.readiness.include 中引用的名称
+     */
+    public static final String NAME = "warmup";
+
+    private final CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        return cacheWarmer.isComplete() ? Health.up().build() : Health.outOfService().build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.arkone.config;
+
+import com.arkone.cache.ContentListCache;
+import com.arkone.cache.TwoLevelCache;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * 缓存配置类
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${arkone.cache.detail.local-max-size:1000}")
+    private long localMaxSize;
+
+    @Value("${arkone.cache.detail.local-ttl:10m}")
+    private Duration localTtl;
+
+    @Value("${arkone.cache.detail.remote-ttl:1h}")
+    private Duration remoteTtl;
+
+    @Value("${arkone.cache.detail.compress-threshold:4096}")
+    private int compressThreshold;
+
+    @Value("${arkone.cache.detail.load-timeout:3s}")
+    private Duration loadTimeout;
+
+    @Value("${arkone.cache.list.capacity:50}")
+    private int listCapacity;
+
+    /**
+     * 文章详情缓存
+     */
+    @Bean
+    public TwoLevelCache<Article> articleDetailCache(RedisTemplate<String, byte[]> byteRedisTemplate,
+                                                     ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TwoLevelCache<>("article-detail", Article.class, detailCacheProperties(),
+                byteRedisTemplate, objectMapper, meterRegistry);
+    }
+
+    /**
+     * AI新闻详情缓存
+     */
+    @Bean
+    public TwoLevelCache<AiNews> aiNewsDetailCache(RedisTemplate<String, byte[]> byteRedisTemplate,
+                                                   ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TwoLevelCache<>("ai-news-detail", AiNews.class, detailCacheProperties(),
+                byteRedisTemplate, objectMapper, meterRegistry);
+    }
+
+    /**
+     * 文章列表快照，排序与ArticleMapper中对应查询的ORDER BY一致
+     */
+    @Bean
+    public ContentListCache<Article> articleListCache(ArticleMapper articleMapper) {
+        Comparator<Article> byPublishTime = Comparator
+                .comparing(Article::getPublishTime, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(Article::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+        Comparator<Article> byViewCount = Comparator
+                .comparing(Article::getViewCount, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+                .thenComparing(Article::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+        return new ContentListCache<>("article", listCapacity, Article::getId, articleMapper::selectById)
+                .list(ContentListCache.HOT, CacheConfig::isPublished, byViewCount, articleMapper::selectHotArticles)
+                .list(ContentListCache.LATEST, CacheConfig::isPublished, byPublishTime, articleMapper::selectLatestArticles)
+                .list(ContentListCache.RECOMMEND, article -> isPublished(article) && Boolean.TRUE.equals(article.getIsTop()),
+                        byPublishTime, articleMapper::selectRecommendArticles)
+                .group(ContentListCache.BY_CATEGORY, Article::getCategoryId, CacheConfig::isPublished, byPublishTime,
+                        articleMapper::selectArticlesByCategoryId);
+    }
+
+    /**
+     * AI新闻列表快照，排序与AiNewsMapper中对应查询的ORDER BY一致。
+     * 只有热门与最新两个列表：新闻分类是自由文本且按分类查询为分页接口，不适合按分组快照，仍直接查询数据库
+     */
+    @Bean
+    public ContentListCache<AiNews> aiNewsListCache(AiNewsMapper aiNewsMapper) {
+        Comparator<AiNews> byPublishedAt = Comparator
+                .comparing(AiNews::getPublishedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+        return new ContentListCache<>("ai-news", listCapacity, AiNews::getId, aiNewsMapper::selectById)
+                .list(ContentListCache.HOT, news -> isPublished(news) && Boolean.TRUE.equals(news.getIsHot()),
+                        byPublishedAt, aiNewsMapper::selectHotNews)
+                .list(ContentListCache.LATEST, CacheConfig::isPublished, byPublishedAt, aiNewsMapper::selectLatestNews);
+    }
+
+    private TwoLevelCache.CacheProperties detailCacheProperties() {
+        return new TwoLevelCache.CacheProperties(localMaxSize, localTtl, remoteTtl, compressThreshold, loadTimeout);
+    }
+
+    private static boolean isPublished(Article article) {
+        return Article.ArticleStatus.PUBLISHED.equals(article.getStatus());
+    }
+
+    private static boolean isPublished(AiNews news) {
+        return AiNews.NewsStatus.PUBLISHED.equals(news.getStatus());
+    }
+}
@@ -0,0 +1,37 @@
+package com.arkone.config;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MyBatis-Plus配置
+ * <p>
+ * 分页插件作用于全部Mapper：任何以 {@code IPage} 为参数的查询（selectPage 及注解SQL的分页查询）
+ * 都会追加 LIMIT 并先执行一次 COUNT。注册该插件之前，这些查询不分页，直接返回全部匹配行，
+ * 总数为0。新增分页查询时，SQL 中不要再自行拼接 LIMIT；不需要总数的查询可在 Page 上关闭 searchCount。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Configuration
+public class MybatisPlusConfig {
+
+    @Value("${arkone.mybatis.page.max-limit:500}")
+    private long maxLimit;
+
+    /**
+     * 分页插件：为带Page参数的查询追加LIMIT并执行COUNT；单页条数超过上限时按上限截断
+     */
+    @Bean
+    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+        PaginationInnerInterceptor pagination = new PaginationInnerInterceptor(DbType.MYSQL);
+        pagination.setMaxLimit(maxLimit);
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(pagination);
+        return interceptor;
+    }
+}
@@ -0,0 +1,99 @@
+package com.arkone.config;
+
+import com.arkone.cache.EncodedResponseCache;
+import com.arkone.cache.QueryKeys;
+import com.arkone.cache.StaleWhileRevalidateCache;
+import com.arkone.dto.ArticleQuery;
+import com.arkone.dto.PageQuery;
+import com.arkone.dto.Result;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.Tag;
+import com.arkone.service.AiNewsService;
+import com.arkone.service.ArticleService;
+import com.arkone.service.TagService;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 公共列表接口的响应缓存配置
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Value("${arkone.cache.response.max-size:1000}")
+    private long maxSize;
+
+    @Value("${arkone.cache.response.fresh-ttl:60s}")
+    private Duration freshTtl;
+
+    @Value("${arkone.cache.response.stale-ttl:10m}")
+    private Duration staleTtl;
+
+    @Value("${arkone.cache.encoded.max-size:200}")
+    private long encodedMaxSize;
+
+    @Value("${arkone.cache.encoded.ttl:30s}")
+    private Duration encodedTtl;
+
+    @Value("${arkone.cache.encoded.compress-min-size:1024}")
+    private int compressMinSize;
+
+    @Bean
+    public StaleWhileRevalidateCache<PageQuery, Result<Page<AiNews>>> aiNewsPageCache(
+            AiNewsService aiNewsService, MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache<>("ai-news-page", properties(),
+                aiNewsService::getAiNewsPage, Result::isSuccess, meterRegistry);
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<QueryKeys.ScopedQuery, Result<Page<AiNews>>> aiNewsByCategoryCache(
+            AiNewsService aiNewsService, MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache<>("ai-news-by-category", properties(),
+                key -> aiNewsService.getAiNewsByCategory(key.scope(), key.query()), Result::isSuccess, meterRegistry);
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<QueryKeys.ScopedQuery, Result<Page<AiNews>>> aiNewsBySourceCache(
+            AiNewsService aiNewsService, MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache<>("ai-news-by-source", properties(),
+                key -> aiNewsService.getAiNewsBySource(key.scope(), key.query()), Result::isSuccess, meterRegistry);
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<ArticleQuery, IPage<Article>> articlePageCache(
+            ArticleService articleService, MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache<>("article-page", properties(),
+                articleService::getArticlePage, Objects::nonNull, meterRegistry);
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<QueryKeys.HotTagsQuery, Result<List<Tag>>> hotTagsCache(
+            TagService tagService, MeterRegistry meterRegistry) {
+        return new StaleWhileRevalidateCache<>("hot-tags", properties(),
+                key -> tagService.getHotTags(key.type(), key.limit()), Result::isSuccess, meterRegistry);
+    }
+
+    @Bean
+    public EncodedResponseCache encodedResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new EncodedResponseCache("encoded-response",
+                new EncodedResponseCache.CacheProperties(encodedMaxSize, encodedTtl, compressMinSize),
+                objectMapper, meterRegistry);
+    }
+
+    private StaleWhileRevalidateCache.CacheProperties properties() {
+        return new StaleWhileRevalidateCache.CacheProperties(maxSize, freshTtl, staleTtl);
+    }
+}
@@ -0,0 +1,49 @@
+package com.arkone.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 定时任务调度配置
+ * <p>
+ * 两个调度器：默认调度器（spring.task.scheduling.*）执行浏览量、点赞刷盘等短周期任务；
+ * 维护调度器执行搜索索引、筛选索引、布隆过滤器等全表扫描的重建任务，
+ * 重建期间刷盘任务不会因线程被占用而停滞，缓冲与计数日志段不会持续积压。
+ * 重建任务通过 {@code @Scheduled(scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)} 指定维护调度器。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Configuration
+public class SchedulingConfig {
+
+    /**
+     * 维护调度器的Bean名称
+     */
+    public static final String MAINTENANCE_SCHEDULER = "maintenanceScheduler";
+
+    @Value("${arkone.scheduling.maintenance.pool-size:2}")
+    private int maintenancePoolSize;
+
+    /**
+     * 默认调度器；定义了维护调度器后自动配置不再创建默认调度器，这里按 spring.task.scheduling 配置显式创建
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * 维护调度器
+     */
+    @Bean(MAINTENANCE_SCHEDULER)
+    public ThreadPoolTaskScheduler maintenanceScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(maintenancePoolSize, 1));
+        scheduler.setThreadNamePrefix("maintenance-");
+        return scheduler;
+    }
+}
@@ -0,0 +1,45 @@
+package com.arkone.config;
+
+import com.arkone.search.SearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 全文搜索索引配置
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Configuration
+public class SearchConfig {
+
+    @Value("${arkone.search.path:data/search-index}")
+    private String indexPath;
+
+    @Value("${arkone.search.segment.max-segments:8}")
+    private int maxSegments;
+
+    /**
+     * 已发布文章的倒排索引
+     */
+    @Bean
+    public SearchIndex articleSearchIndex() {
+        return new SearchIndex("article", directory("article"), maxSegments);
+    }
+
+    /**
+     * 已发布AI新闻的倒排索引
+     */
+    @Bean
+    public SearchIndex aiNewsSearchIndex() {
+        return new SearchIndex("ai-news", directory("ai-news"), maxSegments);
+    }
+
+    private Path directory(String name) {
+        return Paths.get(indexPath).resolve(name);
+    }
+}
@@ -1,7 +1,12 @@
 package com.arkone.controller;
 
+import com.arkone.cache.QueryKeys;
+import com.arkone.cache.StaleWhileRevalidateCache;
 import com.arkone.entity.AiNews;
 import com.arkone.service.AiNewsService;
+import com.arkone.util.ClientIdentity;
+import com.arkone.util.ConditionalRequests;
+import com.arkone.dto.LikeStatus;
 import com.arkone.dto.PageQuery;
 import com.arkone.dto.Result;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -11,7 +16,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
@@ -28,18 +36,29 @@ import java.util.Map;
 public class AiNewsController {
 
     private final AiNewsService aiNewsService;
+    private final ClientIdentity clientIdentity;
+    private final StaleWhileRevalidateCache<PageQuery, Result<Page<AiNews>>> aiNewsPageCache;
+    private final StaleWhileRevalidateCache<QueryKeys.ScopedQuery, Result<Page<AiNews>>> aiNewsByCategoryCache;
+    private final StaleWhileRevalidateCache<QueryKeys.ScopedQuery, Result<Page<AiNews>>> aiNewsBySourceCache;
 
     @Operation(summary = "分页查询AI新闻")
     @GetMapping
     public Result<Page<AiNews>> getAiNewsPage(@Valid PageQuery query) {
-        return aiNewsService.getAiNewsPage(query);
+        return aiNewsPageCache.get(QueryKeys.normalize(query));
     }
 
     @Operation(summary = "获取AI新闻详情")
     @GetMapping("/{id}")
     public Result<AiNews> getAiNewsById(
-            @Parameter(description = "新闻ID") @PathVariable @NotNull Long id) {
-        return aiNewsService.getAiNewsById(id);
+            @Parameter(description = "新闻ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response, WebRequest webRequest) {
+        String clientId = clientIdentity.resolve(request, response);
+        if (ConditionalRequests.checkNotModified(webRequest, aiNewsService.getAiNewsVersion(id))) {
+            // 304仍计为一次访问
+            aiNewsService.recordView(id, clientId);
+            return null;
+        }
+        return aiNewsService.getAiNewsById(id, clientId);
     }
 
     @Operation(summary = "创建AI新闻")
@@ -111,32 +130,50 @@ public class AiNewsController {
 
     @Operation(summary = "点赞AI新闻")
     @PostMapping("/{id}/like")
-    public Result<Void> likeAiNews(
-            @Parameter(description = "新闻ID") @PathVariable @NotNull Long id) {
-        boolean success = aiNewsService.likeAiNews(id);
-        return success ? Result.success() : Result.error("点赞失败");
+    public Result<LikeStatus> likeAiNews(
+            @Parameter(description = "新闻ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response) {
+        return aiNewsService.likeAiNews(id, clientIdentity.resolve(request, response));
     }
 
     @Operation(summary = "取消点赞AI新闻")
     @DeleteMapping("/{id}/like")
-    public Result<Void> unlikeAiNews(
-            @Parameter(description = "新闻ID") @PathVariable @NotNull Long id) {
-        boolean success = aiNewsService.unlikeAiNews(id);
-        return success ? Result.success() : Result.error("取消点赞失败");
+    public Result<LikeStatus> unlikeAiNews(
+            @Parameter(description = "新闻ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response) {
+        return aiNewsService.unlikeAiNews(id, clientIdentity.resolve(request, response));
+    }
+
+    @Operation(summary = "获取AI新闻点赞状态")
+    @GetMapping("/{id}/like")
+    public Result<LikeStatus> getLikeStatus(
+            @Parameter(description = "新闻ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response) {
+        return aiNewsService.getLikeStatus(id, clientIdentity.resolve(request, response));
     }
 
     @Operation(summary = "获取热门AI新闻")
     @GetMapping("/hot")
     public Result<List<AiNews>> getHotAiNews(
-            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit) {
-        return aiNewsService.getHotAiNews(limit);
+            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit,
+            WebRequest webRequest) {
+        Result<List<AiNews>> result = aiNewsService.getHotAiNews(limit);
+        if (ConditionalRequests.checkNotModified(webRequest, result, AiNews::getId, AiNews::getUpdatedAt)) {
+            return null;
+        }
+        return result;
     }
 
     @Operation(summary = "获取最新AI新闻")
     @GetMapping("/latest")
     public Result<List<AiNews>> getLatestAiNews(
-            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit) {
-        return aiNewsService.getLatestAiNews(limit);
+            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit,
+            WebRequest webRequest) {
+        Result<List<AiNews>> result = aiNewsService.getLatestAiNews(limit);
+        if (ConditionalRequests.checkNotModified(webRequest, result, AiNews::getId, AiNews::getUpdatedAt)) {
+            return null;
+        }
+        return result;
     }
 
     @Operation(summary = "根据分类获取AI新闻")
@@ -144,7 +181,7 @@ public class AiNewsController {
     public Result<Page<AiNews>> getAiNewsByCategory(
             @Parameter(description = "分类") @PathVariable String category,
             @Valid PageQuery query) {
-        return aiNewsService.getAiNewsByCategory(category, query);
+        return aiNewsByCategoryCache.get(QueryKeys.normalize(category, query));
     }
 
     @Operation(summary = "根据来源获取AI新闻")
@@ -152,7 +189,7 @@ public class AiNewsController {
     public Result<Page<AiNews>> getAiNewsBySource(
             @Parameter(description = "来源") @PathVariable String source,
             @Valid PageQuery query) {
-        return aiNewsService.getAiNewsBySource(source, query);
+        return aiNewsBySourceCache.get(QueryKeys.normalize(source, query));
     }
 
     @Operation(summary = "根据标签获取AI新闻")
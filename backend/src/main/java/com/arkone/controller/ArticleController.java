@@ -1,19 +1,30 @@
 package com.arkone.controller;
 
+import com.arkone.cache.EncodedResponseCache;
+import com.arkone.cache.QueryKeys;
+import com.arkone.cache.StaleWhileRevalidateCache;
 import com.arkone.dto.ArticleQuery;
 import com.arkone.dto.ArticleSaveDTO;
+import com.arkone.dto.ContentVersion;
+import com.arkone.dto.LikeStatus;
 import com.arkone.dto.Result;
 import com.arkone.entity.Article;
 import com.arkone.service.ArticleService;
+import com.arkone.util.ClientIdentity;
+import com.arkone.util.ConditionalRequests;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
@@ -33,19 +44,29 @@ import java.util.List;
 public class ArticleController {
 
     private final ArticleService articleService;
+    private final ClientIdentity clientIdentity;
+    private final StaleWhileRevalidateCache<ArticleQuery, IPage<Article>> articlePageCache;
+    private final EncodedResponseCache encodedResponseCache;
 
     @GetMapping("/page")
     @Operation(summary = "分页查询文章")
     public Result<IPage<Article>> getArticlePage(@Valid ArticleQuery query) {
-        IPage<Article> page = articleService.getArticlePage(query);
+        IPage<Article> page = articlePageCache.get(QueryKeys.normalize(query));
         return Result.success(page);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "获取文章详情")
     public Result<Article> getArticleDetail(
-            @Parameter(description = "文章ID") @PathVariable @NotNull Long id) {
-        Article article = articleService.getArticleDetail(id);
+            @Parameter(description = "文章ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response, WebRequest webRequest) {
+        String clientId = clientIdentity.resolve(request, response);
+        if (ConditionalRequests.checkNotModified(webRequest, articleService.getArticleVersion(id))) {
+            // 304仍计为一次访问
+            articleService.recordView(id, clientId);
+            return null;
+        }
+        Article article = articleService.getArticleDetail(id, clientId);
         if (article == null) {
             return Result.error("文章不存在");
         }
@@ -121,50 +142,83 @@ public class ArticleController {
 
     @PutMapping("/{id}/like")
     @Operation(summary = "点赞文章")
-    public Result<Void> likeArticle(
-            @Parameter(description = "文章ID") @PathVariable @NotNull Long id) {
-        boolean success = articleService.likeArticle(id);
-        return success ? Result.success() : Result.error("点赞失败");
+    public Result<LikeStatus> likeArticle(
+            @Parameter(description = "文章ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response) {
+        LikeStatus status = articleService.likeArticle(id, clientIdentity.resolve(request, response));
+        return status != null ? Result.success(status) : Result.error("文章不存在");
     }
 
     @PutMapping("/{id}/unlike")
     @Operation(summary = "取消点赞文章")
-    public Result<Void> unlikeArticle(
-            @Parameter(description = "文章ID") @PathVariable @NotNull Long id) {
-        boolean success = articleService.unlikeArticle(id);
-        return success ? Result.success() : Result.error("取消点赞失败");
+    public Result<LikeStatus> unlikeArticle(
+            @Parameter(description = "文章ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response) {
+        LikeStatus status = articleService.unlikeArticle(id, clientIdentity.resolve(request, response));
+        return status != null ? Result.success(status) : Result.error("文章不存在");
+    }
+
+    @GetMapping("/{id}/like")
+    @Operation(summary = "获取文章点赞状态")
+    public Result<LikeStatus> getLikeStatus(
+            @Parameter(description = "文章ID") @PathVariable @NotNull Long id,
+            HttpServletRequest request, HttpServletResponse response) {
+        LikeStatus status = articleService.getLikeStatus(id, clientIdentity.resolve(request, response));
+        return status != null ? Result.success(status) : Result.error("文章不存在");
     }
 
     @GetMapping("/hot")
     @Operation(summary = "获取热门文章")
-    public Result<List<Article>> getHotArticles(
-            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit) {
+    public ResponseEntity<byte[]> getHotArticles(
+            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit,
+            HttpServletRequest request, WebRequest webRequest) {
         List<Article> articles = articleService.getHotArticles(limit);
-        return Result.success(articles);
+        ContentVersion version = articleListVersion(articles);
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return encodedResponseCache.respond("articles:hot:" + limit, version,
+                () -> Result.success(articles), request);
     }
 
     @GetMapping("/latest")
     @Operation(summary = "获取最新文章")
-    public Result<List<Article>> getLatestArticles(
-            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit) {
+    public ResponseEntity<byte[]> getLatestArticles(
+            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit,
+            HttpServletRequest request, WebRequest webRequest) {
         List<Article> articles = articleService.getLatestArticles(limit);
-        return Result.success(articles);
+        ContentVersion version = articleListVersion(articles);
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return encodedResponseCache.respond("articles:latest:" + limit, version,
+                () -> Result.success(articles), request);
     }
 
     @GetMapping("/recommend")
     @Operation(summary = "获取推荐文章")
-    public Result<List<Article>> getRecommendArticles(
-            @Parameter(description = "数量限制") @RequestParam(defaultValue = "5") Integer limit) {
+    public ResponseEntity<byte[]> getRecommendArticles(
+            @Parameter(description = "数量限制") @RequestParam(defaultValue = "5") Integer limit,
+            HttpServletRequest request, WebRequest webRequest) {
         List<Article> articles = articleService.getRecommendArticles(limit);
-        return Result.success(articles);
+        ContentVersion version = articleListVersion(articles);
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return encodedResponseCache.respond("articles:recommend:" + limit, version,
+                () -> Result.success(articles), request);
     }
 
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "根据分类获取文章")
     public Result<List<Article>> getArticlesByCategory(
             @Parameter(description = "分类ID") @PathVariable @NotNull Long categoryId,
-            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit) {
+            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit,
+            WebRequest webRequest) {
         List<Article> articles = articleService.getArticlesByCategory(categoryId, limit);
+        if (ConditionalRequests.checkNotModified(webRequest, articleListVersion(articles))) {
+            return null;
+        }
         return Result.success(articles);
     }
 
@@ -200,4 +254,8 @@ public class ArticleController {
         boolean success = articleService.syncWechatArticles();
         return success ? Result.success() : Result.error("同步失败");
     }
-}
\ No newline at end of file
+
+    private static ContentVersion articleListVersion(List<Article> articles) {
+        return ContentVersion.ofList(articles, Article::getId, Article::getUpdatedAt);
+    }
+}
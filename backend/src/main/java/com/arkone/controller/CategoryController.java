@@ -1,14 +1,21 @@
 package com.arkone.controller;
 
+import com.arkone.cache.EncodedResponseCache;
+import com.arkone.dto.ContentVersion;
 import com.arkone.dto.Result;
 import com.arkone.entity.Category;
 import com.arkone.service.CategoryService;
+import com.arkone.util.ConditionalRequests;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -26,6 +33,7 @@ import java.util.Map;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final EncodedResponseCache encodedResponseCache;
 
     /**
      * 根据类型获取分类列表
@@ -33,9 +41,14 @@ public class CategoryController {
     @GetMapping("/type/{type}")
     @Operation(summary = "根据类型获取分类列表")
     public Result<List<Category>> getCategoriesByType(
-            @Parameter(description = "分类类型") @PathVariable String type) {
+            @Parameter(description = "分类类型") @PathVariable String type,
+            WebRequest webRequest) {
         Category.CategoryType categoryType = Category.CategoryType.valueOf(type.toUpperCase());
-        return categoryService.getCategoriesByType(categoryType);
+        Result<List<Category>> result = categoryService.getCategoriesByType(categoryType);
+        if (ConditionalRequests.checkNotModified(webRequest, result, Category::getId, Category::getUpdatedAt)) {
+            return null;
+        }
+        return result;
     }
 
     /**
@@ -43,8 +56,16 @@ public class CategoryController {
      */
     @GetMapping("/enabled")
     @Operation(summary = "获取所有启用的分类")
-    public Result<List<Category>> getAllEnabledCategories() {
-        return categoryService.getAllEnabledCategories();
+    public ResponseEntity<byte[]> getAllEnabledCategories(HttpServletRequest request, WebRequest webRequest) {
+        Result<List<Category>> result = categoryService.getAllEnabledCategories();
+        if (ConditionalRequests.checkNotModified(webRequest, result, Category::getId, Category::getUpdatedAt)) {
+            return null;
+        }
+        // 查询失败的结果不缓存
+        ContentVersion version = result.isSuccess() && result.getData() != null
+                ? ContentVersion.ofList(result.getData(), Category::getId, Category::getUpdatedAt)
+                : null;
+        return encodedResponseCache.respond("categories:enabled", version, () -> result, request);
     }
 
     /**
@@ -132,9 +153,14 @@ public class CategoryController {
      */
     @GetMapping("/tree/{type}")
     @Operation(summary = "构建分类树")
-    public Result<List<Category>> buildCategoryTree(
-            @Parameter(description = "分类类型") @PathVariable String type) {
+    public Result<RawValue> buildCategoryTree(
+            @Parameter(description = "分类类型") @PathVariable String type,
+            WebRequest webRequest) {
         Category.CategoryType categoryType = Category.CategoryType.valueOf(type.toUpperCase());
-        return categoryService.buildCategoryTree(categoryType);
+        // 版本取自分类树快照，命中时不访问数据库
+        if (ConditionalRequests.checkNotModified(webRequest, categoryService.getCategoryTreeVersion(categoryType))) {
+            return null;
+        }
+        return categoryService.getCategoryTreeJson(categoryType);
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.arkone.controller;
+
+import com.arkone.dto.Result;
+import com.arkone.search.SearchComparison;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 搜索模式对比控制器，仅在 arkone.search.comparison.enabled=true 时注册
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "arkone.search.comparison", name = "enabled", havingValue = "true")
+@Tag(name = "搜索对比", description = "全文索引、进程内索引与LIKE查询对比接口")
+public class SearchComparisonController {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_ROUNDS = 20;
+
+    private final SearchComparison searchComparison;
+
+    /**
+     * 对比全文索引、进程内索引与LIKE查询的耗时和结果重合度
+     */
+    @GetMapping("/compare")
+    @Operation(summary = "对比全文索引、进程内索引与LIKE查询")
+    public Result<List<SearchComparison.Report>> compare(
+            @Parameter(description = "关键词，可多个") @RequestParam List<String> keywords,
+            @Parameter(description = "参与重合度计算的结果条数") @RequestParam(defaultValue = "100") Integer limit,
+            @Parameter(description = "每种查询执行轮数") @RequestParam(defaultValue = "5") Integer rounds) {
+        return Result.success(searchComparison.compare(keywords,
+                Math.min(Math.max(limit, 1), MAX_LIMIT), Math.min(Math.max(rounds, 1), MAX_ROUNDS)));
+    }
+}
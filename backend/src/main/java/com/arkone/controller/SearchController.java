@@ -0,0 +1,41 @@
+package com.arkone.controller;
+
+import com.arkone.dto.Result;
+import com.arkone.dto.SearchPage;
+import com.arkone.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 综合搜索控制器
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Validated
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "综合搜索", description = "文章、AI新闻、标签综合搜索接口")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * 一次请求同时搜索文章、AI新闻和标签
+     */
+    @GetMapping
+    @Operation(summary = "综合搜索")
+    public Result<SearchPage> search(
+            @Parameter(description = "关键词") @RequestParam String keyword,
+            @Parameter(description = "页码") @RequestParam(defaultValue = "1") @Min(1) Integer pageNum,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer pageSize) {
+        return Result.success(searchService.search(keyword, pageNum, pageSize));
+    }
+}
@@ -0,0 +1,36 @@
+package com.arkone.controller;
+
+import com.arkone.dto.Result;
+import com.arkone.dto.SuggestResult;
+import com.arkone.service.SuggestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 输入联想控制器
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@RestController
+@RequestMapping("/api/suggest")
+@RequiredArgsConstructor
+@Tag(name = "输入联想", description = "搜索框输入联想接口")
+public class SuggestController {
+
+    private final SuggestService suggestService;
+
+    /**
+     * 按前缀联想标签、文章标题和AI新闻标题
+     */
+    @GetMapping
+    @Operation(summary = "输入联想")
+    public Result<SuggestResult> suggest(
+            @Parameter(description = "已输入的前缀") @RequestParam String prefix,
+            @Parameter(description = "每类返回条数") @RequestParam(required = false) Integer limit) {
+        return Result.success(suggestService.suggest(prefix, limit));
+    }
+}
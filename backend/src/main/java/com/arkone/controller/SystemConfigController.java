@@ -0,0 +1,47 @@
+package com.arkone.controller;
+
+import com.arkone.dto.Result;
+import com.arkone.entity.SystemConfig;
+import com.arkone.service.SystemConfigService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 系统配置控制器
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@RestController
+@RequestMapping("/api/system-config")
+@RequiredArgsConstructor
+@Tag(name = "系统配置", description = "系统配置相关接口")
+public class SystemConfigController {
+
+    private final SystemConfigService systemConfigService;
+
+    /**
+     * 获取全部配置
+     */
+    @GetMapping
+    @Operation(summary = "获取全部配置")
+    public Result<List<SystemConfig>> getAllConfigs() {
+        return Result.success(systemConfigService.getAll());
+    }
+
+    /**
+     * 更新配置值；系统配置不允许修改，值须符合配置类型
+     */
+    @PutMapping("/{key}")
+    @Operation(summary = "更新配置值", description = "系统配置（is_system）不允许修改；值须符合配置类型：string/number/boolean/json")
+    public Result<Void> updateConfig(
+            @Parameter(description = "配置键") @PathVariable String key,
+            @Parameter(description = "配置值") @RequestParam String value) {
+        return systemConfigService.updateValue(key, value);
+    }
+}
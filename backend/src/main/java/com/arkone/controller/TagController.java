@@ -1,9 +1,12 @@
 package com.arkone.controller;
 
+import com.arkone.cache.QueryKeys;
+import com.arkone.cache.StaleWhileRevalidateCache;
 import com.arkone.dto.PageQuery;
 import com.arkone.dto.Result;
 import com.arkone.entity.Tag;
 import com.arkone.service.TagService;
+import com.arkone.util.ConditionalRequests;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +14,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +32,7 @@ import java.util.Map;
 public class TagController {
 
     private final TagService tagService;
+    private final StaleWhileRevalidateCache<QueryKeys.HotTagsQuery, Result<List<Tag>>> hotTagsCache;
 
     /**
      * 分页查询标签
@@ -98,8 +103,12 @@ public class TagController {
      */
     @GetMapping("/enabled")
     @Operation(summary = "获取所有启用的标签")
-    public Result<List<Tag>> getAllEnabledTags() {
-        return tagService.getAllEnabledTags();
+    public Result<List<Tag>> getAllEnabledTags(WebRequest webRequest) {
+        Result<List<Tag>> result = tagService.getAllEnabledTags();
+        if (ConditionalRequests.checkNotModified(webRequest, result, Tag::getId, Tag::getUpdatedAt)) {
+            return null;
+        }
+        return result;
     }
 
     /**
@@ -108,9 +117,14 @@ public class TagController {
     @GetMapping("/type/{type}")
     @Operation(summary = "根据类型获取标签列表")
     public Result<List<Tag>> getTagsByType(
-            @Parameter(description = "标签类型") @PathVariable String type) {
+            @Parameter(description = "标签类型") @PathVariable String type,
+            WebRequest webRequest) {
         Tag.TagType tagType = Tag.TagType.valueOf(type.toUpperCase());
-        return tagService.getTagsByType(tagType);
+        Result<List<Tag>> result = tagService.getTagsByType(tagType);
+        if (ConditionalRequests.checkNotModified(webRequest, result, Tag::getId, Tag::getUpdatedAt)) {
+            return null;
+        }
+        return result;
     }
 
     /**
@@ -154,9 +168,14 @@ public class TagController {
     @Operation(summary = "获取热门标签")
     public Result<List<Tag>> getHotTags(
             @Parameter(description = "标签类型") @RequestParam(required = false) String type,
-            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit) {
+            @Parameter(description = "数量限制") @RequestParam(defaultValue = "10") Integer limit,
+            WebRequest webRequest) {
         Tag.TagType tagType = type != null ? Tag.TagType.valueOf(type.toUpperCase()) : null;
-        return tagService.getHotTags(tagType, limit);
+        Result<List<Tag>> result = hotTagsCache.get(new QueryKeys.HotTagsQuery(tagType, limit));
+        if (ConditionalRequests.checkNotModified(webRequest, result, Tag::getId, Tag::getUpdatedAt)) {
+            return null;
+        }
+        return result;
     }
 
     /**
@@ -0,0 +1,27 @@
+package com.arkone.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 计数条目（内容ID + 计数值），用于批量写回数据库
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CounterEntry {
+
+    /**
+     * 内容ID
+     */
+    private Long id;
+
+    /**
+     * 计数值
+     */
+    private long value;
+}
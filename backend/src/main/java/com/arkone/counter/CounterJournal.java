@@ -0,0 +1,172 @@
+package com.arkone.counter;
+
+import com.arkone.entity.ContentType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 计数增量本地日志
+ * <p>
+ * 缓冲中的每个批次对应一个 {@link JournalSegment}，批次成功写回数据库后对日志段做检查点。
+ * 检查点后的日志段清空后放回空闲池，供下一个批次复用，正常运行时只有当前批次与待落库批次两个映射文件；
+ * 空闲池已满时才删除文件。应用启动时，上次运行遗留的有记录的日志段即为可能尚未落库的增量，
+ * 由 {@link #recover()} 读出后交给刷盘任务按原批次ID重放，已落库的批次在数据库中有记录，不会重复累加。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+public class CounterJournal {
+
+    private static final String SEGMENT_PREFIX = "counter-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    @Value("${arkone.counter.journal.path:data/counter-journal}")
+    private String journalPath;
+
+    @Value("${arkone.counter.journal.segment-size:16777216}")
+    private int segmentSize;
+
+    @Value("${arkone.counter.journal.pool-size:2}")
+    private int poolSize;
+
+    private Path directory;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Deque<JournalSegment> idleSegments = new ArrayDeque<>();
+    private List<Path> orphanSegments = Collections.emptyList();
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(journalPath);
+        Files.createDirectories(directory);
+        orphanSegments = listSegments();
+        long maxSequence = orphanSegments.stream().mapToLong(CounterJournal::sequenceOf).max().orElse(0L);
+        sequence.set(maxSequence);
+        if (!orphanSegments.isEmpty()) {
+            log.info("发现 {} 个未完成检查点的计数日志段，等待重放", orphanSegments.size());
+        }
+    }
+
+    /**
+     * 取得一个日志段并分配新的批次ID，优先复用空闲日志段
+     */
+    public synchronized JournalSegment openSegment() {
+        long batchId = nextBatchId();
+        JournalSegment segment = idleSegments.poll();
+        if (segment != null) {
+            segment.reset(batchId);
+            return segment;
+        }
+        String name = String.format("%s%020d%s", SEGMENT_PREFIX, sequence.incrementAndGet(), SEGMENT_SUFFIX);
+        return JournalSegment.create(directory.resolve(name), segmentSize, batchId);
+    }
+
+    /**
+     * 检查点：日志段中的增量已写回数据库，清空记录后放回空闲池；空闲池已满或大小与配置不符时删除日志段
+     */
+    public synchronized void checkpoint(JournalSegment segment) {
+        if (idleSegments.size() < poolSize && segment.getCapacity() == JournalSegment.capacityFor(segmentSize)) {
+            segment.reset(segment.getBatchId());
+            idleSegments.push(segment);
+        } else {
+            segment.delete();
+        }
+    }
+
+    /**
+     * 打开上次运行遗留的日志段，返回其中按内容类型汇总的增量；没有记录的日志段直接做检查点
+     */
+    public List<ViewCountBuffer.Drained> recover() {
+        List<ViewCountBuffer.Drained> recovered = new ArrayList<>(orphanSegments.size());
+        for (Path path : orphanSegments) {
+            JournalSegment segment = JournalSegment.open(path);
+            if (segment == null) {
+                deleteQuietly(path);
+                continue;
+            }
+            Map<ContentType, Map<Long, Long>> deltas = new EnumMap<>(ContentType.class);
+            for (ContentType type : ContentType.values()) {
+                deltas.put(type, new HashMap<>());
+            }
+            int[] records = {0};
+            segment.forEachCommitted((type, id, delta) -> {
+                deltas.get(type).merge(id, delta, Long::sum);
+                records[0]++;
+            });
+            if (records[0] == 0) {
+                checkpoint(segment);
+                continue;
+            }
+            Map<ContentType, List<CounterEntry>> entries = new EnumMap<>(ContentType.class);
+            deltas.forEach((type, byId) -> {
+                List<CounterEntry> list = new ArrayList<>(byId.size());
+                byId.forEach((id, delta) -> list.add(new CounterEntry(id, delta)));
+                entries.put(type, list);
+            });
+            recovered.add(new ViewCountBuffer.Drained(entries, segment));
+            log.info("读取计数日志段 {}，批次ID: {}，记录数: {}", path.getFileName(), segment.getBatchId(), records[0]);
+        }
+        orphanSegments = Collections.emptyList();
+        return recovered;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .toList());
+            segments.sort(null);
+            return segments;
+        }
+    }
+
+    /**
+     * 批次ID：随机正整数，多个节点共用同一数据库时也不会冲突
+     */
+    private static long nextBatchId() {
+        long batchId;
+        do {
+            batchId = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+        } while (batchId == 0L);
+        return batchId;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error("删除计数日志段失败: {}", path, e);
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.arkone.counter;
+
+import com.arkone.entity.AiNews;
+import com.arkone.entity.ContentType;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.service.AiNewsService;
+import com.arkone.util.RedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 根据热度自动设置/取消AI新闻的热门标记
+ * <p>
+ * 多节点部署时通过 Redis 锁保证每个周期只有一个节点执行。自动设置的ID单独记录，
+ * 只取消由本任务设置的热门标记，不影响人工设置的热门。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "arkone.trending.auto-hot", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HotFlagSynchronizer {
+
+    private static final String LOCK_NAME = "trending-hot-flag";
+
+    private final TrendingRanking trendingRanking;
+    private final AiNewsService aiNewsService;
+    private final AiNewsMapper aiNewsMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${arkone.trending.auto-hot.size:10}")
+    private int hotSize;
+
+    @Value("${arkone.trending.auto-hot.min-score:20}")
+    private double minScore;
+
+    @Value("${arkone.trending.auto-hot.interval:60000}")
+    private long interval;
+
+    @Scheduled(fixedDelayString = "${arkone.trending.auto-hot.interval:60000}")
+    public void synchronize() {
+        // 锁不主动释放，过期前其他节点跳过本周期
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(RedisKeys.lock(LOCK_NAME), "1", Duration.ofMillis(Math.max(interval / 2, 1000)));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+        try {
+            Set<Long> desired = trendingRanking.topWithScores(ContentType.NEWS, hotSize).entrySet().stream()
+                    .filter(entry -> entry.getValue() >= minScore)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            String autoKey = RedisKeys.trendingAutoHot(ContentType.NEWS);
+            Set<Long> current = new HashSet<>();
+            Set<String> members = redisTemplate.opsForSet().members(autoKey);
+            if (members != null) {
+                members.forEach(member -> current.add(Long.valueOf(member)));
+            }
+
+            for (Long id : desired) {
+                if (current.contains(id)) {
+                    continue;
+                }
+                AiNews news = aiNewsMapper.selectById(id);
+                // 已下线或已由人工设为热门的不接管
+                if (news == null || !AiNews.NewsStatus.PUBLISHED.equals(news.getStatus())
+                        || Boolean.TRUE.equals(news.getIsHot())) {
+                    continue;
+                }
+                if (aiNewsService.setHot(id)) {
+                    redisTemplate.opsForSet().add(autoKey, String.valueOf(id));
+                    log.info("热度上升，自动设为热门，ID: {}", id);
+                }
+            }
+            for (Long id : current) {
+                if (desired.contains(id)) {
+                    continue;
+                }
+                aiNewsService.unsetHot(id);
+                redisTemplate.opsForSet().remove(autoKey, String.valueOf(id));
+                log.info("热度回落，自动取消热门，ID: {}", id);
+            }
+        } catch (Exception e) {
+            log.error("同步热门标记失败", e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.arkone.counter;
+
+import com.arkone.entity.ContentType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 计数日志段
+ * <p>
+ * 固定大小的内存映射文件，按定长记录顺序追加。写入方通过原子游标预留位置后直接写映射内存，
+ * 无需系统调用；JVM 崩溃时已写入的页仍在操作系统页缓存中，不会丢失。
+ * <pre>
+ * 文件头（8字节）：| 批次ID (8) |
+ * 记录格式（18字节）：| id (8) | delta (8) | type (1) | 提交标记 (1) |
+ * </pre>
+ * 提交标记最后写入，重放时跳过未完成的记录。批次ID随增量在同一事务中写入数据库，用于识别已落库的日志段。
+ * 映射内存在 GC 回收前不会释放，因此日志段检查点后由 {@link #reset(long)} 清空并复用，而不是每个批次新建文件。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+public class JournalSegment {
+
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 18;
+    static final byte COMMITTED = (byte) 0xA5;
+
+    private final Path path;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger position = new AtomicInteger();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private volatile long batchId;
+
+    private JournalSegment(Path path, int capacity, boolean create) {
+        this.path = path;
+        this.capacity = capacityFor(capacity);
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException((create ? "创建" : "打开") + "计数日志段失败: " + path, e);
+        }
+    }
+
+    /**
+     * 创建新的日志段文件
+     */
+    static JournalSegment create(Path path, int capacity, long batchId) {
+        JournalSegment segment = new JournalSegment(path, capacity, true);
+        segment.writeBatchId(batchId);
+        return segment;
+    }
+
+    /**
+     * 按文件大小对齐到整条记录后的容量
+     */
+    static int capacityFor(int size) {
+        return size - (size - HEADER_SIZE) % RECORD_SIZE;
+    }
+
+    /**
+     * 打开上次运行遗留的日志段文件，用于重放；文件不足一个文件头时返回null
+     */
+    static JournalSegment open(Path path) {
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取计数日志段失败: " + path, e);
+        }
+        if (size < HEADER_SIZE) {
+            return null;
+        }
+        JournalSegment segment = new JournalSegment(path, (int) Math.min(size, Integer.MAX_VALUE), false);
+        segment.batchId = segment.buffer.getLong(0);
+        // 遗留文件中的记录全部视为已使用，复用前需整体清除
+        segment.position.set(segment.capacity - HEADER_SIZE);
+        return segment;
+    }
+
+    /**
+     * 追加一条计数记录，日志段已满时返回false
+     */
+    public boolean append(ContentType type, long id, long delta) {
+        // 已满时不再推进游标：批次落库失败期间日志段无法封存，每次浏览都会调用，游标持续累加会溢出为负数
+        if (HEADER_SIZE + position.get() + RECORD_SIZE > capacity) {
+            return full();
+        }
+        // 检查与预留之间并发的写入方最多各多预留一条，游标超出容量的部分有界
+        int offset = HEADER_SIZE + position.getAndAdd(RECORD_SIZE);
+        if (offset + RECORD_SIZE > capacity) {
+            return full();
+        }
+        buffer.putLong(offset, id);
+        buffer.putLong(offset + 8, delta);
+        buffer.put(offset + 16, (byte) (type.ordinal() + 1));
+        buffer.put(offset + 17, COMMITTED);
+        return true;
+    }
+
+    private boolean full() {
+        if (overflowed.compareAndSet(false, true)) {
+            log.warn("计数日志段已满，后续增量仅保存在内存中: {}", path);
+        }
+        return false;
+    }
+
+    /**
+     * 是否尚未写入任何记录
+     */
+    public boolean isEmpty() {
+        return position.get() == 0;
+    }
+
+    /**
+     * 遍历已提交的记录
+     */
+    void forEachCommitted(RecordVisitor visitor) {
+        ContentType[] types = ContentType.values();
+        for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= capacity; offset += RECORD_SIZE) {
+            int typeIndex = buffer.get(offset + 16) - 1;
+            if (buffer.get(offset + 17) != COMMITTED || typeIndex < 0 || typeIndex >= types.length) {
+                continue;
+            }
+            visitor.visit(types[typeIndex], buffer.getLong(offset), buffer.getLong(offset + 8));
+        }
+    }
+
+    /**
+     * 清空已写入的记录并以新的批次ID复用日志段，调用方须保证日志段上没有写入方。
+     * 先清除记录再写批次ID：中途崩溃时文件头仍是已落库的旧批次ID，重放时会被跳过
+     */
+    void reset(long newBatchId) {
+        int used = Math.min(HEADER_SIZE + position.get(), capacity);
+        for (int offset = HEADER_SIZE + RECORD_SIZE - 1; offset < used; offset += RECORD_SIZE) {
+            buffer.put(offset, (byte) 0);
+        }
+        writeBatchId(newBatchId);
+        position.set(0);
+        overflowed.set(false);
+    }
+
+    /**
+     * 日志段对应的批次ID
+     */
+    public long getBatchId() {
+        return batchId;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 删除日志段文件
+     */
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error("删除计数日志段失败: {}", path, e);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    private void writeBatchId(long newBatchId) {
+        buffer.putLong(0, newBatchId);
+        batchId = newBatchId;
+    }
+
+    /**
+     * 记录访问器
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(ContentType type, long id, long delta);
+    }
+}
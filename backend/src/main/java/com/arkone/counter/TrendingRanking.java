@@ -0,0 +1,157 @@
+package com.arkone.counter;
+
+import com.arkone.entity.ContentType;
+import com.arkone.util.RedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 热度排行
+ * <p>
+ * 浏览与点赞按权重累加到 Redis 有序集合，所有节点共享同一排行。采用前向衰减：
+ * 事件权重乘以 e^(λ·(t-landmark))，旧分数无需随时间更新即可体现指数衰减，
+ * 当前热度为 score·e^(-λ·(now-landmark))。基准时间定期前移以防分数溢出。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendingRanking {
+
+    private static final RedisScript<Long> INCR_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/trending_incr.lua"), Long.class);
+
+    private static final RedisScript<Long> REBASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/trending_rebase.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${arkone.trending.half-life:6h}")
+    private Duration halfLife;
+
+    @Value("${arkone.trending.view-weight:1}")
+    private double viewWeight;
+
+    @Value("${arkone.trending.like-weight:5}")
+    private double likeWeight;
+
+    @Value("${arkone.trending.max-size:10000}")
+    private int maxSize;
+
+    @Value("${arkone.trending.min-score:0.01}")
+    private double minScore;
+
+    /**
+     * 记录浏览量增量
+     */
+    public void recordViews(ContentType type, List<CounterEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(entries.size() * 2);
+        for (CounterEntry entry : entries) {
+            args.add(String.valueOf(entry.getId()));
+            args.add(String.valueOf(entry.getValue() * viewWeight));
+        }
+        increment(type, args);
+    }
+
+    /**
+     * 记录点赞（delta为1）或取消点赞（delta为-1）
+     */
+    public void recordLike(ContentType type, Long id, int delta) {
+        increment(type, List.of(String.valueOf(id), String.valueOf(delta * likeWeight)));
+    }
+
+    /**
+     * 热度最高的前limit个内容ID
+     */
+    public List<Long> top(ContentType type, int limit) {
+        try {
+            Set<String> members = redisTemplate.opsForZSet().reverseRange(RedisKeys.trending(type), 0, limit - 1L);
+            if (members == null) {
+                return Collections.emptyList();
+            }
+            return members.stream().map(Long::valueOf).toList();
+        } catch (Exception e) {
+            log.warn("读取热度排行失败，类型: {}", type, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 热度最高的前limit个内容及其当前热度（已折算到当前时间）
+     */
+    public Map<Long, Double> topWithScores(ContentType type, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().reverseRangeWithScores(RedisKeys.trending(type), 0, limit - 1L);
+        String landmark = redisTemplate.opsForValue().get(RedisKeys.trendingLandmark(type));
+        if (tuples == null || landmark == null) {
+            return Collections.emptyMap();
+        }
+        double decay = Math.exp(-lambda() * (nowSeconds() - Long.parseLong(landmark)));
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                scores.put(Long.valueOf(tuple.getValue()), tuple.getScore() * decay);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * 前移衰减基准时间，并清理热度过低或超出容量的条目
+     */
+    @Scheduled(fixedDelayString = "${arkone.trending.rebase-interval:3600000}")
+    public void rebase() {
+        for (ContentType type : ContentType.values()) {
+            try {
+                Long size = redisTemplate.execute(REBASE_SCRIPT,
+                        List.of(RedisKeys.trending(type), RedisKeys.trendingLandmark(type)),
+                        String.valueOf(nowSeconds()), String.valueOf(lambda()),
+                        String.valueOf(minScore), String.valueOf(maxSize));
+                log.debug("热度基准时间前移完成，类型: {}, 条数: {}", type, size);
+            } catch (Exception e) {
+                log.warn("热度基准时间前移失败，类型: {}", type, e);
+            }
+        }
+    }
+
+    private void increment(ContentType type, List<String> args) {
+        List<String> argv = new ArrayList<>(args.size() + 2);
+        argv.add(String.valueOf(nowSeconds()));
+        argv.add(String.valueOf(lambda()));
+        argv.addAll(args);
+        try {
+            redisTemplate.execute(INCR_SCRIPT,
+                    List.of(RedisKeys.trending(type), RedisKeys.trendingLandmark(type)), argv.toArray());
+        } catch (Exception e) {
+            log.warn("更新热度失败，类型: {}", type, e);
+        }
+    }
+
+    private double lambda() {
+        return Math.log(2) / halfLife.toSeconds();
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
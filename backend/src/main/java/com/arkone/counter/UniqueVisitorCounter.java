@@ -0,0 +1,112 @@
+package com.arkone.counter;
+
+import com.arkone.entity.ContentType;
+import com.arkone.util.RedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 独立访客计数器
+ * <p>
+ * 每个内容每天一个 HyperLogLog（单个键最多约12KB，误差约0.81%），
+ * 多天统计时对多个键做 PFCOUNT 取并集。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UniqueVisitorCounter {
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final RedisScript<Long> RECORD_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/uv_record.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${arkone.uv.retention-days:30}")
+    private int retentionDays;
+
+    /**
+     * 记录一次访问
+     */
+    public void record(ContentType type, Long id, String clientId) {
+        try {
+            String key = RedisKeys.uniqueVisitors(type, id, LocalDate.now().format(DAY_FORMATTER));
+            long ttl = TimeUnit.DAYS.toSeconds(retentionDays + 1L);
+            redisTemplate.execute(RECORD_SCRIPT, List.of(key), clientId, String.valueOf(ttl));
+        } catch (Exception e) {
+            log.warn("记录独立访客失败，类型: {}, ID: {}", type, id, e);
+        }
+    }
+
+    /**
+     * 统计最近若干天（含今天）的独立访客数
+     */
+    public long count(ContentType type, Long id, int days) {
+        try {
+            Long count = redisTemplate.opsForHyperLogLog().size(dayKeys(type, id, days));
+            return count != null ? count : 0L;
+        } catch (Exception e) {
+            log.warn("统计独立访客失败，类型: {}, ID: {}", type, id, e);
+            return 0L;
+        }
+    }
+
+    /**
+     * 批量统计最近若干天（含今天）的独立访客数
+     */
+    public Map<Long, Long> count(ContentType type, Collection<Long> ids, int days) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        try {
+            List<Object> counts = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Long id : idList) {
+                    stringConnection.pfCount(dayKeys(type, id, days));
+                }
+                return null;
+            });
+            Map<Long, Long> result = new HashMap<>(idList.size() * 2);
+            for (int i = 0; i < idList.size(); i++) {
+                Object count = counts.get(i);
+                result.put(idList.get(i), count instanceof Number number ? number.longValue() : 0L);
+            }
+            return result;
+        } catch (Exception e) {
+            log.warn("批量统计独立访客失败，类型: {}, 数量: {}", type, idList.size(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private String[] dayKeys(ContentType type, Long id, int days) {
+        int window = Math.max(1, Math.min(days, retentionDays));
+        LocalDate today = LocalDate.now();
+        String[] keys = new String[window];
+        for (int i = 0; i < window; i++) {
+            keys[i] = RedisKeys.uniqueVisitors(type, id, today.minusDays(i).format(DAY_FORMATTER));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,137 @@
+package com.arkone.counter;
+
+import com.arkone.entity.ContentType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 浏览量写缓冲
+ * <p>
+ * 详情请求只在内存中累加浏览量，由 {@link ViewCountFlusher} 定时批量写回数据库。
+ * 缓冲按"批次"组织：写入方总是落在当前批次，刷盘时先封存当前批次并切换到新批次，
+ * 等待封存批次上的在途写入全部结束后再汇总，从而保证不丢、不重。
+ * 每个批次对应一个本地日志段，增量先写日志再累加，进程崩溃后可由日志重放。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Component
+public class ViewCountBuffer {
+
+    private final CounterJournal journal;
+    private volatile Batch current;
+
+    public ViewCountBuffer(CounterJournal journal) {
+        this.journal = journal;
+        this.current = new Batch(journal.openSegment());
+    }
+
+    /**
+     * 浏览量加一
+     */
+    public void increment(ContentType type, Long id) {
+        add(type, id, 1L);
+    }
+
+    /**
+     * 累加浏览量
+     */
+    public void add(ContentType type, Long id, long delta) {
+        if (id == null || delta == 0) {
+            return;
+        }
+        while (true) {
+            Batch batch = current;
+            batch.inflight.incrementAndGet();
+            try {
+                if (batch.sealed) {
+                    // 批次已被封存，重试写入新批次
+                    continue;
+                }
+                batch.segment.append(type, id, delta);
+                batch.counters.get(type).computeIfAbsent(id, key -> new LongAdder()).add(delta);
+                return;
+            } finally {
+                batch.inflight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 封存当前批次并返回其中累积的增量，当前批次为空时返回null
+     */
+    public synchronized Drained drain() {
+        if (current.segment.isEmpty()) {
+            return null;
+        }
+        Batch sealed = current;
+        current = new Batch(journal.openSegment());
+        sealed.sealed = true;
+        // 等待封存批次上的在途写入结束
+        while (sealed.inflight.get() != 0) {
+            Thread.onSpinWait();
+        }
+
+        Map<ContentType, List<CounterEntry>> entries = new EnumMap<>(ContentType.class);
+        for (ContentType type : ContentType.values()) {
+            Map<Long, LongAdder> counters = sealed.counters.get(type);
+            if (counters.isEmpty()) {
+                entries.put(type, Collections.emptyList());
+                continue;
+            }
+            List<CounterEntry> list = new ArrayList<>(counters.size());
+            counters.forEach((id, adder) -> {
+                long delta = adder.sum();
+                if (delta != 0) {
+                    list.add(new CounterEntry(id, delta));
+                }
+            });
+            entries.put(type, list);
+        }
+        return new Drained(entries, sealed.segment);
+    }
+
+    /**
+     * 关闭缓冲：当前批次没有待落库的增量时对其日志段做检查点
+     */
+    public synchronized void close() {
+        if (current.segment.isEmpty()) {
+            journal.checkpoint(current.segment);
+        }
+    }
+
+    /**
+     * 已封存批次的增量及其日志段
+     */
+    public record Drained(Map<ContentType, List<CounterEntry>> entries, JournalSegment segment) {
+    }
+
+    /**
+     * 缓冲批次
+     */
+    private static final class Batch {
+
+        private final Map<ContentType, Map<Long, LongAdder>> counters = new EnumMap<>(ContentType.class);
+        /**
+         * 在途写入数；必须是原子计数，LongAdder 的 sum() 不是一致快照，可能在写入未结束时读到0
+         */
+        private final AtomicLong inflight = new AtomicLong();
+        private final JournalSegment segment;
+        private volatile boolean sealed;
+
+        private Batch(JournalSegment segment) {
+            this.segment = segment;
+            for (ContentType type : ContentType.values()) {
+                counters.put(type, new ConcurrentHashMap<>());
+            }
+        }
+    }
+}
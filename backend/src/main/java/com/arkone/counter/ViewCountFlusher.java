@@ -0,0 +1,170 @@
+package com.arkone.counter;
+
+import com.arkone.entity.ContentType;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.arkone.mapper.CounterBatchMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 浏览量定时刷盘任务
+ * <p>
+ * 每个周期把 {@link ViewCountBuffer} 中累积的增量按表合并为批量 UPDATE，与批次ID一起在同一事务中写回数据库，
+ * 随后对已封存批次的日志段做检查点。写入失败的批次保留日志段，下一周期以同一批次ID整体重试，
+ * 期间不再封存新批次，增量继续累积在当前批次中，映射的日志段数量保持有界。
+ * 启动时重放上次运行遗留的日志段：批次ID已记录的日志段说明增量已落库，直接跳过，重放不会重复累加。
+ * 应用关闭时执行最后一次刷盘。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountFlusher {
+
+    private final ViewCountBuffer viewCountBuffer;
+    private final CounterJournal counterJournal;
+    private final ArticleMapper articleMapper;
+    private final AiNewsMapper aiNewsMapper;
+    private final CounterBatchMapper counterBatchMapper;
+    private final TrendingRanking trendingRanking;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${arkone.counter.batch-size:500}")
+    private int batchSize;
+
+    @Value("${arkone.counter.journal.batch-retention-days:7}")
+    private int batchRetentionDays;
+
+    /**
+     * 已封存但尚未落库的批次，按封存顺序重试
+     */
+    private final Deque<ViewCountBuffer.Drained> pending = new ArrayDeque<>();
+
+    /**
+     * 重放上次运行遗留的计数日志
+     */
+    @PostConstruct
+    public synchronized void recover() {
+        pending.addAll(counterJournal.recover());
+        if (!pending.isEmpty()) {
+            log.info("重放计数日志段，批次数: {}", pending.size());
+            flushPending();
+        }
+    }
+
+    /**
+     * 定时刷盘
+     */
+    @Scheduled(fixedDelayString = "${arkone.counter.flush-interval:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * 清理过期的已落库批次记录；日志段在检查点后即被清空，只有长时间未重启的遗留日志段才需要更早的记录
+     */
+    @Scheduled(fixedDelayString = "${arkone.counter.journal.batch-prune-interval:3600000}")
+    public void pruneAppliedBatches() {
+        try {
+            int deleted = counterBatchMapper.deleteAppliedBefore(LocalDateTime.now().minusDays(batchRetentionDays));
+            if (deleted > 0) {
+                log.debug("清理已落库计数批次记录，条数: {}", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("清理已落库计数批次记录失败", e);
+        }
+    }
+
+    /**
+     * 应用关闭前刷盘
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("应用关闭，刷写浏览量缓冲");
+        flush();
+        viewCountBuffer.close();
+    }
+
+    /**
+     * 将缓冲中的浏览量增量写回数据库
+     */
+    public synchronized void flush() {
+        // 之前的批次仍未落库时不封存新批次，增量留在当前批次中
+        if (!flushPending()) {
+            return;
+        }
+        ViewCountBuffer.Drained drained = viewCountBuffer.drain();
+        if (drained == null) {
+            return;
+        }
+        pending.add(drained);
+        flushPending();
+    }
+
+    /**
+     * 依次写回待落库批次并做检查点，全部成功时返回true
+     */
+    private boolean flushPending() {
+        while (!pending.isEmpty()) {
+            ViewCountBuffer.Drained drained = pending.peek();
+            try {
+                apply(drained);
+            } catch (Exception e) {
+                log.error("浏览量刷盘失败，批次ID: {}，等待下一周期重试", drained.segment().getBatchId(), e);
+                return false;
+            }
+            pending.poll();
+            counterJournal.checkpoint(drained.segment());
+        }
+        return true;
+    }
+
+    /**
+     * 在同一事务中记录批次ID并累加增量；批次ID已存在时说明增量此前已落库，跳过
+     */
+    private void apply(ViewCountBuffer.Drained drained) {
+        long batchId = drained.segment().getBatchId();
+        Boolean applied = transactionTemplate.execute(status -> {
+            if (counterBatchMapper.insertIgnore(batchId) == 0) {
+                return false;
+            }
+            drained.entries().forEach(this::increment);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(applied)) {
+            log.info("计数批次已落库，跳过重放，批次ID: {}", batchId);
+            return;
+        }
+        drained.entries().forEach((type, entries) -> {
+            // 仅累计已落库的增量
+            trendingRanking.recordViews(type, entries);
+            if (!entries.isEmpty()) {
+                log.debug("浏览量刷盘完成，类型: {}, 条数: {}", type, entries.size());
+            }
+        });
+    }
+
+    private void increment(ContentType type, List<CounterEntry> entries) {
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<CounterEntry> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            switch (type) {
+                case ARTICLE -> articleMapper.batchIncrementViewCount(chunk);
+                case NEWS -> aiNewsMapper.batchIncrementViewCount(chunk);
+            }
+        }
+    }
+}
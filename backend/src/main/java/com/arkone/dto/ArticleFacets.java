@@ -0,0 +1,38 @@
+package com.arkone.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 文章筛选侧栏计数
+ * <p>
+ * 分类、状态、来源类型与置顶计数按“除本维度外的其他筛选条件”统计，切换本维度的取值可直接看到结果数；
+ * 标签为多选且须同时包含，计数按全部筛选条件统计。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Data
+@Schema(description = "文章筛选侧栏计数")
+public class ArticleFacets implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "分类ID -> 文章数")
+    private Map<Long, Long> categories;
+
+    @Schema(description = "状态编码 -> 文章数")
+    private Map<String, Long> statuses;
+
+    @Schema(description = "来源类型编码 -> 文章数")
+    private Map<String, Long> sourceTypes;
+
+    @Schema(description = "标签 -> 文章数，按数量倒序，只返回前若干个")
+    private Map<String, Long> tags;
+
+    @Schema(description = "置顶文章数")
+    private Long top;
+}
@@ -0,0 +1,28 @@
+package com.arkone.dto;
+
+import com.arkone.entity.Article;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 文章分页结果，附带筛选侧栏计数
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Getter
+@Setter
+@Schema(description = "文章分页结果")
+public class ArticlePage extends Page<Article> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "筛选侧栏计数，由内存筛选索引返回；回退到数据库查询时为空")
+    private ArticleFacets facets;
+
+    public ArticlePage(long current, long size) {
+        super(current, size);
+    }
+}
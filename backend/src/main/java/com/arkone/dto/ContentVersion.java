@@ -0,0 +1,81 @@
+package com.arkone.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * 内容版本，用于条件请求（ETag / Last-Modified）
+ * <p>
+ * ETag 为内容版本的哈希，跨节点一致。单条内容与列表的响应体中带有浏览量、点赞数等计数，
+ * 这些计数不计入版本，因此使用弱ETag：同一版本的响应语义等价，但不保证逐字节相同。
+ *
+ * @param etag         ETag值（不含引号及 W/ 前缀）
+ * @param lastModified 最后修改时间（毫秒），无法确定时为-1
+ * @param weak         是否为弱ETag
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public record ContentVersion(String etag, long lastModified, boolean weak) {
+
+    /**
+     * 单条内容的版本。updated_at 只精确到秒，同一秒内的多次修改（如保存后立即发布）由内容指纹区分
+     *
+     * @param fingerprint 响应体中可编辑的字段，如标题、正文、状态
+     */
+    public static ContentVersion of(Long id, LocalDateTime updatedAt, Object... fingerprint) {
+        long modified = toMillis(updatedAt);
+        return new ContentVersion(hash(id + ":" + modified + ":" + fingerprint(fingerprint)), modified, true);
+    }
+
+    /**
+     * 列表的版本：由各条目ID、更新时间及顺序决定。
+     * 条目移出列表时最大更新时间可能回退，因此列表只使用ETag
+     */
+    public static <T> ContentVersion ofList(Collection<T> items, Function<T, Long> idOf,
+                                            Function<T, LocalDateTime> updatedAtOf) {
+        StringBuilder builder = new StringBuilder(items.size() * 24);
+        for (T item : items) {
+            builder.append(idOf.apply(item)).append(':').append(toMillis(updatedAtOf.apply(item))).append(',');
+        }
+        return new ContentVersion(hash(builder.toString()), -1, true);
+    }
+
+    /**
+     * 按内容本身（如已序列化的JSON）计算版本，响应体与内容逐字节对应，使用强ETag
+     */
+    public static ContentVersion ofContent(String content) {
+        return new ContentVersion(hash(content), -1, false);
+    }
+
+    /**
+     * ETag响应头的值
+     */
+    public String headerValue() {
+        return weak ? "W/\"" + etag + "\"" : "\"" + etag + "\"";
+    }
+
+    /**
+     * 各字段哈希的组合；枚举按名称计算，字符串、集合的哈希跨JVM一致，字符串的哈希缓存在实例上
+     */
+    private static int fingerprint(Object[] values) {
+        int result = 1;
+        for (Object value : values) {
+            Object stable = value instanceof Enum<?> constant ? constant.name() : value;
+            result = 31 * result + (stable == null ? 0 : stable.hashCode());
+        }
+        return result;
+    }
+
+    private static String hash(String value) {
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
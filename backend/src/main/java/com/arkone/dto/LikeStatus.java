@@ -0,0 +1,29 @@
+package com.arkone.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 点赞状态
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "点赞状态")
+public class LikeStatus implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "当前客户端是否已点赞")
+    private Boolean liked;
+
+    @Schema(description = "点赞总数")
+    private Long likeCount;
+}
@@ -0,0 +1,48 @@
+package com.arkone.dto;
+
+import com.arkone.search.SearchType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 综合搜索的单条结果
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Data
+@Schema(description = "综合搜索结果项")
+public class SearchItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "内容类型")
+    private SearchType type;
+
+    @Schema(description = "内容ID")
+    private Long id;
+
+    @Schema(description = "标题（标签为名称）")
+    private String title;
+
+    @Schema(description = "高亮标题（已转义HTML，命中部分以em包裹）")
+    private String highlightTitle;
+
+    @Schema(description = "摘要或高亮片段（标签为描述）")
+    private String snippet;
+
+    @Schema(description = "封面图片")
+    private String coverImage;
+
+    @Schema(description = "发布时间")
+    private LocalDateTime publishedAt;
+
+    @Schema(description = "浏览量（标签为使用次数）")
+    private Integer viewCount;
+
+    @Schema(description = "归一化相关度，各类型内最相关的结果为1")
+    private Double score;
+}
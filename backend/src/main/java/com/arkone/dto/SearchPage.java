@@ -0,0 +1,40 @@
+package com.arkone.dto;
+
+import com.arkone.search.SearchType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 综合搜索分页结果
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Data
+@Schema(description = "综合搜索分页结果")
+public class SearchPage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "当前页结果，按归一化相关度排序")
+    private List<SearchItem> records;
+
+    @Schema(description = "可翻页的命中数：各类型命中总数之和，不超过综合搜索的最大深度")
+    private Long total;
+
+    @Schema(description = "各类型命中总数，超时未返回的类型不包含在内")
+    private Map<SearchType, Long> typeTotals;
+
+    @Schema(description = "页码")
+    private Integer current;
+
+    @Schema(description = "每页大小")
+    private Integer size;
+
+    @Schema(description = "原关键词无结果时纠正拼写后的关键词（您是不是要找），文章与新闻结果按该关键词返回；未纠正时为空")
+    private String suggestion;
+}
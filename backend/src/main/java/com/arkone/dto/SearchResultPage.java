@@ -0,0 +1,27 @@
+package com.arkone.dto;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 搜索分页结果，附带拼写纠正建议
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Getter
+@Setter
+@Schema(description = "搜索分页结果")
+public class SearchResultPage<T> extends Page<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "原关键词无结果时纠正拼写后的关键词（您是不是要找），当前结果按该关键词返回；未纠正时为空")
+    private String suggestion;
+
+    public SearchResultPage(long current, long size) {
+        super(current, size);
+    }
+}
@@ -0,0 +1,34 @@
+package com.arkone.dto;
+
+import com.arkone.search.Suggestion;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 输入联想结果，按内容类型分组，组内按热度从高到低
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "输入联想结果")
+public class SuggestResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "标签")
+    private List<Suggestion> tags;
+
+    @Schema(description = "文章标题")
+    private List<Suggestion> articles;
+
+    @Schema(description = "AI新闻标题")
+    private List<Suggestion> news;
+}
@@ -98,6 +98,22 @@ public class Article {
     @TableField(exist = false)
     private String categoryName;
 
+    @Schema(description = "独立访客数（统计窗口内）")
+    @TableField(exist = false)
+    private Long uniqueViewCount;
+
+    @Schema(description = "搜索结果高亮标题（已转义HTML，命中部分以em包裹）")
+    @TableField(exist = false)
+    private String highlightTitle;
+
+    @Schema(description = "搜索结果高亮片段（已转义HTML，命中部分以em包裹）")
+    @TableField(exist = false)
+    private String highlightSnippet;
+
+    @Schema(description = "搜索相关度，仅搜索接口返回")
+    @TableField(exist = false)
+    private Double searchScore;
+
     /**
      * 来源类型枚举
      */
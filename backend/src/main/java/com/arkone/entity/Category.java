@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 分类实体类
@@ -63,6 +64,10 @@ public class Category {
     @TableLogic
     private Integer deleted;
 
+    @Schema(description = "子分类")
+    @TableField(exist = false)
+    private List<Category> children;
+
     /**
      * 分类类型枚举
      */
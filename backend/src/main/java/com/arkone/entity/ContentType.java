@@ -0,0 +1,28 @@
+package com.arkone.entity;
+
+/**
+ * 内容类型枚举
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public enum ContentType {
+    ARTICLE("article", "文章"),
+    NEWS("news", "AI新闻");
+
+    private final String code;
+    private final String description;
+
+    ContentType(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,56 @@
+package com.arkone.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 系统配置实体类
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("system_config")
+@Schema(description = "系统配置实体")
+public class SystemConfig {
+
+    @Schema(description = "主键ID")
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @Schema(description = "配置键")
+    @TableField("config_key")
+    private String configKey;
+
+    @Schema(description = "配置值")
+    @TableField("config_value")
+    private String configValue;
+
+    @Schema(description = "配置类型：string/number/boolean/json")
+    @TableField("config_type")
+    private String configType;
+
+    @Schema(description = "配置描述")
+    @TableField("description")
+    private String description;
+
+    @Schema(description = "是否系统配置")
+    @TableField("is_system")
+    private Boolean isSystem;
+
+    @Schema(description = "创建时间")
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "更新时间")
+    @TableField(value = "updated_at", fill = FieldFill.INSERT_UPDATE)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,475 @@
+package com.arkone.filter;
+
+import com.arkone.config.SchedulingConfig;
+import com.arkone.dto.ArticleFacets;
+import com.arkone.dto.ArticleQuery;
+import com.arkone.entity.Article;
+import com.arkone.mapper.ArticleMapper;
+import com.arkone.util.KeysetScan;
+import com.arkone.util.PendingChanges;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 文章筛选索引
+ * <p>
+ * 每篇未删除的文章分配一个稠密序号（雪花ID无法直接作为位图下标），按分类、状态、来源类型、标签、置顶
+ * 分别维护序号的压缩位图，另按排序时间（发布时间，未发布时取创建时间）维护有序的序号数组。
+ * {@link ArticleQuery} 的任意筛选组合由位图求交得到，时间范围由有序数组二分截取，分页时沿有序数组扫描
+ * 命中的序号；结果集很小时直接取出后排序。侧栏计数由各取值位图与其余条件的交集基数得到。
+ * <p>
+ * 只保存筛选字段，不保存正文。保存、更新、发布、删除后由服务层在事务提交后调用增量同步；
+ * 启动后全量构建，之后定时全量重建以吸收遗漏的变更。首次构建完成前分页查询回退到数据库。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleFilterIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+    private static final String SORT_FIELD = "publishTime";
+
+    private final ArticleMapper articleMapper;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${arkone.article-filter.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${arkone.article-filter.facet-tags:20}")
+    private int facetTags;
+
+    private State state = new State();
+    /**
+     * 全量重建期间的增量变更
+     */
+    private final PendingChanges<Entry> pending = new PendingChanges<>();
+    private volatile boolean ready;
+
+    /**
+     * 查询结果
+     *
+     * @param total  命中总数
+     * @param ids    当前页文章ID，按排序时间排列
+     * @param facets 侧栏计数
+     */
+    public record Result(long total, List<Long> ids, ArticleFacets facets) {
+    }
+
+    /**
+     * 首次全量构建是否已完成
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 查询能否由本索引回答：标题、关键词匹配及按时间以外的字段排序仍由数据库处理
+     */
+    public static boolean supports(ArticleQuery query) {
+        return query.getTitle() == null && query.getKeyword() == null
+                && (query.getSortField() == null || SORT_FIELD.equals(query.getSortField()));
+    }
+
+    /**
+     * 同步单篇文章，article为null（已删除）时从索引移除
+     */
+    public void sync(Long id, Article article) {
+        Entry entry = article != null ? Entry.of(article) : null;
+        lock.writeLock().lock();
+        try {
+            if (entry != null) {
+                state.put(entry);
+            } else {
+                state.remove(id);
+            }
+            pending.record(id, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 执行筛选，返回一页文章ID及侧栏计数
+     */
+    public Result query(ArticleQuery query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            State current = state;
+            int[] range = current.range(query.getStartTime(), query.getEndTime());
+            Map<Dimension, RoaringBitmap> filters = new EnumMap<>(Dimension.class);
+            if (query.getCategoryId() != null) {
+                filters.put(Dimension.CATEGORY, current.categories.getOrDefault(query.getCategoryId(), EMPTY));
+            }
+            if (query.getStatus() != null) {
+                filters.put(Dimension.STATUS, current.statuses.getOrDefault(query.getStatus(), EMPTY));
+            }
+            if (query.getSourceType() != null) {
+                filters.put(Dimension.SOURCE_TYPE, current.sourceTypes.getOrDefault(query.getSourceType(), EMPTY));
+            }
+            if (query.getIsTop() != null) {
+                filters.put(Dimension.TOP, query.getIsTop()
+                        ? current.top : RoaringBitmap.andNot(current.live, current.top));
+            }
+            if (query.getTags() != null && !query.getTags().isEmpty()) {
+                RoaringBitmap tagged = null;
+                for (String tag : query.getTags()) {
+                    RoaringBitmap bitmap = current.tags.getOrDefault(tag, EMPTY);
+                    tagged = tagged == null ? bitmap : RoaringBitmap.and(tagged, bitmap);
+                }
+                filters.put(Dimension.TAGS, tagged);
+            }
+            if (range[0] > 0 || range[1] < current.sorted) {
+                filters.put(Dimension.TIME, current.slice(range[0], range[1]));
+            }
+            RoaringBitmap matched = intersect(current.live, filters, null);
+            List<Long> ids = current.page(matched, range, !query.isAsc(), offset, limit);
+            return new Result(matched.cardinality(), ids, facets(current, filters, matched));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * 全量重建：在锁外构建新索引后整体替换，并重放构建期间的增量变更
+     */
+    @Scheduled(initialDelayString = "${arkone.article-filter.rebuild-interval:3600000}",
+            fixedDelayString = "${arkone.article-filter.rebuild-interval:3600000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public synchronized void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pending.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            State building = new State();
+            KeysetScan.forEachBatch(articleMapper, Article::getId, wrapper -> wrapper
+                            .select(Article::getId, Article::getCategoryId, Article::getStatus, Article::getSourceType,
+                                    Article::getTags, Article::getIsTop, Article::getPublishTime, Article::getCreatedAt),
+                    batchSize, batch -> batch.forEach(article -> building.append(Entry.of(article))));
+            building.sort();
+            lock.writeLock().lock();
+            try {
+                pending.replay((id, entry) -> {
+                    if (entry != null) {
+                        building.put(entry);
+                    } else {
+                        building.remove(id);
+                    }
+                });
+                state = building;
+                ready = true;
+            } finally {
+                pending.discard();
+                lock.writeLock().unlock();
+            }
+            log.info("文章筛选索引重建完成，文章数: {}, 耗时: {}ms",
+                    building.live.cardinality(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                pending.discard();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("文章筛选索引重建失败", e);
+        }
+    }
+
+    /**
+     * 侧栏计数：单选维度按除本维度外的条件统计，标签按全部条件统计
+     */
+    private ArticleFacets facets(State current, Map<Dimension, RoaringBitmap> filters, RoaringBitmap matched) {
+        ArticleFacets facets = new ArticleFacets();
+        facets.setCategories(count(current.categories, intersect(current.live, filters, Dimension.CATEGORY),
+                Function.identity(), Integer.MAX_VALUE));
+        facets.setStatuses(count(current.statuses, intersect(current.live, filters, Dimension.STATUS),
+                Article.ArticleStatus::getCode, Integer.MAX_VALUE));
+        facets.setSourceTypes(count(current.sourceTypes, intersect(current.live, filters, Dimension.SOURCE_TYPE),
+                Article.SourceType::getCode, Integer.MAX_VALUE));
+        facets.setTags(count(current.tags, matched, Function.identity(), facetTags));
+        facets.setTop((long) RoaringBitmap.andCardinality(intersect(current.live, filters, Dimension.TOP), current.top));
+        return facets;
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap live, Map<Dimension, RoaringBitmap> filters, Dimension except) {
+        RoaringBitmap result = live;
+        for (Map.Entry<Dimension, RoaringBitmap> filter : filters.entrySet()) {
+            if (filter.getKey() != except) {
+                result = RoaringBitmap.and(result, filter.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 各取值与base的交集基数，按数量倒序取前limit个非零项
+     */
+    private static <K, T> Map<T, Long> count(Map<K, RoaringBitmap> values, RoaringBitmap base,
+                                             Function<K, T> keyOf, int limit) {
+        List<Map.Entry<K, Long>> counts = new ArrayList<>();
+        if (!base.isEmpty()) {
+            values.forEach((key, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(base, bitmap);
+                if (count > 0) {
+                    counts.add(Map.entry(key, count));
+                }
+            });
+        }
+        counts.sort(Map.Entry.<K, Long>comparingByValue().reversed());
+        Map<T, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counts.size() && i < limit; i++) {
+            result.put(keyOf.apply(counts.get(i).getKey()), counts.get(i).getValue());
+        }
+        return result;
+    }
+
+    private enum Dimension {
+        CATEGORY, STATUS, SOURCE_TYPE, TAGS, TOP, TIME
+    }
+
+    /**
+     * 文章的筛选字段
+     *
+     * @param time 排序时间：发布时间，未发布时取创建时间；两者皆空时为 {@link Long#MIN_VALUE}
+     */
+    private record Entry(long id, Long categoryId, Article.ArticleStatus status, Article.SourceType sourceType,
+                         Set<String> tags, boolean top, long time) {
+
+        static Entry of(Article article) {
+            LocalDateTime time = article.getPublishTime() != null ? article.getPublishTime() : article.getCreatedAt();
+            Set<String> tags = new LinkedHashSet<>();
+            if (article.getTags() != null) {
+                article.getTags().stream().filter(tag -> tag != null && !tag.isBlank()).map(String::trim)
+                        .forEach(tags::add);
+            }
+            return new Entry(article.getId(), article.getCategoryId(), article.getStatus(), article.getSourceType(),
+                    tags, Boolean.TRUE.equals(article.getIsTop()), epochSecond(time));
+        }
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * 索引数据；非线程安全，由读写锁保护
+     */
+    private static final class State {
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private Entry[] entries = new Entry[1024];
+        private int nextOrdinal;
+        /**
+         * 删除后空出的序号，新文章优先复用，保持位图稠密
+         */
+        private int[] free = new int[16];
+        private int freeCount;
+
+        private final RoaringBitmap live = new RoaringBitmap();
+        private final Map<Long, RoaringBitmap> categories = new HashMap<>();
+        private final Map<Article.ArticleStatus, RoaringBitmap> statuses = new EnumMap<>(Article.ArticleStatus.class);
+        private final Map<Article.SourceType, RoaringBitmap> sourceTypes = new EnumMap<>(Article.SourceType.class);
+        private final Map<String, RoaringBitmap> tags = new HashMap<>();
+        private final RoaringBitmap top = new RoaringBitmap();
+
+        /**
+         * 按（排序时间, ID）升序排列的序号
+         */
+        private int[] sortedOrdinals = new int[1024];
+        private int sorted;
+
+        /**
+         * 构建阶段追加，不维护有序数组，结束后调用 {@link #sort()}
+         */
+        void append(Entry entry) {
+            remove(entry.id());
+            index(entry);
+        }
+
+        void sort() {
+            Integer[] boxed = new Integer[ordinals.size()];
+            int i = 0;
+            for (Integer ordinal : ordinals.values()) {
+                boxed[i++] = ordinal;
+            }
+            Arrays.sort(boxed, Comparator.<Integer>comparingLong(ordinal -> entries[ordinal].time())
+                    .thenComparingLong(ordinal -> entries[ordinal].id()));
+            sortedOrdinals = new int[Math.max(boxed.length, 16)];
+            for (i = 0; i < boxed.length; i++) {
+                sortedOrdinals[i] = boxed[i];
+            }
+            sorted = boxed.length;
+        }
+
+        void put(Entry entry) {
+            remove(entry.id());
+            int ordinal = index(entry);
+            int position = position(entry.time(), entry.id());
+            if (sorted == sortedOrdinals.length) {
+                sortedOrdinals = Arrays.copyOf(sortedOrdinals, sorted * 2);
+            }
+            System.arraycopy(sortedOrdinals, position, sortedOrdinals, position + 1, sorted - position);
+            sortedOrdinals[position] = ordinal;
+            sorted++;
+        }
+
+        void remove(long id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            Entry entry = entries[ordinal];
+            live.remove(ordinal);
+            unset(categories, entry.categoryId(), ordinal);
+            unset(statuses, entry.status(), ordinal);
+            unset(sourceTypes, entry.sourceType(), ordinal);
+            entry.tags().forEach(tag -> unset(tags, tag, ordinal));
+            top.remove(ordinal);
+            int position = position(entry.time(), entry.id());
+            if (position < sorted && sortedOrdinals[position] == ordinal) {
+                System.arraycopy(sortedOrdinals, position + 1, sortedOrdinals, position, sorted - position - 1);
+                sorted--;
+            }
+            entries[ordinal] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = ordinal;
+        }
+
+        private int index(Entry entry) {
+            int ordinal;
+            if (freeCount > 0) {
+                ordinal = free[--freeCount];
+            } else {
+                ordinal = nextOrdinal++;
+                if (ordinal == entries.length) {
+                    entries = Arrays.copyOf(entries, ordinal * 2);
+                }
+            }
+            entries[ordinal] = entry;
+            ordinals.put(entry.id(), ordinal);
+            live.add(ordinal);
+            set(categories, entry.categoryId(), ordinal);
+            set(statuses, entry.status(), ordinal);
+            set(sourceTypes, entry.sourceType(), ordinal);
+            entry.tags().forEach(tag -> set(tags, tag, ordinal));
+            if (entry.top()) {
+                top.add(ordinal);
+            }
+            return ordinal;
+        }
+
+        /**
+         * （time, id）在有序数组中的插入位置（第一个不小于它的位置）
+         */
+        private int position(long time, long id) {
+            int low = 0;
+            int high = sorted;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Entry entry = entries[sortedOrdinals[mid]];
+                int compared = entry.time() != time ? Long.compare(entry.time(), time) : Long.compare(entry.id(), id);
+                if (compared < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 时间范围（含两端）在有序数组中的下标区间 [from, to)
+         */
+        int[] range(LocalDateTime start, LocalDateTime end) {
+            int from = start == null ? 0 : position(epochSecond(start), Long.MIN_VALUE);
+            int to = end == null ? sorted : position(epochSecond(end), Long.MAX_VALUE);
+            return new int[]{from, Math.max(from, to)};
+        }
+
+        RoaringBitmap slice(int from, int to) {
+            RoaringBitmap bitmap = new RoaringBitmap();
+            for (int i = from; i < to; i++) {
+                bitmap.add(sortedOrdinals[i]);
+            }
+            return bitmap;
+        }
+
+        /**
+         * 取一页ID：命中数远小于扫描区间时取出命中项排序，否则沿有序数组扫描
+         */
+        List<Long> page(RoaringBitmap matched, int[] range, boolean descending, int offset, int limit) {
+            int total = matched.cardinality();
+            List<Long> ids = new ArrayList<>(Math.max(Math.min(limit, total - offset), 0));
+            if (offset >= total || limit <= 0) {
+                return ids;
+            }
+            if ((long) total * 16 < range[1] - range[0]) {
+                List<Entry> hits = new ArrayList<>(total);
+                matched.forEach(ordinal -> hits.add(entries[ordinal]));
+                Comparator<Entry> order = Comparator.comparingLong(Entry::time).thenComparingLong(Entry::id);
+                hits.sort(descending ? order.reversed() : order);
+                hits.subList(offset, Math.min(offset + limit, total)).forEach(entry -> ids.add(entry.id()));
+                return ids;
+            }
+            int skipped = 0;
+            int step = descending ? -1 : 1;
+            for (int i = descending ? range[1] - 1 : range[0]; i >= range[0] && i < range[1] && ids.size() < limit;
+                 i += step) {
+                int ordinal = sortedOrdinals[i];
+                if (matched.contains(ordinal) && skipped++ >= offset) {
+                    ids.add(entries[ordinal].id());
+                }
+            }
+            return ids;
+        }
+
+        private static <K> void set(Map<K, RoaringBitmap> bitmaps, K key, int ordinal) {
+            if (key != null) {
+                bitmaps.computeIfAbsent(key, value -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        private static <K> void unset(Map<K, RoaringBitmap> bitmaps, K key, int ordinal) {
+            RoaringBitmap bitmap = key == null ? null : bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(key);
+                }
+            }
+        }
+    }
+}
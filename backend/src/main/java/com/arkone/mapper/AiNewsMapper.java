@@ -1,5 +1,6 @@
 package com.arkone.mapper;
 
+import com.arkone.counter.CounterEntry;
 import com.arkone.entity.AiNews;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -9,6 +10,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -57,14 +59,59 @@ public interface AiNewsMapper extends BaseMapper<AiNews> {
     /**
      * 搜索新闻
      */
+    @Select("SELECT * FROM ai_news WHERE status = 'published' AND deleted = 0 " +
+            "AND (title LIKE CONCAT('%', #{keyword}, '%') OR content LIKE CONCAT('%', #{keyword}, '%') " +
+            "OR summary LIKE CONCAT('%', #{keyword}, '%')) ORDER BY published_at DESC")
     IPage<AiNews> searchNews(Page<AiNews> page, @Param("keyword") String keyword);
 
+    /**
+     * 全文索引搜索新闻，按相关度排序；query为 BOOLEAN MODE 查询串，依赖 sql/fulltext_ngram.sql 创建的索引
+     */
+    @Select("SELECT *, MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) AS search_score FROM ai_news " +
+            "WHERE MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) " +
+            "AND status = 'published' AND deleted = 0 ORDER BY search_score DESC, published_at DESC")
+    IPage<AiNews> searchNewsFulltext(Page<AiNews> page, @Param("query") String query);
+
+    /**
+     * 搜索新闻，只返回ID，用于综合搜索先排序后按页加载
+     */
+    @Select("SELECT id FROM ai_news WHERE status = 'published' AND deleted = 0 " +
+            "AND (title LIKE CONCAT('%', #{keyword}, '%') OR content LIKE CONCAT('%', #{keyword}, '%') " +
+            "OR summary LIKE CONCAT('%', #{keyword}, '%')) ORDER BY published_at DESC")
+    IPage<AiNews> searchNewsIds(Page<AiNews> page, @Param("keyword") String keyword);
+
+    /**
+     * 全文索引搜索新闻，只返回ID与相关度，用于综合搜索先排序后按页加载
+     */
+    @Select("SELECT id, MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) AS search_score FROM ai_news " +
+            "WHERE MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) " +
+            "AND status = 'published' AND deleted = 0 ORDER BY search_score DESC, published_at DESC")
+    IPage<AiNews> searchNewsIdsFulltext(Page<AiNews> page, @Param("query") String query);
+
+    /**
+     * 按ID顺序分批读取更新时间不早于since的记录（含已逻辑删除的），用于搜索索引追平变更
+     */
+    @Select("SELECT * FROM ai_news WHERE updated_at >= #{since} AND id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<AiNews> selectChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                  @Param("limit") Integer limit);
+
     /**
      * 增加浏览量
      */
     @Update("UPDATE ai_news SET view_count = view_count + 1 WHERE id = #{id}")
     int incrementViewCount(@Param("id") Long id);
 
+    /**
+     * 批量累加浏览量（保持updated_at不变，计数不视为内容修改）
+     */
+    @Update("<script>" +
+            "UPDATE ai_news SET updated_at = updated_at, view_count = view_count + CASE id " +
+            "<foreach collection='entries' item='entry'>WHEN #{entry.id} THEN #{entry.value} </foreach>" +
+            "ELSE 0 END WHERE id IN " +
+            "<foreach collection='entries' item='entry' open='(' separator=',' close=')'>#{entry.id}</foreach>" +
+            "</script>")
+    int batchIncrementViewCount(@Param("entries") List<CounterEntry> entries);
+
     /**
      * 增加点赞量
      */
@@ -77,6 +124,23 @@ public interface AiNewsMapper extends BaseMapper<AiNews> {
     @Update("UPDATE ai_news SET like_count = like_count - 1 WHERE id = #{id} AND like_count > 0")
     int decrementLikeCount(@Param("id") Long id);
 
+    /**
+     * 批量更新点赞量（保持updated_at不变，计数不视为内容修改）
+     */
+    @Update("<script>" +
+            "UPDATE ai_news SET updated_at = updated_at, like_count = CASE id " +
+            "<foreach collection='entries' item='entry'>WHEN #{entry.id} THEN #{entry.value} </foreach>" +
+            "ELSE like_count END WHERE id IN " +
+            "<foreach collection='entries' item='entry' open='(' separator=',' close=')'>#{entry.id}</foreach>" +
+            "</script>")
+    int batchUpdateLikeCount(@Param("entries") List<CounterEntry> entries);
+
+    /**
+     * 查询点赞量（内容不存在时返回null）
+     */
+    @Select("SELECT IFNULL(like_count, 0) FROM ai_news WHERE id = #{id} AND deleted = 0")
+    Integer selectLikeCount(@Param("id") Long id);
+
     /**
      * 获取新闻分类列表
      */
@@ -1,5 +1,7 @@
 package com.arkone.mapper;
 
+import com.arkone.counter.CounterEntry;
+import com.arkone.dto.ArticleQuery;
 import com.arkone.entity.Article;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -9,6 +11,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,15 +24,44 @@ import java.util.List;
 public interface ArticleMapper extends BaseMapper<Article> {
 
     /**
-     * 分页查询文章（包含分类名称）
+     * 分页查询文章（包含分类名称）；筛选索引未就绪或查询含标题、关键词、非时间排序时使用
      */
-    IPage<Article> selectArticlePageWithCategory(Page<Article> page, @Param("query") Object query);
+    @Select("<script>SELECT a.*, c.name AS category_name FROM articles a LEFT JOIN categories c ON a.category_id = c.id " +
+            "WHERE a.deleted = 0" +
+            "<if test='query.title != null'> AND a.title LIKE CONCAT('%', #{query.title}, '%')</if>" +
+            "<if test='query.keyword != null'> AND (a.title LIKE CONCAT('%', #{query.keyword}, '%') " +
+            "OR a.summary LIKE CONCAT('%', #{query.keyword}, '%'))</if>" +
+            "<if test='query.categoryId != null'> AND a.category_id = #{query.categoryId}</if>" +
+            "<if test='query.status != null'> AND a.status = #{query.status.code}</if>" +
+            "<if test='query.sourceType != null'> AND a.source_type = #{query.sourceType.code}</if>" +
+            "<if test='query.isTop != null'> AND a.is_top = #{query.isTop}</if>" +
+            "<if test='query.startTime != null'> AND COALESCE(a.publish_time, a.created_at) &gt;= #{query.startTime}</if>" +
+            "<if test='query.endTime != null'> AND COALESCE(a.publish_time, a.created_at) &lt;= #{query.endTime}</if>" +
+            "<if test='query.tags != null'><foreach collection='query.tags' item='tag'>" +
+            " AND JSON_CONTAINS(a.tags, JSON_QUOTE(#{tag}))</foreach></if>" +
+            " ORDER BY <choose>" +
+            "<when test=\"query.sortField == 'viewCount'\">a.view_count</when>" +
+            "<when test=\"query.sortField == 'likeCount'\">a.like_count</when>" +
+            "<when test=\"query.sortField == 'createdAt'\">a.created_at</when>" +
+            "<otherwise>COALESCE(a.publish_time, a.created_at)</otherwise></choose>" +
+            "<choose><when test='query.asc'> ASC, a.id ASC</when><otherwise> DESC, a.id DESC</otherwise></choose>" +
+            "</script>")
+    IPage<Article> selectArticlePageWithCategory(Page<Article> page, @Param("query") ArticleQuery query);
 
     /**
      * 根据ID查询文章（包含分类名称）
      */
+    @Select("SELECT a.*, c.name AS category_name FROM articles a LEFT JOIN categories c ON a.category_id = c.id " +
+            "WHERE a.id = #{id} AND a.deleted = 0")
     Article selectArticleWithCategoryById(@Param("id") Long id);
 
+    /**
+     * 按ID顺序分批读取已发布文章（包含分类名称），用于静态快照全量重建
+     */
+    @Select("SELECT a.*, c.name AS category_name FROM articles a LEFT JOIN categories c ON a.category_id = c.id " +
+            "WHERE a.status = 'published' AND a.deleted = 0 AND a.id > #{lastId} ORDER BY a.id LIMIT #{limit}")
+    List<Article> selectPublishedWithCategory(@Param("lastId") Long lastId, @Param("limit") Integer limit);
+
     /**
      * 获取热门文章
      */
@@ -62,14 +94,59 @@ public interface ArticleMapper extends BaseMapper<Article> {
     /**
      * 搜索文章
      */
+    @Select("SELECT * FROM articles WHERE status = 'published' AND deleted = 0 " +
+            "AND (title LIKE CONCAT('%', #{keyword}, '%') OR summary LIKE CONCAT('%', #{keyword}, '%') " +
+            "OR content LIKE CONCAT('%', #{keyword}, '%')) ORDER BY publish_time DESC, created_at DESC")
     IPage<Article> searchArticles(Page<Article> page, @Param("keyword") String keyword);
 
+    /**
+     * 全文索引搜索文章，按相关度排序；query为 BOOLEAN MODE 查询串，依赖 sql/fulltext_ngram.sql 创建的索引
+     */
+    @Select("SELECT *, MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) AS search_score FROM articles " +
+            "WHERE MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) " +
+            "AND status = 'published' AND deleted = 0 ORDER BY search_score DESC, publish_time DESC")
+    IPage<Article> searchArticlesFulltext(Page<Article> page, @Param("query") String query);
+
+    /**
+     * 搜索文章，只返回ID，用于综合搜索先排序后按页加载
+     */
+    @Select("SELECT id FROM articles WHERE status = 'published' AND deleted = 0 " +
+            "AND (title LIKE CONCAT('%', #{keyword}, '%') OR summary LIKE CONCAT('%', #{keyword}, '%') " +
+            "OR content LIKE CONCAT('%', #{keyword}, '%')) ORDER BY publish_time DESC, created_at DESC")
+    IPage<Article> searchArticleIds(Page<Article> page, @Param("keyword") String keyword);
+
+    /**
+     * 全文索引搜索文章，只返回ID与相关度，用于综合搜索先排序后按页加载
+     */
+    @Select("SELECT id, MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) AS search_score FROM articles " +
+            "WHERE MATCH(title, summary, content) AGAINST(#{query} IN BOOLEAN MODE) " +
+            "AND status = 'published' AND deleted = 0 ORDER BY search_score DESC, publish_time DESC")
+    IPage<Article> searchArticleIdsFulltext(Page<Article> page, @Param("query") String query);
+
+    /**
+     * 按ID顺序分批读取更新时间不早于since的记录（含已逻辑删除的），用于搜索索引追平变更
+     */
+    @Select("SELECT * FROM articles WHERE updated_at >= #{since} AND id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Article> selectChangedSince(@Param("since") LocalDateTime since, @Param("lastId") Long lastId,
+                                   @Param("limit") Integer limit);
+
     /**
      * 增加浏览量
      */
     @Update("UPDATE articles SET view_count = view_count + 1 WHERE id = #{id}")
     int incrementViewCount(@Param("id") Long id);
 
+    /**
+     * 批量累加浏览量（保持updated_at不变，计数不视为内容修改）
+     */
+    @Update("<script>" +
+            "UPDATE articles SET updated_at = updated_at, view_count = view_count + CASE id " +
+            "<foreach collection='entries' item='entry'>WHEN #{entry.id} THEN #{entry.value} </foreach>" +
+            "ELSE 0 END WHERE id IN " +
+            "<foreach collection='entries' item='entry' open='(' separator=',' close=')'>#{entry.id}</foreach>" +
+            "</script>")
+    int batchIncrementViewCount(@Param("entries") List<CounterEntry> entries);
+
     /**
      * 增加点赞量
      */
@@ -82,6 +159,23 @@ public interface ArticleMapper extends BaseMapper<Article> {
     @Update("UPDATE articles SET like_count = like_count - 1 WHERE id = #{id} AND like_count > 0")
     int decrementLikeCount(@Param("id") Long id);
 
+    /**
+     * 批量更新点赞量（保持updated_at不变，计数不视为内容修改）
+     */
+    @Update("<script>" +
+            "UPDATE articles SET updated_at = updated_at, like_count = CASE id " +
+            "<foreach collection='entries' item='entry'>WHEN #{entry.id} THEN #{entry.value} </foreach>" +
+            "ELSE like_count END WHERE id IN " +
+            "<foreach collection='entries' item='entry' open='(' separator=',' close=')'>#{entry.id}</foreach>" +
+            "</script>")
+    int batchUpdateLikeCount(@Param("entries") List<CounterEntry> entries);
+
+    /**
+     * 查询点赞量（内容不存在时返回null）
+     */
+    @Select("SELECT IFNULL(like_count, 0) FROM articles WHERE id = #{id} AND deleted = 0")
+    Integer selectLikeCount(@Param("id") Long id);
+
     /**
      * 获取文章统计信息
      */
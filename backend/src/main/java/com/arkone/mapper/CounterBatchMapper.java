@@ -0,0 +1,34 @@
+package com.arkone.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已落库计数批次Mapper接口
+ * <p>
+ * 浏览量批次的增量与批次ID在同一事务中写入，重放本地日志时据此跳过已落库的批次。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Mapper
+public interface CounterBatchMapper {
+
+    /**
+     * 记录批次已落库
+     *
+     * @return 1：首次记录；0：批次此前已落库
+     */
+    @Insert("INSERT IGNORE INTO counter_batches (batch_id) VALUES (#{batchId})")
+    int insertIgnore(@Param("batchId") long batchId);
+
+    /**
+     * 删除早于指定时间落库的批次记录
+     */
+    @Delete("DELETE FROM counter_batches WHERE applied_at < #{before}")
+    int deleteAppliedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,33 @@
+package com.arkone.mapper;
+
+import com.arkone.entity.SystemConfig;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 系统配置Mapper接口
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Mapper
+public interface SystemConfigMapper extends BaseMapper<SystemConfig> {
+
+    /**
+     * 配置表的版本戳：行数、最大更新时间与内容校验和。
+     * updated_at 只精确到秒，同一秒内的多次修改由校验和区分；新增、删除由行数区分
+     */
+    @Select("SELECT CONCAT(COUNT(*), ':', IFNULL(UNIX_TIMESTAMP(MAX(updated_at)), 0), ':', " +
+            "IFNULL(SUM(CRC32(CONCAT(config_key, '=', IFNULL(config_value, '')))), 0)) FROM system_config")
+    String selectVersionStamp();
+
+    /**
+     * 按配置键更新配置值，系统配置不更新
+     */
+    @Update("UPDATE system_config SET config_value = #{value}, updated_at = NOW() " +
+            "WHERE config_key = #{key} AND is_system = 0")
+    int updateValueByKey(@Param("key") String key, @Param("value") String value);
+}
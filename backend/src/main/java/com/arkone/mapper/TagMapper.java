@@ -2,7 +2,14 @@ package com.arkone.mapper;
 
 import com.arkone.entity.Tag;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 标签Mapper接口
@@ -13,4 +20,35 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface TagMapper extends BaseMapper<Tag> {
 
-}
\ No newline at end of file
+    /**
+     * 批量插入标签，(name, type) 唯一键冲突的行被忽略
+     *
+     * @return 实际插入的行数
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO tags (id, name, type, status, sort_order, usage_count, created_at, updated_at, deleted) VALUES " +
+            "<foreach collection='tags' item='tag' separator=','>" +
+            "(#{tag.id}, #{tag.name}, #{tag.type}, #{tag.status}, #{tag.sortOrder}, #{tag.usageCount}, " +
+            "#{tag.createdAt}, #{tag.updatedAt}, 0)" +
+            "</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("tags") List<Tag> tags);
+
+    /**
+     * 按名称批量查询标签（含已逻辑删除的记录）
+     */
+    @Select("<script>" +
+            "SELECT * FROM tags WHERE type = #{type} AND name IN " +
+            "<foreach collection='names' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+            "</script>")
+    List<Tag> selectByNamesIncludingDeleted(@Param("type") Tag.TagType type, @Param("names") Collection<String> names);
+
+    /**
+     * 恢复已逻辑删除的标签
+     */
+    @Update("<script>" +
+            "UPDATE tags SET deleted = 0, updated_at = NOW() WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int restoreByIds(@Param("ids") Collection<Long> ids);
+}
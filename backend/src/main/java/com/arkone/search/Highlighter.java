@@ -0,0 +1,99 @@
+package com.arkone.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * 搜索结果高亮
+ * <p>
+ * 在纯文本中查找查询子句原文（忽略大小写），截取首个命中附近的片段，
+ * 转义HTML后以 {@code <em>} 包裹命中部分。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class Highlighter {
+
+    private static final String OPEN = "<em>";
+    private static final String CLOSE = "</em>";
+    private static final String ELLIPSIS = "...";
+
+    private Highlighter() {
+    }
+
+    /**
+     * 高亮全文（用于标题）
+     */
+    public static String highlight(String text, List<String> terms) {
+        return text == null ? null : render(text, 0, text.length(), terms);
+    }
+
+    /**
+     * 截取首个命中附近长度约为maxLength的片段并高亮；无命中时取开头
+     */
+    public static String snippet(String text, List<String> terms, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        int first = text.length();
+        for (String term : terms) {
+            int index = indexOfIgnoreCase(text, term, 0);
+            if (index >= 0 && index < first) {
+                first = index;
+            }
+        }
+        if (first == text.length()) {
+            first = 0;
+        }
+        int start = Math.max(0, first - maxLength / 4);
+        int end = Math.min(text.length(), start + maxLength);
+        start = Math.max(0, Math.min(start, end - maxLength));
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        snippet.append(render(text, start, end, terms));
+        if (end < text.length()) {
+            snippet.append(ELLIPSIS);
+        }
+        return snippet.toString();
+    }
+
+    private static String render(String text, int start, int end, List<String> terms) {
+        StringBuilder out = new StringBuilder(end - start + 16);
+        int i = start;
+        int plainStart = start;
+        while (i < end) {
+            int matched = 0;
+            for (String term : terms) {
+                if (!term.isEmpty() && term.length() > matched && i + term.length() <= end
+                        && text.regionMatches(true, i, term, 0, term.length())) {
+                    matched = term.length();
+                }
+            }
+            if (matched > 0) {
+                out.append(HtmlUtils.htmlEscape(text.substring(plainStart, i)))
+                        .append(OPEN).append(HtmlUtils.htmlEscape(text.substring(i, i + matched))).append(CLOSE);
+                i += matched;
+                plainStart = i;
+            } else {
+                i++;
+            }
+        }
+        out.append(HtmlUtils.htmlEscape(text.substring(plainStart, end)));
+        return out.toString();
+    }
+
+    private static int indexOfIgnoreCase(String text, String term, int from) {
+        if (term.isEmpty()) {
+            return -1;
+        }
+        for (int i = from; i + term.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, term, 0, term.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
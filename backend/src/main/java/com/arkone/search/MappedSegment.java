@@ -0,0 +1,422 @@
+package com.arkone.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 磁盘段：不可变的索引文件，以内存映射方式读取
+ * <p>
+ * 打开时只校验文件头并建立映射，不加载数据，重启后可立即提供查询；页面由操作系统按需调入。
+ * 文件布局（大端序）：
+ * <pre>
+ * 文件头     魔数、版本、文档数、词项数、总长度、各区偏移、文件长度
+ * 存储字段   每个文档的标题、摘要、正文（int长度 + UTF-8）
+ * 词项文本   int长度 + UTF-8
+ * 倒排列表   int文档数、int[]文档序号（升序）、int[]位置偏移、位置数据（varint个数 + varint差值）
+ * 文档表     按ID升序，每项 id、发布时间、标题结束位置、长度、存储字段偏移，定长32字节
+ * 词项表     按UTF-8字节序升序，每项 词项文本偏移、倒排列表偏移，定长16字节
+ * </pre>
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+final class MappedSegment implements Segment {
+
+    private static final int MAGIC = 0x414B5358;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int DOC_ENTRY_SIZE = 32;
+    private static final int TERM_ENTRY_SIZE = 16;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final long totalLength;
+    private final int docTable;
+    private final int termTable;
+
+    private MappedSegment(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("索引段格式不兼容: " + path);
+        }
+        if (buffer.getLong(48) != buffer.capacity()) {
+            throw new IOException("索引段文件不完整: " + path);
+        }
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.totalLength = buffer.getLong(16);
+        this.docTable = (int) buffer.getLong(24);
+        this.termTable = (int) buffer.getLong(32);
+    }
+
+    /**
+     * 映射已有的索引段文件
+     */
+    static MappedSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("索引段超过2GB: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedSegment(path, buffer);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public int docCount() {
+        return docCount;
+    }
+
+    @Override
+    public long totalLength() {
+        return totalLength;
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return ordinal(id) >= 0;
+    }
+
+    @Override
+    public Postings postings(String term) {
+        int index = findTerm(term.getBytes(StandardCharsets.UTF_8));
+        if (index < 0) {
+            return null;
+        }
+        int offset = (int) buffer.getLong(termTable + index * TERM_ENTRY_SIZE + 8);
+        int size = buffer.getInt(offset);
+        int ordinals = offset + 4;
+        int offsets = ordinals + size * 4;
+        int data = offsets + (size + 1) * 4;
+        return new Postings() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void forEachId(LongConsumer consumer) {
+                for (int i = 0; i < size; i++) {
+                    consumer.accept(docId(buffer.getInt(ordinals + i * 4)));
+                }
+            }
+
+            @Override
+            public int[] positions(long id) {
+                int ordinal = ordinal(id);
+                if (ordinal < 0) {
+                    return null;
+                }
+                int low = 0;
+                int high = size - 1;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    int value = buffer.getInt(ordinals + mid * 4);
+                    if (value < ordinal) {
+                        low = mid + 1;
+                    } else if (value > ordinal) {
+                        high = mid - 1;
+                    } else {
+                        return decodePositions(data + buffer.getInt(offsets + mid * 4));
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public DocMeta meta(long id) {
+        int ordinal = ordinal(id);
+        if (ordinal < 0) {
+            return null;
+        }
+        int entry = docTable + ordinal * DOC_ENTRY_SIZE;
+        return new DocMeta(buffer.getInt(entry + 16), buffer.getInt(entry + 20), toTime(buffer.getLong(entry + 8)));
+    }
+
+    @Override
+    public SearchDocument document(long id) {
+        int ordinal = ordinal(id);
+        return ordinal < 0 ? null : documentAt(ordinal);
+    }
+
+    @Override
+    public void forEachDocument(Consumer<SearchDocument> consumer) {
+        for (int i = 0; i < docCount; i++) {
+            consumer.accept(documentAt(i));
+        }
+    }
+
+    @Override
+    public void forEachTerm(ObjIntConsumer<String> consumer) {
+        for (int i = 0; i < termCount; i++) {
+            int offset = (int) buffer.getLong(termTable + i * TERM_ENTRY_SIZE);
+            int postings = (int) buffer.getLong(termTable + i * TERM_ENTRY_SIZE + 8);
+            consumer.accept(readString(offset), buffer.getInt(postings));
+        }
+    }
+
+    private long docId(int ordinal) {
+        return buffer.getLong(docTable + ordinal * DOC_ENTRY_SIZE);
+    }
+
+    /**
+     * 文档表中按ID二分查找，返回序号，不存在时返回-1
+     */
+    private int ordinal(long id) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = docId(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private SearchDocument documentAt(int ordinal) {
+        int entry = docTable + ordinal * DOC_ENTRY_SIZE;
+        int offset = (int) buffer.getLong(entry + 24);
+        String title = readString(offset);
+        offset += 4 + buffer.getInt(offset);
+        String summary = readString(offset);
+        offset += 4 + buffer.getInt(offset);
+        String content = readString(offset);
+        return new SearchDocument(buffer.getLong(entry), title, summary, content, toTime(buffer.getLong(entry + 8)));
+    }
+
+    private String readString(int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 词项表中按UTF-8字节序二分查找
+     */
+    private int findTerm(byte[] term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = (int) buffer.getLong(termTable + mid * TERM_ENTRY_SIZE);
+            int compared = compare(offset + 4, buffer.getInt(offset), term);
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compare(int offset, int length, byte[] term) {
+        int common = Math.min(length, term.length);
+        for (int i = 0; i < common; i++) {
+            int compared = Integer.compare(buffer.get(offset + i) & 0xFF, term[i] & 0xFF);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(length, term.length);
+    }
+
+    private int[] decodePositions(int offset) {
+        int[] cursor = {offset};
+        int count = readVarint(cursor);
+        int[] positions = new int[count];
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += readVarint(cursor);
+            positions[i] = previous;
+        }
+        return positions;
+    }
+
+    private int readVarint(int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buffer.get(cursor[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    private static LocalDateTime toTime(long epochSecond) {
+        return epochSecond == NO_TIME ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * 把内存段写成索引段文件；调用方负责写入临时文件后原子改名
+     */
+    static void write(Path path, MutableSegment segment) throws IOException {
+        List<MutableSegment.AnalyzedDoc> docs = new ArrayList<>();
+        segment.docs().forEach(docs::add);
+        docs.sort((a, b) -> Long.compare(a.document().id(), b.document().id()));
+        Map<Long, Integer> ordinals = new HashMap<>(docs.size() * 2);
+        for (int i = 0; i < docs.size(); i++) {
+            ordinals.put(docs.get(i).document().id(), i);
+        }
+        Map<String, Map<Long, int[]>> postings = segment.postingsMap();
+        List<byte[]> terms = new ArrayList<>(postings.size());
+        postings.keySet().forEach(term -> terms.add(term.getBytes(StandardCharsets.UTF_8)));
+        terms.sort(Arrays::compareUnsigned);
+
+        try (CountingOutput out = new CountingOutput(Files.newOutputStream(path))) {
+            out.write(new byte[HEADER_SIZE]);
+            long[] storedOffsets = new long[docs.size()];
+            for (int i = 0; i < docs.size(); i++) {
+                SearchDocument document = docs.get(i).document();
+                storedOffsets[i] = out.position();
+                out.writeString(document.title());
+                out.writeString(document.summary());
+                out.writeString(document.content());
+            }
+            long[] termOffsets = new long[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                termOffsets[i] = out.position();
+                out.writeInt(terms.get(i).length);
+                out.write(terms.get(i));
+            }
+            long[] postingOffsets = new long[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                postingOffsets[i] = out.position();
+                writePostings(out, postings.get(new String(terms.get(i), StandardCharsets.UTF_8)), ordinals);
+            }
+            long docTableOffset = out.position();
+            for (int i = 0; i < docs.size(); i++) {
+                MutableSegment.AnalyzedDoc doc = docs.get(i);
+                LocalDateTime publishedAt = doc.document().publishedAt();
+                out.writeLong(doc.document().id());
+                out.writeLong(publishedAt == null ? NO_TIME : publishedAt.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(doc.titleEnd());
+                out.writeInt(doc.length());
+                out.writeLong(storedOffsets[i]);
+            }
+            long termTableOffset = out.position();
+            for (int i = 0; i < terms.size(); i++) {
+                out.writeLong(termOffsets[i]);
+                out.writeLong(postingOffsets[i]);
+            }
+            out.flush();
+            if (out.position() >= Integer.MAX_VALUE) {
+                throw new IOException("索引段超过2GB: " + path);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(docs.size()).putInt(terms.size())
+                    .putLong(segment.totalLength()).putLong(docTableOffset).putLong(termTableOffset)
+                    .putLong(0L).putLong(out.position()).flip();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+                channel.force(true);
+            }
+        }
+    }
+
+    private static void writePostings(CountingOutput out, Map<Long, int[]> posting, Map<Long, Integer> ordinals)
+            throws IOException {
+        int size = posting.size();
+        // 序号按文档ID升序分配，ID排序后即为序号顺序
+        long[] ids = new long[size];
+        int i = 0;
+        for (Long id : posting.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        out.writeInt(size);
+        for (long id : ids) {
+            out.writeInt(ordinals.get(id));
+        }
+        // 先编码位置数据以得到各文档的偏移
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int[] offsets = new int[size + 1];
+        for (int j = 0; j < size; j++) {
+            offsets[j] = data.size();
+            int[] positions = posting.get(ids[j]);
+            writeVarint(data, positions.length);
+            int previous = 0;
+            for (int position : positions) {
+                writeVarint(data, position - previous);
+                previous = position;
+            }
+        }
+        offsets[size] = data.size();
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        data.writeTo(out);
+    }
+
+    private static void writeVarint(OutputStream out, int value) {
+        try {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 记录已写入字节数的输出流；计数在 {@link Integer#MAX_VALUE} 处饱和，超出即拒绝写入
+     */
+    private static final class CountingOutput extends DataOutputStream {
+
+        CountingOutput(OutputStream out) {
+            super(new BufferedOutputStream(out, 1 << 16));
+        }
+
+        long position() {
+            return size();
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            write(bytes);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.arkone.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 内存段：接收增量写入，定期与磁盘段合并后写入新的磁盘段
+ * <p>
+ * 标题、摘要、正文依次拼接成一条位置流，字段之间留出间隔，避免短语跨字段命中。
+ * 非线程安全，由 {@link SearchIndex} 的读写锁保护。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+final class MutableSegment implements Segment {
+
+    /**
+     * 字段之间的位置间隔
+     */
+    private static final int FIELD_GAP = 16;
+
+    private final Map<String, Map<Long, int[]>> postings = new HashMap<>();
+    private final Map<Long, AnalyzedDoc> docs = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * 分词后的文档
+     *
+     * @param document 原文
+     * @param titleEnd 标题在位置流中的结束位置
+     * @param length   文档长度
+     * @param terms    词项 -> 位置列表
+     */
+    record AnalyzedDoc(SearchDocument document, int titleEnd, int length, Map<String, int[]> terms) {
+    }
+
+    static AnalyzedDoc analyze(SearchDocument document) {
+        Map<String, IntList> positions = new HashMap<>();
+        int base = 0;
+        int titleEnd = 0;
+        String[] fields = {document.title(), document.summary(), document.content()};
+        for (int f = 0; f < fields.length; f++) {
+            int last = -1;
+            for (Tokenizer.Token token : Tokenizer.tokenizeForIndex(fields[f])) {
+                positions.computeIfAbsent(token.term(), key -> new IntList()).add(base + token.position());
+                last = Math.max(last, token.position());
+            }
+            base += last + 1 + FIELD_GAP;
+            if (f == 0) {
+                titleEnd = base;
+            }
+        }
+        Map<String, int[]> terms = new HashMap<>(positions.size() * 2);
+        positions.forEach((term, list) -> terms.put(term, list.toArray()));
+        return new AnalyzedDoc(document, titleEnd, Math.max(base - FIELD_GAP * fields.length, 1), terms);
+    }
+
+    void add(AnalyzedDoc doc) {
+        remove(doc.document().id());
+        docs.put(doc.document().id(), doc);
+        totalLength += doc.length();
+        doc.terms().forEach((term, positions) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(doc.document().id(), positions));
+    }
+
+    void remove(long id) {
+        AnalyzedDoc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        totalLength -= doc.length();
+        for (String term : doc.terms().keySet()) {
+            Map<Long, int[]> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * 复制另一个段中未被屏蔽的文档，直接搬运倒排数据，不重新分词；用于段合并
+     */
+    void copyFrom(Segment source, Set<Long> excluded) {
+        Set<Long> copied = new HashSet<>();
+        source.forEachDocument(document -> {
+            if (excluded.contains(document.id())) {
+                return;
+            }
+            remove(document.id());
+            Segment.DocMeta meta = source.meta(document.id());
+            docs.put(document.id(), new AnalyzedDoc(document, meta.titleEnd(), meta.length(), new HashMap<>()));
+            totalLength += meta.length();
+            copied.add(document.id());
+        });
+        source.forEachTerm((term, frequency) -> {
+            Segment.Postings posting = source.postings(term);
+            posting.forEachId(id -> {
+                if (!copied.contains(id)) {
+                    return;
+                }
+                int[] positions = posting.positions(id);
+                docs.get(id).terms().put(term, positions);
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, positions);
+            });
+        });
+    }
+
+    /**
+     * 已分析的文档，不存在时返回null
+     */
+    AnalyzedDoc get(long id) {
+        return docs.get(id);
+    }
+
+    /**
+     * 全部文档，供写入磁盘段
+     */
+    Iterable<AnalyzedDoc> docs() {
+        return docs.values();
+    }
+
+    /**
+     * 全部倒排数据，供写入磁盘段
+     */
+    Map<String, Map<Long, int[]>> postingsMap() {
+        return postings;
+    }
+
+    @Override
+    public int docCount() {
+        return docs.size();
+    }
+
+    @Override
+    public long totalLength() {
+        return totalLength;
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return docs.containsKey(id);
+    }
+
+    @Override
+    public Postings postings(String term) {
+        Map<Long, int[]> posting = postings.get(term);
+        if (posting == null) {
+            return null;
+        }
+        return new Postings() {
+            @Override
+            public int size() {
+                return posting.size();
+            }
+
+            @Override
+            public void forEachId(LongConsumer consumer) {
+                posting.keySet().forEach(consumer::accept);
+            }
+
+            @Override
+            public int[] positions(long id) {
+                return posting.get(id);
+            }
+        };
+    }
+
+    @Override
+    public DocMeta meta(long id) {
+        AnalyzedDoc doc = docs.get(id);
+        return doc == null ? null : new DocMeta(doc.titleEnd(), doc.length(), doc.document().publishedAt());
+    }
+
+    @Override
+    public SearchDocument document(long id) {
+        AnalyzedDoc doc = docs.get(id);
+        return doc == null ? null : doc.document();
+    }
+
+    @Override
+    public void forEachDocument(Consumer<SearchDocument> consumer) {
+        docs.values().forEach(doc -> consumer.accept(doc.document()));
+    }
+
+    @Override
+    public void forEachTerm(ObjIntConsumer<String> consumer) {
+        postings.forEach((term, posting) -> consumer.accept(term, posting.size()));
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
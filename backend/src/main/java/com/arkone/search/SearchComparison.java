@@ -0,0 +1,153 @@
+package com.arkone.search;
+
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.ContentType;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 全文索引、进程内索引与LIKE查询的对比
+ * <p>
+ * 对同一关键词分别执行LIKE查询、ngram全文索引查询与进程内倒排索引（{@link SearchIndex}）查询各若干轮，
+ * 报告耗时中位数与最大值，以及前limit条结果相对LIKE的重合度，用于切换 {@code arkone.search.mode} 前评估召回差异。
+ * 直接调用Mapper与索引，不受当前搜索模式影响，也不经过缓存；进程内索引尚未就绪时该项按无结果计。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchComparison {
+
+    private final ArticleMapper articleMapper;
+    private final AiNewsMapper aiNewsMapper;
+    private final SearchIndex articleSearchIndex;
+    private final SearchIndex aiNewsSearchIndex;
+
+    /**
+     * 单个关键词在一类内容上的对比结果
+     *
+     * @param keyword          关键词
+     * @param type             内容类型
+     * @param likeTotal        LIKE查询命中总数
+     * @param fulltextTotal    全文索引命中总数
+     * @param likeMedianMs     LIKE查询耗时中位数（毫秒）
+     * @param likeMaxMs        LIKE查询最大耗时（毫秒）
+     * @param fulltextMedianMs 全文索引耗时中位数（毫秒）
+     * @param fulltextMaxMs    全文索引最大耗时（毫秒）
+     * @param recall           LIKE前limit条结果中同样出现在全文索引前limit条结果中的比例
+     * @param jaccard          LIKE与全文索引前limit条结果ID集合的Jaccard系数
+     * @param memoryTotal      进程内索引命中总数
+     * @param memoryMedianMs   进程内索引耗时中位数（毫秒）
+     * @param memoryMaxMs      进程内索引最大耗时（毫秒）
+     * @param memoryRecall     LIKE前limit条结果中同样出现在进程内索引前limit条结果中的比例
+     * @param memoryJaccard    LIKE与进程内索引前limit条结果ID集合的Jaccard系数
+     */
+    public record Report(String keyword, String type, long likeTotal, long fulltextTotal,
+                         double likeMedianMs, double likeMaxMs, double fulltextMedianMs, double fulltextMaxMs,
+                         double recall, double jaccard, long memoryTotal, double memoryMedianMs, double memoryMaxMs,
+                         double memoryRecall, double memoryJaccard) {
+    }
+
+    /**
+     * 对每个关键词分别对比文章与AI新闻
+     */
+    public List<Report> compare(List<String> keywords, int limit, int rounds) {
+        List<Report> reports = new ArrayList<>();
+        for (String keyword : keywords) {
+            SearchQuery query = SearchQuery.parse(keyword);
+            String booleanQuery = query.toBooleanMode();
+            reports.add(compare(keyword, ContentType.ARTICLE, rounds,
+                    () -> ids(articleMapper.searchArticles(new Page<>(1, limit), keyword), Article::getId),
+                    () -> booleanQuery.isEmpty() ? Hits.EMPTY
+                            : ids(articleMapper.searchArticlesFulltext(new Page<>(1, limit), booleanQuery), Article::getId),
+                    () -> ids(articleSearchIndex, query, limit)));
+            reports.add(compare(keyword, ContentType.NEWS, rounds,
+                    () -> ids(aiNewsMapper.searchNews(new Page<>(1, limit), keyword), AiNews::getId),
+                    () -> booleanQuery.isEmpty() ? Hits.EMPTY
+                            : ids(aiNewsMapper.searchNewsFulltext(new Page<>(1, limit), booleanQuery), AiNews::getId),
+                    () -> ids(aiNewsSearchIndex, query, limit)));
+        }
+        return reports;
+    }
+
+    private Report compare(String keyword, ContentType type, int rounds, Supplier<Hits> like, Supplier<Hits> fulltext,
+                           Supplier<Hits> memory) {
+        int times = Math.max(rounds, 1);
+        double[] likeMs = new double[times];
+        double[] fulltextMs = new double[times];
+        double[] memoryMs = new double[times];
+        Hits likeResult = null;
+        Hits fulltextResult = null;
+        Hits memoryResult = null;
+        // 交替执行，避免缓冲池预热只偏向其中一方
+        for (int i = 0; i < times; i++) {
+            long start = System.nanoTime();
+            likeResult = like.get();
+            likeMs[i] = (System.nanoTime() - start) / 1_000_000.0;
+            start = System.nanoTime();
+            fulltextResult = fulltext.get();
+            fulltextMs[i] = (System.nanoTime() - start) / 1_000_000.0;
+            start = System.nanoTime();
+            memoryResult = memory.get();
+            memoryMs[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(likeMs);
+        Arrays.sort(fulltextMs);
+        Arrays.sort(memoryMs);
+        return new Report(keyword, type.getCode(), likeResult.total(), fulltextResult.total(),
+                likeMs[times / 2], likeMs[times - 1], fulltextMs[times / 2], fulltextMs[times - 1],
+                recall(likeResult, fulltextResult), jaccard(likeResult, fulltextResult),
+                memoryResult.total(), memoryMs[times / 2], memoryMs[times - 1],
+                recall(likeResult, memoryResult), jaccard(likeResult, memoryResult));
+    }
+
+    /**
+     * 基准结果中同样出现在对比结果中的比例
+     */
+    private static double recall(Hits baseline, Hits other) {
+        if (baseline.ids().isEmpty()) {
+            return 1;
+        }
+        Set<Long> intersection = new HashSet<>(baseline.ids());
+        intersection.retainAll(other.ids());
+        return (double) intersection.size() / baseline.ids().size();
+    }
+
+    private static double jaccard(Hits a, Hits b) {
+        Set<Long> intersection = new HashSet<>(a.ids());
+        intersection.retainAll(b.ids());
+        Set<Long> union = new HashSet<>(a.ids());
+        union.addAll(b.ids());
+        return union.isEmpty() ? 1 : (double) intersection.size() / union.size();
+    }
+
+    private static Hits ids(SearchIndex index, SearchQuery query, int limit) {
+        if (!index.isReady()) {
+            return Hits.EMPTY;
+        }
+        SearchResult result = index.search(query, 0, limit);
+        return new Hits(result.total(), result.hits().stream().map(SearchHit::id).toList());
+    }
+
+    private static <T> Hits ids(IPage<T> page, Function<T, Long> id) {
+        return new Hits(page.getTotal(), page.getRecords().stream().map(id).toList());
+    }
+
+    private record Hits(long total, List<Long> ids) {
+        static final Hits EMPTY = new Hits(0, List.of());
+    }
+}
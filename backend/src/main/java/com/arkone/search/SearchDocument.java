@@ -0,0 +1,40 @@
+package com.arkone.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+/**
+ * 待索引的文档
+ *
+ * @param id          内容ID
+ * @param title       标题
+ * @param summary     摘要
+ * @param content     正文纯文本
+ * @param publishedAt 发布时间，相关度相同时较新的排在前面
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public record SearchDocument(Long id, String title, String summary, String content, LocalDateTime publishedAt) {
+
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public SearchDocument {
+        title = title != null ? title : "";
+        summary = summary != null ? summary : "";
+        content = content != null ? content : "";
+    }
+
+    /**
+     * 富文本转纯文本：去除标签、反转义实体并合并空白
+     */
+    public static String plainText(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String text = HtmlUtils.htmlUnescape(TAG.matcher(html).replaceAll(" "));
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+}
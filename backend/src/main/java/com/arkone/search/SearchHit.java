@@ -0,0 +1,14 @@
+package com.arkone.search;
+
+/**
+ * 搜索命中
+ *
+ * @param id      内容ID
+ * @param score   相关度（BM25）
+ * @param title   高亮后的标题（已转义HTML）
+ * @param snippet 高亮后的正文片段（已转义HTML）
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public record SearchHit(Long id, double score, String title, String snippet) {
+}
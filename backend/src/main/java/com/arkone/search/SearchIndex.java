@@ -0,0 +1,871 @@
+package com.arkone.search;
+
+import com.arkone.util.PendingChanges;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 进程内倒排索引
+ * <p>
+ * 由若干不可变的磁盘段（内存映射）和一个接收增量写入的内存段组成，支持AND/OR/排除及短语查询，
+ * 按BM25排序，标题命中加权。同一文档只在一个段中可见：更新或删除时在旧段的删除集合中屏蔽旧版本，
+ * 新版本写入内存段。内存段定期写成新的磁盘段（flush），磁盘段数超过上限时在后台合并为一个；
+ * 每次flush后原子替换清单文件（段列表、各段删除集合、水位），重启时只需映射清单中的段即可提供查询，
+ * 再从水位起追平数据库中的变更。全量重建在锁外构建并写出新段后整体替换，构建期间的增量变更在替换后重放。
+ * <p>
+ * 查询无结果时按拼写纠错词典（{@link TermDictionary}）替换拼错的英文词项后重试，命中时连同纠正后的查询串一并返回。
+ * 词典由各段词表生成，索引变化后通过 {@link #refreshDictionary()} 重新生成。
+ * <p>
+ * 未指定目录时只在内存中维护，不落盘。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+public class SearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    /**
+     * 标题中的词频按该倍数计入
+     */
+    private static final int TITLE_BOOST = 3;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private static final String MANIFEST = "manifest.properties";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    @Getter
+    private final String name;
+    /**
+     * 段文件目录，为null时不落盘
+     */
+    private final Path directory;
+    /**
+     * 磁盘段数超过该值时合并
+     */
+    private final int maxSegments;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * 串行化flush、合并与重建替换
+     */
+    private final ReentrantLock maintenance = new ReentrantLock();
+
+    /**
+     * 不可变段，按新旧顺序排列；替换时整体换成新列表
+     */
+    private List<Part> parts = List.of();
+    private MutableSegment mutable = new MutableSegment();
+    /**
+     * 全量重建期间的增量变更
+     */
+    private final PendingChanges<SearchDocument> pending = new PendingChanges<>();
+    /**
+     * 水位：更新时间早于该时刻的数据库变更均已反映在索引中
+     */
+    private LocalDateTime watermark;
+    /**
+     * 已写入清单的水位：对应的变更均已在磁盘段中。水位可能在flush之后推进（内存段中的变更尚未落盘），
+     * 合并只重写磁盘段，清单沿用该水位；持有maintenance时读写
+     */
+    private LocalDateTime flushedWatermark;
+    /**
+     * 上次写出清单后是否有新的变更
+     */
+    private boolean dirty;
+    private long lastFlushAt = System.nanoTime();
+    private long generation;
+    private volatile boolean ready;
+    /**
+     * 索引内容的变更次数，用于判断纠错词典是否过期
+     */
+    private long version;
+    private long dictionaryVersion = -1;
+    private volatile TermDictionary dictionary = TermDictionary.EMPTY;
+
+    public SearchIndex(String name) {
+        this(name, null, 1);
+    }
+
+    public SearchIndex(String name, Path directory, int maxSegments) {
+        this.name = name;
+        this.directory = directory;
+        this.maxSegments = Math.max(maxSegments, 1);
+    }
+
+    /**
+     * 索引是否可以提供查询（已从磁盘加载或首次全量构建已完成）
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 已索引的文档数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = mutable.docCount();
+            for (Part part : parts) {
+                size += part.segment().docCount() - part.deleted().size();
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 当前水位，尚未加载或构建时为null
+     */
+    public LocalDateTime getWatermark() {
+        lock.readLock().lock();
+        try {
+            return watermark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 推进水位，调用方须保证更新时间早于该时刻的变更均已同步
+     */
+    public void advanceWatermark(LocalDateTime value) {
+        lock.writeLock().lock();
+        try {
+            if (watermark == null || value.isAfter(watermark)) {
+                watermark = value;
+                dirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或替换文档，内容未变化时不做任何改动
+     */
+    public void upsert(SearchDocument document) {
+        lock.readLock().lock();
+        try {
+            if (!pending.isActive() && document.equals(visibleDocument(document.id()))) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        MutableSegment.AnalyzedDoc analyzed = MutableSegment.analyze(document);
+        lock.writeLock().lock();
+        try {
+            mask(document.id());
+            mutable.add(analyzed);
+            dirty = true;
+            version++;
+            pending.record(document.id(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除文档
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (mask(id) || mutable.contains(id)) {
+                mutable.remove(id);
+                dirty = true;
+                version++;
+            }
+            pending.record(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 开始全量重建；在返回的对象上逐个添加文档，最后调用 {@link Rebuild#commit()} 替换当前索引
+     *
+     * @param watermark 重建开始前的时刻，替换后作为新的水位
+     */
+    public Rebuild startRebuild(LocalDateTime watermark) {
+        lock.writeLock().lock();
+        try {
+            pending.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new Rebuild(watermark);
+    }
+
+    /**
+     * 执行查询，返回按相关度排序的一页结果；无结果时尝试纠正拼写后重试，纠正后有结果则返回纠正后的结果及查询串
+     */
+    public SearchResult search(SearchQuery query, int offset, int limit) {
+        SearchResult result = match(query, offset, limit);
+        if (result.total() > 0 || query.isEmpty()) {
+            return result;
+        }
+        String suggestion = suggest(query.raw());
+        if (suggestion == null) {
+            return result;
+        }
+        SearchResult corrected = match(SearchQuery.parse(suggestion), offset, limit);
+        return corrected.total() > 0 ? new SearchResult(corrected.total(), corrected.hits(), suggestion) : result;
+    }
+
+    /**
+     * 把查询串中不在词典内的英文词项替换为编辑距离最小、文档频率最高的词项；没有可纠正的词项时返回null
+     */
+    public String suggest(String raw) {
+        TermDictionary current = dictionary;
+        if (current.size() == 0 || raw == null) {
+            return null;
+        }
+        StringBuilder corrected = new StringBuilder(raw);
+        boolean changed = false;
+        List<Tokenizer.Token> tokens = Tokenizer.tokenizeForQuery(raw);
+        // 从后向前替换，前面词项的下标不受影响
+        for (int i = tokens.size() - 1; i >= 0; i--) {
+            Tokenizer.Token token = tokens.get(i);
+            String term = token.term();
+            if (!TermDictionary.isEligible(term) || current.frequency(term) > 0) {
+                continue;
+            }
+            List<TermDictionary.Correction> corrections =
+                    current.corrections(term, TermDictionary.maxDistance(term), 1);
+            if (!corrections.isEmpty()) {
+                corrected.replace(token.start(), token.end(), corrections.get(0).term());
+                changed = true;
+            }
+        }
+        return changed ? corrected.toString() : null;
+    }
+
+    /**
+     * 索引内容变化后重新生成纠错词典，未变化时直接返回
+     */
+    public void refreshDictionary() {
+        Map<String, Integer> frequencies = new HashMap<>();
+        long builtVersion;
+        lock.readLock().lock();
+        try {
+            if (version == dictionaryVersion) {
+                return;
+            }
+            builtVersion = version;
+            for (Part part : visibleParts()) {
+                part.segment().forEachTerm((term, frequency) -> {
+                    if (TermDictionary.isEligible(term)) {
+                        frequencies.merge(term, frequency, Integer::sum);
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long startedAt = System.currentTimeMillis();
+        TermDictionary built = TermDictionary.build(frequencies);
+        lock.writeLock().lock();
+        try {
+            dictionary = built;
+            dictionaryVersion = builtVersion;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("纠错词典已更新[{}]，词项数: {}, 耗时: {}ms", name, built.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private SearchResult match(SearchQuery query, int offset, int limit) {
+        if (query.isEmpty()) {
+            return SearchResult.empty();
+        }
+        List<SearchHit> hits;
+        int total;
+        lock.readLock().lock();
+        try {
+            List<Part> visible = visibleParts();
+            Map<Long, Part> matched = null;
+            for (List<SearchQuery.Clause> group : query.groups()) {
+                Map<Long, Part> groupMatched = new HashMap<>();
+                for (SearchQuery.Clause clause : group) {
+                    for (Part part : visible) {
+                        part.match(clause, groupMatched);
+                    }
+                }
+                if (matched == null) {
+                    matched = groupMatched;
+                } else {
+                    matched.keySet().retainAll(groupMatched.keySet());
+                }
+                if (matched.isEmpty()) {
+                    return SearchResult.empty();
+                }
+            }
+            for (SearchQuery.Clause clause : query.excluded()) {
+                Map<Long, Part> excluded = new HashMap<>();
+                for (Part part : visible) {
+                    part.match(clause, excluded);
+                }
+                matched.keySet().removeAll(excluded.keySet());
+            }
+            List<Scored> ranked = rank(visible, matched, query.positiveTerms());
+            total = ranked.size();
+            List<String> highlights = query.highlightTexts();
+            hits = new ArrayList<>(Math.max(Math.min(limit, total - offset), 0));
+            for (int i = offset; i < total && i < offset + limit; i++) {
+                Scored scored = ranked.get(i);
+                SearchDocument document = scored.part().segment().document(scored.id());
+                String body = document.content().isEmpty() ? document.summary() : document.content();
+                hits.add(new SearchHit(document.id(), scored.score(),
+                        Highlighter.highlight(document.title(), highlights),
+                        Highlighter.snippet(body, highlights, SNIPPET_LENGTH)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SearchResult(total, hits);
+    }
+
+    /**
+     * 从目录加载清单中的段；清单不存在或损坏时返回false，调用方应执行全量重建
+     */
+    public boolean open() {
+        if (directory == null) {
+            return false;
+        }
+        maintenance.lock();
+        try {
+            Path manifestPath = directory.resolve(MANIFEST);
+            if (!Files.exists(manifestPath)) {
+                return false;
+            }
+            Properties manifest = new Properties();
+            try (Reader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            }
+            List<Part> loaded = new ArrayList<>();
+            for (String file : split(manifest.getProperty("segments", ""))) {
+                MappedSegment segment = MappedSegment.open(directory.resolve(file));
+                Set<Long> deleted = new HashSet<>();
+                for (String id : split(manifest.getProperty("deleted." + file, ""))) {
+                    deleted.add(Long.valueOf(id));
+                }
+                loaded.add(new Part(segment, deleted));
+                generation = Math.max(generation, generationOf(file));
+            }
+            String value = manifest.getProperty("watermark");
+            lock.writeLock().lock();
+            try {
+                parts = List.copyOf(loaded);
+                mutable = new MutableSegment();
+                watermark = value == null ? null : LocalDateTime.parse(value);
+                flushedWatermark = watermark;
+                dirty = false;
+                ready = true;
+                version++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            deleteUnreferenced();
+            log.info("搜索索引已加载[{}]，段数: {}, 文档数: {}, 水位: {}", name, loaded.size(), size(), watermark);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("加载搜索索引失败[{}]，需全量重建", name, e);
+            return false;
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    /**
+     * 内存段文档数达到minDocs，或有未落盘的变更且距上次flush超过maxAge时执行flush
+     */
+    public void flushIfNeeded(int minDocs, Duration maxAge) throws IOException {
+        boolean needed;
+        lock.readLock().lock();
+        try {
+            needed = ready && (mutable.docCount() >= minDocs
+                    || dirty && System.nanoTime() - lastFlushAt >= maxAge.toNanos());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (needed) {
+            flush();
+        }
+    }
+
+    /**
+     * 把内存段写成新的磁盘段并更新清单；写出期间内存段冻结为只读，新的写入进入新的内存段
+     */
+    public void flush() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        maintenance.lock();
+        try {
+            Part frozen = null;
+            LocalDateTime frozenWatermark;
+            lock.writeLock().lock();
+            try {
+                if (!ready || !dirty) {
+                    return;
+                }
+                // 与冻结内存段同时读取，水位覆盖的变更都在冻结的内存段或更早的段中
+                frozenWatermark = watermark;
+                if (mutable.docCount() > 0) {
+                    frozen = new Part(mutable, new HashSet<>());
+                    parts = append(parts, frozen);
+                    mutable = new MutableSegment();
+                }
+                dirty = false;
+                lastFlushAt = System.nanoTime();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (frozen != null) {
+                try {
+                    MappedSegment written = writeSegment((MutableSegment) frozen.segment());
+                    replace(List.of(frozen), new Part(written, new HashSet<>()), Map.of(frozen, Set.of()));
+                } catch (IOException | RuntimeException e) {
+                    thaw(frozen);
+                    throw e;
+                }
+            }
+            writeManifest(frozenWatermark);
+            flushedWatermark = frozenWatermark;
+            mergeIfNeeded();
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    /**
+     * 磁盘段超过上限时合并全部磁盘段，丢弃已屏蔽的文档
+     */
+    private void mergeIfNeeded() throws IOException {
+        List<Part> sources;
+        Map<Part, Set<Long>> deletedAtStart = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (parts.size() <= maxSegments) {
+                return;
+            }
+            sources = parts;
+            sources.forEach(part -> deletedAtStart.put(part, Set.copyOf(part.deleted())));
+        } finally {
+            lock.readLock().unlock();
+        }
+        long startedAt = System.currentTimeMillis();
+        MutableSegment merged = new MutableSegment();
+        for (Part part : sources) {
+            merged.copyFrom(part.segment(), deletedAtStart.get(part));
+        }
+        MappedSegment written = writeSegment(merged);
+        replace(sources, new Part(written, new HashSet<>()), deletedAtStart);
+        // 当前水位可能已覆盖尚在内存段中的变更，清单只能写上次落盘的水位
+        writeManifest(flushedWatermark);
+        log.info("搜索索引段合并完成[{}]，合并段数: {}, 文档数: {}, 耗时: {}ms",
+                name, sources.size(), written.docCount(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 全量重建
+     */
+    public final class Rebuild {
+
+        private final MutableSegment building = new MutableSegment();
+        private final LocalDateTime rebuildWatermark;
+
+        private Rebuild(LocalDateTime rebuildWatermark) {
+            this.rebuildWatermark = rebuildWatermark;
+        }
+
+        public void add(SearchDocument document) {
+            building.add(MutableSegment.analyze(document));
+        }
+
+        /**
+         * 写出新段并替换当前索引，再重放构建期间的增量变更
+         */
+        public void commit() throws IOException {
+            maintenance.lock();
+            try {
+                Segment segment = directory == null ? building : writeSegment(building);
+                lock.writeLock().lock();
+                try {
+                    Part part = new Part(segment, new HashSet<>());
+                    MutableSegment replay = new MutableSegment();
+                    pending.replay((id, document) -> {
+                        if (segment.contains(id)) {
+                            part.deleted().add(id);
+                        }
+                        if (document != null) {
+                            replay.add(MutableSegment.analyze(document));
+                        }
+                    });
+                    parts = List.of(part);
+                    mutable = replay;
+                    watermark = rebuildWatermark;
+                    dirty = true;
+                    ready = true;
+                    version++;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (directory != null) {
+                    writeManifest(rebuildWatermark);
+                    flushedWatermark = rebuildWatermark;
+                }
+            } catch (IOException | RuntimeException e) {
+                abort();
+                throw e;
+            } finally {
+                maintenance.unlock();
+            }
+        }
+
+        /**
+         * 放弃重建，保留当前索引
+         */
+        public void abort() {
+            lock.writeLock().lock();
+            try {
+                pending.discard();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 在各不可变段中屏蔽文档的旧版本，返回是否有段包含该文档；调用方持有写锁
+     */
+    private boolean mask(long id) {
+        boolean masked = false;
+        for (Part part : parts) {
+            if (part.segment().contains(id)) {
+                part.deleted().add(id);
+                masked = true;
+            }
+        }
+        return masked;
+    }
+
+    private SearchDocument visibleDocument(long id) {
+        SearchDocument document = mutable.document(id);
+        if (document != null) {
+            return document;
+        }
+        for (Part part : parts) {
+            if (!part.deleted().contains(id) && part.segment().contains(id)) {
+                return part.segment().document(id);
+            }
+        }
+        return null;
+    }
+
+    private List<Part> visibleParts() {
+        List<Part> visible = new ArrayList<>(parts.size() + 1);
+        visible.addAll(parts);
+        visible.add(new Part(mutable, Set.of()));
+        return visible;
+    }
+
+    /**
+     * 用新段替换若干旧段；旧段在替换前新增的屏蔽转移到新段。旧段文件在写出新清单后删除
+     */
+    private void replace(List<Part> sources, Part target, Map<Part, Set<Long>> deletedAtStart) {
+        lock.writeLock().lock();
+        try {
+            List<Part> next = new ArrayList<>();
+            boolean inserted = false;
+            for (Part part : parts) {
+                if (!sources.contains(part)) {
+                    next.add(part);
+                    continue;
+                }
+                for (Long id : part.deleted()) {
+                    if (!deletedAtStart.get(part).contains(id) && target.segment().contains(id)) {
+                        target.deleted().add(id);
+                    }
+                }
+                if (!inserted) {
+                    next.add(target);
+                    inserted = true;
+                }
+            }
+            parts = List.copyOf(next);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * flush失败时把冻结段中仍可见的文档放回内存段
+     */
+    private void thaw(Part frozen) {
+        lock.writeLock().lock();
+        try {
+            MutableSegment segment = (MutableSegment) frozen.segment();
+            for (MutableSegment.AnalyzedDoc doc : segment.docs()) {
+                long id = doc.document().id();
+                if (!frozen.deleted().contains(id) && !mutable.contains(id)) {
+                    mutable.add(doc);
+                }
+            }
+            List<Part> next = new ArrayList<>(parts);
+            next.remove(frozen);
+            parts = List.copyOf(next);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private MappedSegment writeSegment(MutableSegment segment) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(SEGMENT_PREFIX + (++generation) + SEGMENT_SUFFIX);
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        MappedSegment.write(temp, segment);
+        move(temp, target);
+        return MappedSegment.open(target);
+    }
+
+    /**
+     * 原子替换清单：段列表、各段删除集合与水位
+     */
+    private void writeManifest(LocalDateTime manifestWatermark) throws IOException {
+        Properties manifest = new Properties();
+        lock.readLock().lock();
+        try {
+            List<String> files = new ArrayList<>();
+            for (Part part : parts) {
+                if (!(part.segment() instanceof MappedSegment mapped)) {
+                    continue;
+                }
+                String file = mapped.path().getFileName().toString();
+                files.add(file);
+                if (!part.deleted().isEmpty()) {
+                    manifest.setProperty("deleted." + file,
+                            part.deleted().stream().map(String::valueOf).collect(Collectors.joining(",")));
+                }
+            }
+            manifest.setProperty("segments", String.join(",", files));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (manifestWatermark != null) {
+            manifest.setProperty("watermark", manifestWatermark.toString());
+        }
+        Files.createDirectories(directory);
+        Path target = directory.resolve(MANIFEST);
+        Path temp = target.resolveSibling(MANIFEST + TEMP_SUFFIX);
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            manifest.store(writer, "search index " + name);
+        }
+        move(temp, target);
+        deleteUnreferenced();
+    }
+
+    /**
+     * 删除清单未引用的段文件及残留的临时文件
+     */
+    private void deleteUnreferenced() throws IOException {
+        Set<Path> referenced = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Part part : parts) {
+                if (part.segment() instanceof MappedSegment mapped) {
+                    referenced.add(mapped.path());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!referenced.contains(file)) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除搜索索引文件失败: {}", file, e);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(item -> !item.isEmpty()).toList();
+    }
+
+    private static long generationOf(String file) {
+        try {
+            return Long.parseLong(file.substring(SEGMENT_PREFIX.length(), file.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return 0L;
+        }
+    }
+
+    private static List<Part> append(List<Part> list, Part part) {
+        List<Part> next = new ArrayList<>(list);
+        next.add(part);
+        return List.copyOf(next);
+    }
+
+    /**
+     * BM25排序，相关度相同时按发布时间倒序。文档数、平均长度与文档频率按各段合计（含已屏蔽的旧版本），
+     * 与逐段精确统计相比只有轻微偏差，合并后消失
+     */
+    private static List<Scored> rank(List<Part> visible, Map<Long, Part> ids, Set<String> terms) {
+        long docCount = 0;
+        long totalLength = 0;
+        for (Part part : visible) {
+            docCount += part.segment().docCount();
+            totalLength += part.segment().totalLength();
+        }
+        double avgLength = docCount == 0 ? 1 : (double) totalLength / docCount;
+        Map<String, Double> idf = new HashMap<>();
+        Map<Part, Map<String, Segment.Postings>> postings = new HashMap<>();
+        for (String term : terms) {
+            int df = 0;
+            for (Part part : visible) {
+                Segment.Postings posting = part.segment().postings(term);
+                postings.computeIfAbsent(part, key -> new HashMap<>()).put(term, posting);
+                df += posting == null ? 0 : posting.size();
+            }
+            idf.put(term, Math.log(1 + (docCount - df + 0.5) / (df + 0.5)));
+        }
+        List<Scored> ranked = new ArrayList<>(ids.size());
+        ids.forEach((id, part) -> {
+            Segment.DocMeta meta = part.segment().meta(id);
+            double norm = K1 * (1 - B + B * meta.length() / avgLength);
+            double score = 0;
+            for (String term : terms) {
+                Segment.Postings posting = postings.get(part).get(term);
+                int[] positions = posting == null ? null : posting.positions(id);
+                if (positions == null) {
+                    continue;
+                }
+                int titleCount = 0;
+                while (titleCount < positions.length && positions[titleCount] < meta.titleEnd()) {
+                    titleCount++;
+                }
+                double tf = positions.length + (TITLE_BOOST - 1) * titleCount;
+                score += idf.get(term) * tf * (K1 + 1) / (tf + norm);
+            }
+            ranked.add(new Scored(id, part, meta.publishedAt(), score));
+        });
+        ranked.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(Scored::publishedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(Scored::id, Comparator.reverseOrder()));
+        return ranked;
+    }
+
+    /**
+     * 不可变段及其删除集合；删除集合只包含段内存在的ID，由读写锁保护
+     */
+    private record Part(Segment segment, Set<Long> deleted) {
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        /**
+         * 子句在本段命中的可见文档：所有词项均出现，且多词项时按偏移连续出现
+         */
+        void match(SearchQuery.Clause clause, Map<Long, Part> result) {
+            List<String> terms = clause.terms();
+            List<Segment.Postings> lists = new ArrayList<>(terms.size());
+            Segment.Postings smallest = null;
+            for (String term : terms) {
+                Segment.Postings posting = segment.postings(term);
+                if (posting == null) {
+                    return;
+                }
+                lists.add(posting);
+                if (smallest == null || posting.size() < smallest.size()) {
+                    smallest = posting;
+                }
+            }
+            smallest.forEachId(id -> {
+                if (!deleted.contains(id) && containsPhrase(lists, clause.offsets(), id)) {
+                    result.put(id, this);
+                }
+            });
+        }
+
+        private static boolean containsPhrase(List<Segment.Postings> lists, int[] offsets, long id) {
+            int[][] positions = new int[lists.size()][];
+            for (int i = 0; i < lists.size(); i++) {
+                positions[i] = lists.get(i).positions(id);
+                if (positions[i] == null) {
+                    return false;
+                }
+            }
+            if (positions.length == 1) {
+                return true;
+            }
+            outer:
+            for (int start : positions[0]) {
+                for (int i = 1; i < positions.length; i++) {
+                    if (Arrays.binarySearch(positions[i], start + offsets[i]) < 0) {
+                        continue outer;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private record Scored(long id, Part part, LocalDateTime publishedAt, double score) {
+    }
+}
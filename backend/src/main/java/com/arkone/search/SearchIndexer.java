@@ -0,0 +1,284 @@
+package com.arkone.search;
+
+import com.arkone.config.SchedulingConfig;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.arkone.util.KeysetScan;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 全文搜索索引维护
+ * <p>
+ * 保存、更新、发布、下线、删除后由服务层在事务提交后调用增量同步，只索引已发布内容。
+ * 索引以段文件形式保存在本地磁盘：启动时直接映射上次落盘的段即可提供查询，再按水位从数据库读取
+ * 之后更新过的记录追平（含其他节点的写入和逻辑删除）；没有可用的段文件时全量构建，构建完成前搜索接口
+ * 回退到数据库LIKE查询。运行期间定时追平以兜底丢失的失效消息，定时把内存段写入磁盘，
+ * 并以较长间隔全量重建以清除物理删除等无法追平的变更。索引内容变化后定时重新生成拼写纠错词典。
+ * 搜索模式不是 {@link SearchMode#MEMORY} 时不构建索引，不占用堆内存。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndexer {
+
+    private final SearchIndex articleSearchIndex;
+    private final SearchIndex aiNewsSearchIndex;
+    private final ArticleMapper articleMapper;
+    private final AiNewsMapper aiNewsMapper;
+
+    @Value("${arkone.search.mode:memory}")
+    private SearchMode searchMode;
+
+    @Value("${arkone.search.batch-size:200}")
+    private int batchSize;
+
+    @Value("${arkone.search.watermark-margin:5m}")
+    private Duration watermarkMargin;
+
+    @Value("${arkone.search.segment.flush-docs:500}")
+    private int flushDocs;
+
+    @Value("${arkone.search.segment.max-age:10m}")
+    private Duration flushMaxAge;
+
+    /**
+     * 同步单篇文章，article为null（已删除）或未发布时从索引移除
+     */
+    public void syncArticle(Long id, Article article) {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        if (article != null && Article.ArticleStatus.PUBLISHED.equals(article.getStatus())) {
+            articleSearchIndex.upsert(toDocument(article));
+        } else {
+            articleSearchIndex.remove(id);
+        }
+    }
+
+    /**
+     * 同步单条新闻，aiNews为null（已删除）或未发布时从索引移除
+     */
+    public void syncAiNews(Long id, AiNews aiNews) {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        if (aiNews != null && AiNews.NewsStatus.PUBLISHED.equals(aiNews.getStatus())) {
+            aiNewsSearchIndex.upsert(toDocument(aiNews));
+        } else {
+            aiNewsSearchIndex.remove(id);
+        }
+    }
+
+    /**
+     * 映射上次落盘的段，成功后即可提供查询
+     */
+    @PostConstruct
+    public void open() {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        articleSearchIndex.open();
+        aiNewsSearchIndex.open();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        if (articleSearchIndex.isReady()) {
+            catchUpArticles();
+        } else {
+            rebuildArticles();
+        }
+        if (aiNewsSearchIndex.isReady()) {
+            catchUpAiNews();
+        } else {
+            rebuildAiNews();
+        }
+        refreshDictionaries();
+    }
+
+    /**
+     * 全量重建
+     */
+    @Scheduled(initialDelayString = "${arkone.search.rebuild-interval:86400000}",
+            fixedDelayString = "${arkone.search.rebuild-interval:86400000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public synchronized void rebuild() {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        rebuildArticles();
+        rebuildAiNews();
+    }
+
+    /**
+     * 从水位起追平数据库变更
+     */
+    @Scheduled(initialDelayString = "${arkone.search.catch-up-interval:300000}",
+            fixedDelayString = "${arkone.search.catch-up-interval:300000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public synchronized void catchUp() {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        catchUpArticles();
+        catchUpAiNews();
+    }
+
+    /**
+     * 内存段达到阈值时写入磁盘
+     */
+    @Scheduled(fixedDelayString = "${arkone.search.segment.flush-check-interval:60000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void flush() {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        for (SearchIndex index : List.of(articleSearchIndex, aiNewsSearchIndex)) {
+            try {
+                index.flushIfNeeded(flushDocs, flushMaxAge);
+            } catch (IOException | RuntimeException e) {
+                log.error("搜索索引落盘失败[{}]", index.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * 重新生成拼写纠错词典，索引未变化时跳过
+     */
+    @Scheduled(fixedDelayString = "${arkone.search.fuzzy.refresh-interval:60000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void refreshDictionaries() {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        for (SearchIndex index : List.of(articleSearchIndex, aiNewsSearchIndex)) {
+            try {
+                index.refreshDictionary();
+            } catch (RuntimeException e) {
+                log.error("拼写纠错词典生成失败[{}]", index.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * 正常关闭时把内存段写入磁盘，下次启动只需追平关闭之后的变更
+     */
+    @PreDestroy
+    public void close() {
+        if (searchMode != SearchMode.MEMORY) {
+            return;
+        }
+        for (SearchIndex index : List.of(articleSearchIndex, aiNewsSearchIndex)) {
+            try {
+                index.flush();
+            } catch (IOException | RuntimeException e) {
+                log.warn("关闭时搜索索引落盘失败[{}]，下次启动从上次水位追平", index.getName(), e);
+            }
+        }
+    }
+
+    private void catchUpArticles() {
+        LocalDateTime since = articleSearchIndex.getWatermark();
+        if (since == null) {
+            rebuildArticles();
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            long count = KeysetScan.forEachBatch((lastId, limit) -> articleMapper.selectChangedSince(since, lastId, limit),
+                    Article::getId, batchSize, batch -> batch.forEach(article ->
+                            syncArticle(article.getId(), isDeleted(article.getDeleted()) ? null : article)));
+            articleSearchIndex.advanceWatermark(startedAt.minus(watermarkMargin));
+            log.debug("文章搜索索引追平完成，变更记录数: {}", count);
+        } catch (Exception e) {
+            log.error("文章搜索索引追平失败", e);
+        }
+    }
+
+    private void catchUpAiNews() {
+        LocalDateTime since = aiNewsSearchIndex.getWatermark();
+        if (since == null) {
+            rebuildAiNews();
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            long count = KeysetScan.forEachBatch((lastId, limit) -> aiNewsMapper.selectChangedSince(since, lastId, limit),
+                    AiNews::getId, batchSize, batch -> batch.forEach(aiNews ->
+                            syncAiNews(aiNews.getId(), isDeleted(aiNews.getDeleted()) ? null : aiNews)));
+            aiNewsSearchIndex.advanceWatermark(startedAt.minus(watermarkMargin));
+            log.debug("AI新闻搜索索引追平完成，变更记录数: {}", count);
+        } catch (Exception e) {
+            log.error("AI新闻搜索索引追平失败", e);
+        }
+    }
+
+    private void rebuildArticles() {
+        long startedAt = System.currentTimeMillis();
+        SearchIndex.Rebuild rebuild = articleSearchIndex.startRebuild(LocalDateTime.now().minus(watermarkMargin));
+        try {
+            KeysetScan.forEachBatch(articleMapper, Article::getId,
+                    wrapper -> wrapper.eq(Article::getStatus, Article.ArticleStatus.PUBLISHED), batchSize,
+                    batch -> batch.forEach(article -> rebuild.add(toDocument(article))));
+            rebuild.commit();
+            log.info("文章搜索索引重建完成，文档数: {}, 耗时: {}ms",
+                    articleSearchIndex.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            rebuild.abort();
+            log.error("文章搜索索引重建失败", e);
+        }
+    }
+
+    private void rebuildAiNews() {
+        long startedAt = System.currentTimeMillis();
+        SearchIndex.Rebuild rebuild = aiNewsSearchIndex.startRebuild(LocalDateTime.now().minus(watermarkMargin));
+        try {
+            KeysetScan.forEachBatch(aiNewsMapper, AiNews::getId,
+                    wrapper -> wrapper.eq(AiNews::getStatus, AiNews.NewsStatus.PUBLISHED), batchSize,
+                    batch -> batch.forEach(aiNews -> rebuild.add(toDocument(aiNews))));
+            rebuild.commit();
+            log.info("AI新闻搜索索引重建完成，文档数: {}, 耗时: {}ms",
+                    aiNewsSearchIndex.size(), System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            rebuild.abort();
+            log.error("AI新闻搜索索引重建失败", e);
+        }
+    }
+
+    private static boolean isDeleted(Integer deleted) {
+        return deleted != null && deleted != 0;
+    }
+
+    private static SearchDocument toDocument(Article article) {
+        return new SearchDocument(article.getId(), article.getTitle(), article.getSummary(),
+                SearchDocument.plainText(article.getContent()),
+                article.getPublishTime() != null ? article.getPublishTime() : article.getCreatedAt());
+    }
+
+    private static SearchDocument toDocument(AiNews aiNews) {
+        return new SearchDocument(aiNews.getId(), aiNews.getTitle(), aiNews.getSummary(),
+                SearchDocument.plainText(aiNews.getContent()),
+                aiNews.getPublishedAt() != null ? aiNews.getPublishedAt() : aiNews.getCreatedAt());
+    }
+}
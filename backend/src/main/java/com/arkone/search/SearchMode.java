@@ -0,0 +1,29 @@
+package com.arkone.search;
+
+/**
+ * 搜索实现方式，由 {@code arkone.search.mode} 选择
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public enum SearchMode {
+    MEMORY("memory", "进程内倒排索引"),
+    FULLTEXT("fulltext", "MySQL ngram全文索引"),
+    LIKE("like", "数据库LIKE查询");
+
+    private final String code;
+    private final String description;
+
+    SearchMode(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,157 @@
+package com.arkone.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 搜索查询
+ * <p>
+ * 语法：空白分隔的子句默认为AND；{@code OR}（或 {@code |}）连接的子句任一命中即可；
+ * 双引号包裹的内容为短语；前缀 {@code -} 表示排除。每个子句分词后要求词项按相对位置连续出现，
+ * 因此不加引号的中文词同样按短语匹配。
+ *
+ * @param groups   必须全部命中的子句组，组内子句为OR关系
+ * @param excluded 排除的子句
+ * @param raw      原始查询串
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public record SearchQuery(List<List<Clause>> groups, List<Clause> excluded, String raw) {
+
+    /**
+     * 子句：一组按相对位置连续出现的词项
+     *
+     * @param terms   词项
+     * @param offsets 各词项相对第一个词项的位置偏移
+     * @param text    子句原文，用于高亮
+     */
+    public record Clause(List<String> terms, int[] offsets, String text) {
+    }
+
+    /**
+     * 解析查询串
+     */
+    public static SearchQuery parse(String input) {
+        List<List<Clause>> groups = new ArrayList<>();
+        List<Clause> excluded = new ArrayList<>();
+        if (input == null) {
+            return new SearchQuery(groups, excluded, "");
+        }
+        boolean joinWithPrevious = false;
+        int i = 0;
+        int length = input.length();
+        while (i < length) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            boolean negated = false;
+            if (c == '-' && i + 1 < length && !Character.isWhitespace(input.charAt(i + 1))) {
+                negated = true;
+                i++;
+            }
+            String text;
+            if (i < length && input.charAt(i) == '"') {
+                int close = input.indexOf('"', i + 1);
+                int end = close < 0 ? length : close;
+                text = input.substring(i + 1, end);
+                i = close < 0 ? length : close + 1;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(input.charAt(i))) {
+                    i++;
+                }
+                text = input.substring(start, i);
+            }
+            if (!negated && ("OR".equals(text) || "|".equals(text))) {
+                joinWithPrevious = !groups.isEmpty();
+                continue;
+            }
+            Clause clause = toClause(text);
+            if (clause == null) {
+                continue;
+            }
+            if (negated) {
+                excluded.add(clause);
+            } else if (joinWithPrevious) {
+                groups.get(groups.size() - 1).add(clause);
+            } else {
+                List<Clause> group = new ArrayList<>();
+                group.add(clause);
+                groups.add(group);
+            }
+            joinWithPrevious = false;
+        }
+        return new SearchQuery(groups, excluded, input);
+    }
+
+    /**
+     * 查询是否包含至少一个必须命中的子句
+     */
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    /**
+     * 所有正向子句中的词项（去重），用于相关度计算
+     */
+    public Set<String> positiveTerms() {
+        Set<String> terms = new LinkedHashSet<>();
+        groups.forEach(group -> group.forEach(clause -> terms.addAll(clause.terms())));
+        return terms;
+    }
+
+    /**
+     * 所有正向子句的原文，用于高亮
+     */
+    public List<String> highlightTexts() {
+        List<String> texts = new ArrayList<>();
+        groups.forEach(group -> group.forEach(clause -> texts.add(clause.text())));
+        return texts;
+    }
+
+    /**
+     * 转换为MySQL全文索引 BOOLEAN MODE 查询串：每个子句作为短语，由ngram解析器切分后按相邻顺序匹配；
+     * 没有必须命中的子句时返回空串
+     */
+    public String toBooleanMode() {
+        if (groups.isEmpty()) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        for (List<Clause> group : groups) {
+            if (group.size() == 1) {
+                query.append('+').append(phrase(group.get(0))).append(' ');
+            } else {
+                query.append("+(");
+                group.forEach(clause -> query.append(phrase(clause)).append(' '));
+                query.setCharAt(query.length() - 1, ')');
+                query.append(' ');
+            }
+        }
+        excluded.forEach(clause -> query.append('-').append(phrase(clause)).append(' '));
+        return query.toString().trim();
+    }
+
+    private static String phrase(Clause clause) {
+        return '"' + clause.text().replace('"', ' ') + '"';
+    }
+
+    private static Clause toClause(String text) {
+        List<Tokenizer.Token> tokens = Tokenizer.tokenizeForQuery(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>(tokens.size());
+        int[] offsets = new int[tokens.size()];
+        int base = tokens.get(0).position();
+        for (int i = 0; i < tokens.size(); i++) {
+            terms.add(tokens.get(i).term());
+            offsets[i] = tokens.get(i).position() - base;
+        }
+        return new Clause(terms, offsets, text.trim());
+    }
+}
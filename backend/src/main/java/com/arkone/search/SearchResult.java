@@ -0,0 +1,23 @@
+package com.arkone.search;
+
+import java.util.List;
+
+/**
+ * 搜索结果
+ *
+ * @param total      命中总数
+ * @param hits       当前页命中，按相关度从高到低
+ * @param suggestion 原查询无结果时纠正拼写后的查询串，结果按该查询串返回；未纠正时为null
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public record SearchResult(long total, List<SearchHit> hits, String suggestion) {
+
+    public SearchResult(long total, List<SearchHit> hits) {
+        this(total, hits, null);
+    }
+
+    public static SearchResult empty() {
+        return new SearchResult(0, List.of());
+    }
+}
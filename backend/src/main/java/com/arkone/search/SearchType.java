@@ -0,0 +1,29 @@
+package com.arkone.search;
+
+/**
+ * 搜索结果的内容类型
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public enum SearchType {
+    ARTICLE("article", "文章"),
+    NEWS("news", "AI新闻"),
+    TAG("tag", "标签");
+
+    private final String code;
+    private final String description;
+
+    SearchType(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,77 @@
+package com.arkone.search;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 索引段：一组文档的倒排数据
+ * <p>
+ * 段内文档ID唯一；同一ID在多个段中出现时，由 {@link SearchIndex} 以删除集合屏蔽旧段中的版本。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+interface Segment {
+
+    /**
+     * 段内文档数（含已被屏蔽的）
+     */
+    int docCount();
+
+    /**
+     * 段内文档长度之和，用于BM25平均长度
+     */
+    long totalLength();
+
+    boolean contains(long id);
+
+    /**
+     * 词项的倒排列表，词项不存在时返回null
+     */
+    Postings postings(String term);
+
+    /**
+     * 文档的排序所需信息，文档不存在时返回null
+     */
+    DocMeta meta(long id);
+
+    /**
+     * 文档原文，用于高亮及合并
+     */
+    SearchDocument document(long id);
+
+    void forEachDocument(Consumer<SearchDocument> consumer);
+
+    /**
+     * 遍历词项及其文档频率（含已屏蔽的文档）
+     */
+    void forEachTerm(ObjIntConsumer<String> consumer);
+
+    /**
+     * @param titleEnd    标题在位置流中的结束位置
+     * @param length      文档长度（位置数）
+     * @param publishedAt 发布时间
+     */
+    record DocMeta(int titleEnd, int length, LocalDateTime publishedAt) {
+    }
+
+    /**
+     * 倒排列表
+     */
+    interface Postings {
+
+        /**
+         * 包含该词项的文档数
+         */
+        int size();
+
+        void forEachId(LongConsumer consumer);
+
+        /**
+         * 词项在文档中的位置（升序），文档不包含该词项时返回null
+         */
+        int[] positions(long id);
+    }
+}
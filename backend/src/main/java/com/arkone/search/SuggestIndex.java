@@ -0,0 +1,328 @@
+package com.arkone.search;
+
+import com.arkone.util.PendingChanges;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * 前缀联想索引
+ * <p>
+ * 字典树，每个候选以规范化后的全文及其中每个单词开头的后缀为键插入（键长截断到maxDepth），
+ * 每个节点缓存其子树中热度最高的topK个候选，查询只需沿前缀走到对应节点直接返回缓存。
+ * 增量更新只把受影响路径上的缓存标记为失效，下次查询时由子节点缓存合并重算；
+ * 全量重建在锁外构建并预先计算全部缓存后整体替换，构建期间的增量变更在替换后重放。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public class SuggestIndex {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry entry) -> entry.suggestion().score()).reversed()
+            .thenComparingInt(entry -> entry.normalized().length())
+            .thenComparing(entry -> entry.suggestion().id(), Comparator.reverseOrder());
+
+    private final int maxDepth;
+    private final int topK;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Trie trie;
+    /**
+     * 全量重建期间的增量变更
+     */
+    private final PendingChanges<Suggestion> pending = new PendingChanges<>();
+
+    public SuggestIndex(int maxDepth, int topK) {
+        this.maxDepth = maxDepth;
+        this.topK = topK;
+        this.trie = new Trie();
+    }
+
+    /**
+     * 新增或替换候选
+     */
+    public void upsert(Suggestion suggestion) {
+        Entry entry = toEntry(suggestion);
+        lock.writeLock().lock();
+        try {
+            trie.remove(suggestion.id());
+            if (entry != null) {
+                trie.add(entry);
+            }
+            pending.record(suggestion.id(), suggestion);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除候选
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            trie.remove(id);
+            pending.record(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 开始全量重建；在返回的对象上逐个添加候选，最后调用 {@link Rebuild#commit()} 替换当前索引
+     */
+    public Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            pending.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new Rebuild();
+    }
+
+    /**
+     * 按前缀返回热度最高的候选，limit不超过topK
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = trie.root;
+            for (int i = 0; i < key.length() && i < maxDepth; i++) {
+                node = node.children.get(key.charAt(i));
+                if (node == null) {
+                    return List.of();
+                }
+            }
+            List<Suggestion> result = new ArrayList<>(Math.min(limit, topK));
+            if (key.length() <= maxDepth) {
+                for (Entry entry : trie.top(node)) {
+                    if (result.size() == limit) {
+                        break;
+                    }
+                    result.add(entry.suggestion());
+                }
+                return result;
+            }
+            // 前缀超过键长上限，在子树中逐个比对完整键
+            List<Entry> matched = new ArrayList<>();
+            collect(node, key, matched, new HashSet<>());
+            matched.sort(RANKING);
+            matched.stream().limit(limit).forEach(entry -> result.add(entry.suggestion()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 规范化：兼容字符归一（全角转半角）、转小写、合并空白
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private void collect(Node node, String prefix, List<Entry> matched, Set<Long> seen) {
+        if (node.terminals != null) {
+            for (Entry entry : node.terminals) {
+                if (!seen.contains(entry.suggestion().id()) && entry.matches(prefix)) {
+                    seen.add(entry.suggestion().id());
+                    matched.add(entry);
+                }
+            }
+        }
+        node.children.values().forEach(child -> collect(child, prefix, matched, seen));
+    }
+
+    private Entry toEntry(Suggestion suggestion) {
+        String normalized = normalize(suggestion.text());
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return new Entry(suggestion, normalized, keys.toArray(new String[0]));
+    }
+
+    /**
+     * 全量重建
+     */
+    public final class Rebuild {
+
+        private final Trie building = new Trie();
+
+        public void add(Suggestion suggestion) {
+            Entry entry = toEntry(suggestion);
+            building.remove(suggestion.id());
+            if (entry != null) {
+                building.add(entry);
+            }
+        }
+
+        /**
+         * 替换当前索引，并重放构建期间的增量变更
+         */
+        public void commit() {
+            // 新索引尚未发布，在锁外预先计算全部节点的缓存
+            building.top(building.root);
+            lock.writeLock().lock();
+            try {
+                pending.replay((id, suggestion) -> {
+                    building.remove(id);
+                    Entry entry = suggestion != null ? toEntry(suggestion) : null;
+                    if (entry != null) {
+                        building.add(entry);
+                    }
+                });
+                trie = building;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 放弃重建，保留当前索引
+         */
+        public void abort() {
+            lock.writeLock().lock();
+            try {
+                pending.discard();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private final class Trie {
+
+        private final Node root = new Node();
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        void add(Entry entry) {
+            entries.put(entry.suggestion().id(), entry);
+            for (String key : entry.keys()) {
+                Node node = root;
+                node.top = null;
+                for (int i = 0; i < key.length() && i < maxDepth; i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                    node.top = null;
+                }
+                if (node.terminals == null) {
+                    node.terminals = new ArrayList<>(1);
+                }
+                node.terminals.add(entry);
+            }
+        }
+
+        void remove(Long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String key : entry.keys()) {
+                int depth = Math.min(key.length(), maxDepth);
+                Node[] path = new Node[depth + 1];
+                path[0] = root;
+                for (int i = 0; i < depth && path[i] != null; i++) {
+                    path[i + 1] = path[i].children.get(key.charAt(i));
+                }
+                if (path[depth] == null) {
+                    continue;
+                }
+                if (path[depth].terminals != null) {
+                    path[depth].terminals.removeIf(terminal -> terminal.suggestion().id().equals(id));
+                    if (path[depth].terminals.isEmpty()) {
+                        path[depth].terminals = null;
+                    }
+                }
+                for (int i = depth; i >= 0; i--) {
+                    path[i].top = null;
+                    if (i > 0 && path[i].terminals == null && path[i].children.isEmpty()) {
+                        path[i - 1].children.remove(key.charAt(i - 1));
+                    }
+                }
+            }
+        }
+
+        /**
+         * 节点子树中热度最高的topK个候选；缓存失效时由本节点候选与子节点缓存合并重算。
+         * 只在持有读锁（或索引尚未发布）时调用，并发重算得到相同结果
+         */
+        Entry[] top(Node node) {
+            Entry[] cached = node.top;
+            if (cached != null) {
+                return cached;
+            }
+            List<Entry> candidates = new ArrayList<>();
+            if (node.terminals != null) {
+                candidates.addAll(node.terminals);
+            }
+            for (Node child : node.children.values()) {
+                candidates.addAll(Arrays.asList(top(child)));
+            }
+            candidates.sort(RANKING);
+            List<Entry> selected = new ArrayList<>(topK);
+            Set<Long> seen = new HashSet<>();
+            for (Entry candidate : candidates) {
+                if (selected.size() == topK) {
+                    break;
+                }
+                // 同一候选可能经由多个键出现在同一子树
+                if (seen.add(candidate.suggestion().id())) {
+                    selected.add(candidate);
+                }
+            }
+            Entry[] computed = selected.toArray(new Entry[0]);
+            node.top = computed;
+            return computed;
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private List<Entry> terminals;
+        private volatile Entry[] top;
+    }
+
+    /**
+     * @param suggestion 候选
+     * @param normalized 规范化后的全文
+     * @param keys       插入字典树的键：全文及每个单词开头的后缀
+     */
+    private record Entry(Suggestion suggestion, String normalized, String[] keys) {
+
+        boolean matches(String prefix) {
+            for (String key : keys) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
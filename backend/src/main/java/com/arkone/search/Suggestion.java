@@ -0,0 +1,14 @@
+package com.arkone.search;
+
+/**
+ * 输入联想候选
+ *
+ * @param type  内容类型
+ * @param id    内容ID
+ * @param text  展示文本（标签名或标题）
+ * @param score 热度（标签使用次数或浏览量）
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public record Suggestion(SearchType type, Long id, String text, long score) {
+}
@@ -0,0 +1,194 @@
+package com.arkone.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 拼写纠错词典
+ * <p>
+ * 由索引词表中的拉丁字母词项（长度不小于3）及其文档频率构成，按字典序存放在数组中。
+ * 查找纠错候选时把有序数组当作隐式字典树：同一前缀的词项在数组中连续，按下一个字符二分出子区间，
+ * 沿途逐行计算与查询词的编辑距离（相邻字符换位计为一次编辑），某一分支的最小距离超出上限即剪枝，
+ * 等价于在词表上运行有界的Levenshtein自动机，不需要为每个词项额外建节点或删除变体。
+ * 首字母拼错的情况很少，候选要求首字母与查询词相同，只需遍历一个首字母下的子区间。
+ * 不可变，重建后整体替换。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class TermDictionary {
+
+    public static final TermDictionary EMPTY = new TermDictionary(new String[0], new int[0]);
+
+    private static final int MIN_LENGTH = 3;
+    /**
+     * 不超过该长度的词只容许一次编辑，更长的容许两次
+     */
+    private static final int SHORT_LENGTH = 4;
+    /**
+     * 候选与查询词必须相同的前缀长度
+     */
+    private static final int PREFIX_LENGTH = 1;
+
+    private final String[] terms;
+    private final int[] frequencies;
+
+    private TermDictionary(String[] terms, int[] frequencies) {
+        this.terms = terms;
+        this.frequencies = frequencies;
+    }
+
+    /**
+     * 纠错候选
+     *
+     * @param term      候选词
+     * @param distance  编辑距离
+     * @param frequency 文档频率
+     */
+    public record Correction(String term, int distance, int frequency) {
+    }
+
+    /**
+     * 由词项及文档频率构建，忽略不参与纠错的词项
+     */
+    public static TermDictionary build(Map<String, Integer> frequencies) {
+        List<String> eligible = new ArrayList<>(frequencies.size());
+        frequencies.keySet().forEach(term -> {
+            if (isEligible(term)) {
+                eligible.add(term);
+            }
+        });
+        String[] terms = eligible.toArray(new String[0]);
+        Arrays.sort(terms);
+        int[] counts = new int[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            counts[i] = frequencies.get(terms[i]);
+        }
+        return new TermDictionary(terms, counts);
+    }
+
+    /**
+     * 是否参与纠错：只处理含字母的ASCII词项，中日韩二元组与纯数字不纠错
+     */
+    public static boolean isEligible(String term) {
+        if (term.length() < MIN_LENGTH) {
+            return false;
+        }
+        boolean letter = false;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letter = true;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return letter;
+    }
+
+    /**
+     * 按词长容许的最大编辑距离
+     */
+    public static int maxDistance(String term) {
+        return term.length() <= SHORT_LENGTH ? 1 : 2;
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * 词项的文档频率，不在词典中时返回0
+     */
+    public int frequency(String term) {
+        int index = Arrays.binarySearch(terms, term);
+        return index >= 0 ? frequencies[index] : 0;
+    }
+
+    /**
+     * 编辑距离不超过maxDistance的候选（不含查询词本身），按距离升序、文档频率降序取前limit个
+     */
+    public List<Correction> corrections(String term, int maxDistance, int limit) {
+        List<Correction> found = new ArrayList<>();
+        if (terms.length == 0 || term.isEmpty()) {
+            return found;
+        }
+        int[] first = new int[term.length() + 1];
+        for (int k = 0; k <= term.length(); k++) {
+            first[k] = k;
+        }
+        walk(0, terms.length, 0, null, first, (char) 0, term, maxDistance, found);
+        found.sort(Comparator.comparingInt(Correction::distance)
+                .thenComparing(Comparator.comparingInt(Correction::frequency).reversed())
+                .thenComparing(Correction::term));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * 遍历共享长度为depth的前缀的区间 [low, high)；previous为前缀对应的距离行，beforePrevious为再上一行
+     */
+    private void walk(int low, int high, int depth, int[] beforePrevious, int[] previous, char previousChar,
+                      String query, int maxDistance, List<Correction> found) {
+        // 与前缀等长的词项排在区间最前
+        if (terms[low].length() == depth) {
+            int distance = previous[query.length()];
+            if (distance > 0 && distance <= maxDistance) {
+                found.add(new Correction(terms[low], distance, frequencies[low]));
+            }
+            low++;
+        }
+        int start = low;
+        while (start < high) {
+            char c = terms[start].charAt(depth);
+            int end = upperBound(start, high, depth, c);
+            if (depth < PREFIX_LENGTH && c != query.charAt(depth)) {
+                start = end;
+                continue;
+            }
+            int[] row = new int[query.length() + 1];
+            row[0] = depth + 1;
+            int minimum = row[0];
+            for (int k = 1; k <= query.length(); k++) {
+                int cost = query.charAt(k - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(previous[k] + 1, row[k - 1] + 1), previous[k - 1] + cost);
+                if (beforePrevious != null && k > 1 && query.charAt(k - 1) == previousChar
+                        && query.charAt(k - 2) == c) {
+                    value = Math.min(value, beforePrevious[k - 2] + 1);
+                }
+                row[k] = value;
+                minimum = Math.min(minimum, value);
+            }
+            // 换位会引用上一行，两行都超出上限时后续不可能回到上限以内
+            if (minimum <= maxDistance || min(previous) < maxDistance) {
+                walk(start, end, depth + 1, previous, row, c, query, maxDistance, found);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * 区间内第depth个字符大于c的第一个位置；区间内词项长度均大于depth且按该字符有序
+     */
+    private int upperBound(int low, int high, int depth, char c) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].charAt(depth) <= c) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int min(int[] row) {
+        int minimum = Integer.MAX_VALUE;
+        for (int value : row) {
+            minimum = Math.min(minimum, value);
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,117 @@
+package com.arkone.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 中英文混合分词
+ * <p>
+ * 拉丁字母与数字按连续片段切分并转为小写；中日韩文字按二元组（bigram）切分。
+ * 索引时每个汉字位置同时产出单字与以其开头的二元组，查询时两个字以上的片段只产出二元组、
+ * 单字片段产出单字，因此单字查询与多字短语查询都能命中。同一文本中相邻片段的位置连续，用于短语匹配。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class Tokenizer {
+
+    /**
+     * 超长的拉丁片段（如URL、哈希值）截断到该长度
+     */
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * 分词结果
+     *
+     * @param term     词项
+     * @param position 位置序号
+     * @param start    在原文中的起始下标
+     * @param end      在原文中的结束下标（不含）
+     */
+    public record Token(String term, int position, int start, int end) {
+    }
+
+    /**
+     * 索引分词
+     */
+    public static List<Token> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查询分词
+     */
+    public static List<Token> tokenizeForQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<Token> tokenize(String text, boolean index) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int position = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int runStart = i;
+                while (i < length && isCjk(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+                position = emitCjk(text, runStart, i, position, index, tokens);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int runStart = i;
+                while (i < length) {
+                    int current = text.codePointAt(i);
+                    if (!Character.isLetterOrDigit(current) || isCjk(current)) {
+                        break;
+                    }
+                    i += Character.charCount(current);
+                }
+                String term = text.substring(runStart, Math.min(i, runStart + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT);
+                tokens.add(new Token(term, position++, runStart, i));
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return tokens;
+    }
+
+    private static int emitCjk(String text, int start, int end, int position, boolean index, List<Token> tokens) {
+        List<int[]> chars = new ArrayList<>();
+        for (int i = start; i < end; ) {
+            int next = i + Character.charCount(text.codePointAt(i));
+            chars.add(new int[]{i, next});
+            i = next;
+        }
+        if (chars.size() == 1) {
+            tokens.add(new Token(text.substring(start, end), position, start, end));
+            return position + 1;
+        }
+        for (int i = 0; i < chars.size(); i++) {
+            int[] current = chars.get(i);
+            if (index) {
+                tokens.add(new Token(text.substring(current[0], current[1]), position + i, current[0], current[1]));
+            }
+            if (i + 1 < chars.size()) {
+                int bigramEnd = chars.get(i + 1)[1];
+                tokens.add(new Token(text.substring(current[0], bigramEnd), position + i, current[0], bigramEnd));
+            }
+        }
+        return position + chars.size();
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
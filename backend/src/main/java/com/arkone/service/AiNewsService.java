@@ -1,8 +1,11 @@
 package com.arkone.service;
 
 import com.arkone.entity.AiNews;
+import com.arkone.dto.ContentVersion;
+import com.arkone.dto.LikeStatus;
 import com.arkone.dto.PageQuery;
 import com.arkone.dto.Result;
+import com.arkone.search.SearchResult;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
 import java.util.List;
@@ -19,9 +22,19 @@ public interface AiNewsService {
     Result<Page<AiNews>> getAiNewsPage(PageQuery query);
 
     /**
-     * 根据ID获取AI新闻详情
+     * 根据ID获取AI新闻详情（记录访问客户端）
      */
-    Result<AiNews> getAiNewsById(Long id);
+    Result<AiNews> getAiNewsById(Long id, String clientId);
+
+    /**
+     * 获取AI新闻内容版本（优先读缓存），新闻不存在时返回null
+     */
+    ContentVersion getAiNewsVersion(Long id);
+
+    /**
+     * 记录一次访问（浏览量及独立访客）
+     */
+    void recordView(Long id, String clientId);
 
     /**
      * 创建AI新闻
@@ -71,12 +84,17 @@ public interface AiNewsService {
     /**
      * 点赞
      */
-    boolean likeAiNews(Long id);
+    Result<LikeStatus> likeAiNews(Long id, String clientId);
 
     /**
      * 取消点赞
      */
-    boolean unlikeAiNews(Long id);
+    Result<LikeStatus> unlikeAiNews(Long id, String clientId);
+
+    /**
+     * 获取点赞状态
+     */
+    Result<LikeStatus> getLikeStatus(Long id, String clientId);
 
     /**
      * 获取热门AI新闻
@@ -108,6 +126,16 @@ public interface AiNewsService {
      */
     Result<Page<AiNews>> searchAiNews(String keyword, PageQuery query);
 
+    /**
+     * 搜索AI新闻的前limit条命中，只含ID、相关度与高亮，不加载新闻内容；供综合搜索先排序再按页加载
+     */
+    SearchResult searchAiNewsHits(String keyword, int limit);
+
+    /**
+     * 按ID批量获取AI新闻（经详情缓存），按给定顺序返回，不存在的跳过；返回缓存中的共享实例，调用方不得修改
+     */
+    List<AiNews> getAiNewsByIds(List<Long> ids);
+
     /**
      * 获取AI新闻分类列表
      */
@@ -2,7 +2,10 @@ package com.arkone.service;
 
 import com.arkone.dto.ArticleQuery;
 import com.arkone.dto.ArticleSaveDTO;
+import com.arkone.dto.ContentVersion;
+import com.arkone.dto.LikeStatus;
 import com.arkone.entity.Article;
+import com.arkone.search.SearchResult;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
 
@@ -22,9 +25,19 @@ public interface ArticleService extends IService<Article> {
     IPage<Article> getArticlePage(ArticleQuery query);
 
     /**
-     * 根据ID获取文章详情
+     * 根据ID获取文章详情（记录访问客户端）
      */
-    Article getArticleDetail(Long id);
+    Article getArticleDetail(Long id, String clientId);
+
+    /**
+     * 获取文章内容版本（优先读缓存），文章不存在时返回null
+     */
+    ContentVersion getArticleVersion(Long id);
+
+    /**
+     * 记录一次访问（浏览量及独立访客）
+     */
+    void recordView(Long id, String clientId);
 
     /**
      * 保存文章
@@ -72,14 +85,19 @@ public interface ArticleService extends IService<Article> {
     boolean incrementViewCount(Long id);
 
     /**
-     * 点赞文章
+     * 点赞文章，文章不存在时返回null
      */
-    boolean likeArticle(Long id);
+    LikeStatus likeArticle(Long id, String clientId);
 
     /**
-     * 取消点赞文章
+     * 取消点赞文章，文章不存在时返回null
      */
-    boolean unlikeArticle(Long id);
+    LikeStatus unlikeArticle(Long id, String clientId);
+
+    /**
+     * 获取文章点赞状态，文章不存在时返回null
+     */
+    LikeStatus getLikeStatus(Long id, String clientId);
 
     /**
      * 获取热门文章
@@ -111,6 +129,16 @@ public interface ArticleService extends IService<Article> {
      */
     IPage<Article> searchArticles(String keyword, Integer pageNum, Integer pageSize);
 
+    /**
+     * 搜索文章的前limit条命中，只含ID、相关度与高亮，不加载文章内容；供综合搜索先排序再按页加载
+     */
+    SearchResult searchArticleHits(String keyword, int limit);
+
+    /**
+     * 按ID批量获取文章（经详情缓存），按给定顺序返回，不存在的跳过；返回缓存中的共享实例，调用方不得修改
+     */
+    List<Article> getArticlesByIds(List<Long> ids);
+
     /**
      * 获取文章统计信息
      */
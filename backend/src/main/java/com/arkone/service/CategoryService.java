@@ -1,8 +1,10 @@
 package com.arkone.service;
 
 import com.arkone.entity.Category;
+import com.arkone.dto.ContentVersion;
 import com.arkone.dto.Result;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.util.RawValue;
 
 import java.util.List;
 
@@ -60,4 +62,14 @@ public interface CategoryService {
      * 构建分类树
      */
     Result<List<Category>> buildCategoryTree(Category.CategoryType type);
+
+    /**
+     * 获取预先序列化的分类树JSON
+     */
+    Result<RawValue> getCategoryTreeJson(Category.CategoryType type);
+
+    /**
+     * 获取分类树内容版本
+     */
+    ContentVersion getCategoryTreeVersion(Category.CategoryType type);
 }
\ No newline at end of file
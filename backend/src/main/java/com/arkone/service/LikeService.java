@@ -0,0 +1,38 @@
+package com.arkone.service;
+
+import com.arkone.dto.LikeStatus;
+import com.arkone.entity.ContentType;
+
+/**
+ * 点赞服务接口
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public interface LikeService {
+
+    /**
+     * 点赞（幂等），内容不存在时返回null
+     */
+    LikeStatus like(ContentType type, Long id, String clientId);
+
+    /**
+     * 取消点赞（幂等），内容不存在时返回null
+     */
+    LikeStatus unlike(ContentType type, Long id, String clientId);
+
+    /**
+     * 获取点赞状态，内容不存在时返回null
+     */
+    LikeStatus getLikeStatus(ContentType type, Long id, String clientId);
+
+    /**
+     * 获取Redis中的点赞数，尚未加载时返回null
+     */
+    Long getLikeCount(ContentType type, Long id);
+
+    /**
+     * 将点赞数批量写回数据库
+     */
+    void flushLikeCounts();
+}
@@ -0,0 +1,17 @@
+package com.arkone.service;
+
+import com.arkone.dto.SearchPage;
+
+/**
+ * 综合搜索服务接口
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public interface SearchService {
+
+    /**
+     * 并行搜索文章、AI新闻和标签，按归一化相关度合并分页
+     */
+    SearchPage search(String keyword, Integer pageNum, Integer pageSize);
+}
@@ -0,0 +1,49 @@
+package com.arkone.service;
+
+import com.arkone.dto.SuggestResult;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.Tag;
+
+import java.util.Collection;
+
+/**
+ * 输入联想服务接口
+ * <p>
+ * 查询只读内存中的前缀索引，不访问数据库；各写入路径在事务提交后增量同步。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public interface SuggestService {
+
+    /**
+     * 按前缀返回标签、文章标题、AI新闻标题的联想候选
+     */
+    SuggestResult suggest(String prefix, Integer limit);
+
+    /**
+     * 同步单篇文章，article为null（已删除）或未发布时移除
+     */
+    void syncArticle(Long id, Article article);
+
+    /**
+     * 同步单条新闻，aiNews为null（已删除）或未发布时移除
+     */
+    void syncAiNews(Long id, AiNews aiNews);
+
+    /**
+     * 同步标签，非启用状态的移除
+     */
+    void syncTags(Collection<Tag> tags);
+
+    /**
+     * 移除标签
+     */
+    void removeTags(Collection<Long> ids);
+
+    /**
+     * 全量重建，刷新热度
+     */
+    void rebuild();
+}
@@ -0,0 +1,71 @@
+package com.arkone.service;
+
+import com.arkone.dto.Result;
+import com.arkone.entity.SystemConfig;
+
+import java.util.List;
+
+/**
+ * 系统配置服务接口
+ * <p>
+ * 读取均来自内存快照，不访问数据库；键不存在或值无法按类型解析时返回默认值。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public interface SystemConfigService {
+
+    String SITE_NAME = "site_name";
+    String SITE_DESCRIPTION = "site_description";
+    String SITE_KEYWORDS = "site_keywords";
+    String COMMENT_ENABLED = "comment_enabled";
+    String COMMENT_AUDIT = "comment_audit";
+    String UPLOAD_MAX_SIZE = "upload_max_size";
+
+    /**
+     * 字符串配置
+     */
+    String getString(String key, String defaultValue);
+
+    /**
+     * 布尔配置
+     */
+    boolean getBoolean(String key, boolean defaultValue);
+
+    /**
+     * 整数配置
+     */
+    long getLong(String key, long defaultValue);
+
+    /**
+     * 全部配置（快照中的实体，只读）
+     */
+    List<SystemConfig> getAll();
+
+    /**
+     * 更新配置值，事务提交后刷新本节点快照并通知其他节点。
+     * 系统配置（is_system）不允许修改，值须符合配置类型（string/number/boolean/json）
+     */
+    Result<Void> updateValue(String key, String value);
+
+    /**
+     * 配置表发生变化时重新加载快照
+     */
+    void refreshIfChanged();
+
+    default String getSiteName() {
+        return getString(SITE_NAME, "ArkOne");
+    }
+
+    default boolean isCommentEnabled() {
+        return getBoolean(COMMENT_ENABLED, true);
+    }
+
+    default boolean isCommentAudit() {
+        return getBoolean(COMMENT_AUDIT, true);
+    }
+
+    default long getUploadMaxSize() {
+        return getLong(UPLOAD_MAX_SIZE, 10485760L);
+    }
+}
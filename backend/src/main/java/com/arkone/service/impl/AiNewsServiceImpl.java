@@ -1,16 +1,41 @@
 package com.arkone.service.impl;
 
+import com.arkone.cache.CachedEntity;
+import com.arkone.cache.ContentIdFilter;
+import com.arkone.cache.ContentListCache;
+import com.arkone.cache.InvalidationBus;
+import com.arkone.cache.SingleFlight;
+import com.arkone.cache.TwoLevelCache;
+import com.arkone.counter.TrendingRanking;
+import com.arkone.counter.UniqueVisitorCounter;
+import com.arkone.counter.ViewCountBuffer;
 import com.arkone.entity.AiNews;
+import com.arkone.entity.ContentType;
 import com.arkone.mapper.AiNewsMapper;
+import com.arkone.search.SearchHit;
+import com.arkone.search.SearchIndex;
+import com.arkone.search.SearchIndexer;
+import com.arkone.search.SearchMode;
+import com.arkone.search.SearchQuery;
+import com.arkone.search.SearchResult;
 import com.arkone.service.AiNewsService;
+import com.arkone.service.LikeService;
+import com.arkone.service.SuggestService;
+import com.arkone.snapshot.StaticSnapshotWriter;
+import com.arkone.dto.ContentVersion;
+import com.arkone.dto.LikeStatus;
 import com.arkone.dto.PageQuery;
 import com.arkone.dto.Result;
+import com.arkone.dto.SearchResultPage;
+import com.arkone.util.TransactionUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,13 +55,41 @@ import java.util.stream.Collectors;
 public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> implements AiNewsService {
 
     private final AiNewsMapper aiNewsMapper;
+    private final ViewCountBuffer viewCountBuffer;
+    private final LikeService likeService;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
+    private final TwoLevelCache<AiNews> aiNewsDetailCache;
+    private final ContentListCache<AiNews> aiNewsListCache;
+    private final TrendingRanking trendingRanking;
+    private final StaticSnapshotWriter snapshotWriter;
+    private final ContentIdFilter contentIdFilter;
+    private final InvalidationBus invalidationBus;
+    private final SearchIndex aiNewsSearchIndex;
+    private final SearchIndexer searchIndexer;
+    private final SuggestService suggestService;
     private final WebClient webClient = WebClient.builder().build();
 
     @Value("${app.ai.news.rss-sources}")
     private List<String> rssSources;
 
+    @Value("${arkone.uv.window-days:7}")
+    private int uvWindowDays;
+
+    @Value("${arkone.search.mode:memory}")
+    private SearchMode searchMode;
+
+    @PostConstruct
+    public void subscribeInvalidation() {
+        invalidationBus.subscribe(CachedEntity.NEWS, this::onRemoteAiNewsChanged);
+    }
+
     @Override
     public Result<Page<AiNews>> getAiNewsPage(PageQuery query) {
+        if (StringUtils.hasText(query.getKeyword()) && !StringUtils.hasText(query.getSortField())
+                && searchMode != SearchMode.LIKE) {
+            // 未指定排序的关键词查询按相关度返回
+            return searchAiNews(query.getKeyword(), query);
+        }
         try {
             Page<AiNews> page = new Page<>(query.getPageNum(), query.getPageSize());
             
@@ -62,15 +115,27 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
     }
 
     @Override
-    public Result<AiNews> getAiNewsById(Long id) {
+    public Result<AiNews> getAiNewsById(Long id, String clientId) {
+        if (!contentIdFilter.mightContain(ContentType.NEWS, id)) {
+            return Result.error("AI新闻不存在");
+        }
         try {
-            AiNews aiNews = aiNewsMapper.selectById(id);
-            if (aiNews == null || aiNews.getDeleted() == 1) {
+            AiNews cached = aiNewsDetailCache.get(id, this::loadAiNews);
+            if (cached == null) {
                 return Result.error("AI新闻不存在");
             }
+            // 缓存实例为共享对象，计数字段在副本上覆盖
+            AiNews aiNews = new AiNews();
+            BeanUtils.copyProperties(cached, aiNews);
             
-            // 增加浏览量
-            increaseViewCount(id);
+            recordView(id, clientId);
+            aiNews.setUniqueViewCount(uniqueVisitorCounter.count(ContentType.NEWS, id, uvWindowDays));
+            
+            // 点赞数以Redis为准
+            Long likeCount = likeService.getLikeCount(ContentType.NEWS, id);
+            if (likeCount != null) {
+                aiNews.setLikeCount(likeCount.intValue());
+            }
             
             return Result.success(aiNews);
         } catch (Exception e) {
@@ -79,6 +144,24 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
         }
     }
 
+    @Override
+    public ContentVersion getAiNewsVersion(Long id) {
+        if (!contentIdFilter.mightContain(ContentType.NEWS, id)) {
+            return null;
+        }
+        AiNews aiNews = aiNewsDetailCache.get(id, this::loadAiNews);
+        return aiNews != null ? ContentVersion.of(id, aiNews.getUpdatedAt(), aiNews.getTitle(), aiNews.getSummary(),
+                aiNews.getContent(), aiNews.getCoverImage(), aiNews.getTags(), aiNews.getStatus(),
+                aiNews.getIsHot(), aiNews.getCategory(), aiNews.getSource(), aiNews.getPublishedAt()) : null;
+    }
+
+    @Override
+    public void recordView(Long id, String clientId) {
+        // 增加浏览量
+        increaseViewCount(id);
+        uniqueVisitorCounter.record(ContentType.NEWS, id, clientId);
+    }
+
     @Override
     @Transactional
     public boolean saveAiNews(AiNews aiNews) {
@@ -108,7 +191,12 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                 aiNews.setSummary(generateSummary(aiNews.getContent()));
             }
             
-            return aiNewsMapper.insert(aiNews) > 0;
+            boolean saved = aiNewsMapper.insert(aiNews) > 0;
+            if (saved) {
+                contentIdFilter.add(ContentType.NEWS, aiNews.getId());
+                onAiNewsChanged(aiNews.getId());
+            }
+            return saved;
         } catch (Exception e) {
             log.error("创建AI新闻失败", e);
             return false;
@@ -131,6 +219,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                 aiNews.setSummary(generateSummary(aiNews.getContent()));
             }
             
+            onAiNewsChanged(aiNews.getId());
             return aiNewsMapper.updateById(aiNews) > 0;
         } catch (Exception e) {
             log.error("更新AI新闻失败，ID: {}", aiNews.getId(), e);
@@ -147,6 +236,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                    .set(AiNews::getDeleted, 1)
                    .set(AiNews::getUpdatedAt, LocalDateTime.now());
             
+            onAiNewsChanged(id);
             return aiNewsMapper.update(null, wrapper) > 0;
         } catch (Exception e) {
             log.error("删除AI新闻失败，ID: {}", id, e);
@@ -167,6 +257,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                    .set(AiNews::getDeleted, 1)
                    .set(AiNews::getUpdatedAt, LocalDateTime.now());
             
+            onAiNewsChanged(ids);
             return aiNewsMapper.update(null, wrapper) > 0;
         } catch (Exception e) {
             log.error("批量删除AI新闻失败，IDs: {}", ids, e);
@@ -185,6 +276,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                    .set(AiNews::getPublishedAt, LocalDateTime.now())
                    .set(AiNews::getUpdatedAt, LocalDateTime.now());
             
+            onAiNewsChanged(id);
             return aiNewsMapper.update(null, wrapper) > 0;
         } catch (Exception e) {
             log.error("发布AI新闻失败，ID: {}", id, e);
@@ -202,6 +294,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                    .set(AiNews::getStatus, AiNews.NewsStatus.DRAFT)
                    .set(AiNews::getUpdatedAt, LocalDateTime.now());
             
+            onAiNewsChanged(id);
             return aiNewsMapper.update(null, wrapper) > 0;
         } catch (Exception e) {
             log.error("取消发布AI新闻失败，ID: {}", id, e);
@@ -219,6 +312,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                    .set(AiNews::getIsHot, true)
                    .set(AiNews::getUpdatedAt, LocalDateTime.now());
             
+            onAiNewsChanged(id);
             return aiNewsMapper.update(null, wrapper) > 0;
         } catch (Exception e) {
             log.error("设置热门失败，ID: {}", id, e);
@@ -236,6 +330,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                    .set(AiNews::getIsHot, false)
                    .set(AiNews::getUpdatedAt, LocalDateTime.now());
             
+            onAiNewsChanged(id);
             return aiNewsMapper.update(null, wrapper) > 0;
         } catch (Exception e) {
             log.error("取消热门失败，ID: {}", id, e);
@@ -244,13 +339,11 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
     }
 
     @Override
-    @Transactional
     public boolean increaseViewCount(Long id) {
         try {
-            LambdaUpdateWrapper<AiNews> wrapper = new LambdaUpdateWrapper<>();
-            wrapper.eq(AiNews::getId, id)
-                   .setSql("view_count = view_count + 1");
-            return aiNewsMapper.update(null, wrapper) > 0;
+            // 浏览量写入缓冲，定时批量刷盘
+            viewCountBuffer.increment(ContentType.NEWS, id);
+            return true;
         } catch (Exception e) {
             log.error("增加浏览量失败，ID: {}", id, e);
             return false;
@@ -258,30 +351,35 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
     }
 
     @Override
-    @Transactional
-    public boolean likeAiNews(Long id) {
+    public Result<LikeStatus> likeAiNews(Long id, String clientId) {
         try {
-            LambdaUpdateWrapper<AiNews> wrapper = new LambdaUpdateWrapper<>();
-            wrapper.eq(AiNews::getId, id)
-                   .setSql("like_count = like_count + 1");
-            return aiNewsMapper.update(null, wrapper) > 0;
+            LikeStatus status = likeService.like(ContentType.NEWS, id, clientId);
+            return status != null ? Result.success(status) : Result.error("AI新闻不存在");
         } catch (Exception e) {
             log.error("点赞失败，ID: {}", id, e);
-            return false;
+            return Result.error("点赞失败");
         }
     }
 
     @Override
-    @Transactional
-    public boolean unlikeAiNews(Long id) {
+    public Result<LikeStatus> unlikeAiNews(Long id, String clientId) {
         try {
-            LambdaUpdateWrapper<AiNews> wrapper = new LambdaUpdateWrapper<>();
-            wrapper.eq(AiNews::getId, id)
-                   .setSql("like_count = like_count - 1");
-            return aiNewsMapper.update(null, wrapper) > 0;
+            LikeStatus status = likeService.unlike(ContentType.NEWS, id, clientId);
+            return status != null ? Result.success(status) : Result.error("AI新闻不存在");
         } catch (Exception e) {
             log.error("取消点赞失败，ID: {}", id, e);
-            return false;
+            return Result.error("取消点赞失败");
+        }
+    }
+
+    @Override
+    public Result<LikeStatus> getLikeStatus(Long id, String clientId) {
+        try {
+            LikeStatus status = likeService.getLikeStatus(ContentType.NEWS, id, clientId);
+            return status != null ? Result.success(status) : Result.error("AI新闻不存在");
+        } catch (Exception e) {
+            log.error("获取点赞状态失败，ID: {}", id, e);
+            return Result.error("获取失败");
         }
     }
 
@@ -292,13 +390,28 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                 limit = 10;
             }
             
-            LambdaQueryWrapper<AiNews> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(AiNews::getDeleted, 0)
-                   .eq(AiNews::getStatus, AiNews.NewsStatus.PUBLISHED)
-                   .eq(AiNews::getIsHot, true)
-                   .orderByDesc(AiNews::getPublishedAt)
-                   .last("LIMIT " + limit);
-            List<AiNews> hotNews = aiNewsMapper.selectList(wrapper);
+            // 优先按时间衰减热度排行，不足时以人工/自动标记的热门补齐
+            List<AiNews> hotNews = new ArrayList<>(limit);
+            for (Long id : trendingRanking.top(ContentType.NEWS, limit * 2)) {
+                AiNews news = aiNewsDetailCache.get(id, this::loadAiNews);
+                if (news != null && AiNews.NewsStatus.PUBLISHED.equals(news.getStatus())) {
+                    hotNews.add(news);
+                    if (hotNews.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (hotNews.size() < limit) {
+                Set<Long> seen = hotNews.stream().map(AiNews::getId).collect(Collectors.toSet());
+                for (AiNews news : aiNewsListCache.get(ContentListCache.HOT, limit)) {
+                    if (hotNews.size() == limit) {
+                        break;
+                    }
+                    if (!seen.contains(news.getId())) {
+                        hotNews.add(news);
+                    }
+                }
+            }
             return Result.success(hotNews);
         } catch (Exception e) {
             log.error("获取热门AI新闻失败", e);
@@ -313,12 +426,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
                 limit = 10;
             }
             
-            LambdaQueryWrapper<AiNews> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(AiNews::getDeleted, 0)
-                   .eq(AiNews::getStatus, AiNews.NewsStatus.PUBLISHED)
-                   .orderByDesc(AiNews::getPublishedAt)
-                   .last("LIMIT " + limit);
-            List<AiNews> latestNews = aiNewsMapper.selectList(wrapper);
+            List<AiNews> latestNews = aiNewsListCache.get(ContentListCache.LATEST, limit);
             return Result.success(latestNews);
         } catch (Exception e) {
             log.error("获取最新AI新闻失败", e);
@@ -379,7 +487,14 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
 
     @Override
     public Result<Page<AiNews>> searchAiNews(String keyword, PageQuery query) {
+        if (searchMode == SearchMode.MEMORY && aiNewsSearchIndex.isReady()) {
+            return searchAiNewsByIndex(keyword, query);
+        }
+        if (searchMode == SearchMode.FULLTEXT) {
+            return searchAiNewsByFulltext(keyword, query);
+        }
         try {
+            // LIKE模式，或索引首次构建完成前
             Page<AiNews> page = new Page<>(query.getPageNum(), query.getPageSize());
             LambdaQueryWrapper<AiNews> wrapper = new LambdaQueryWrapper<>();
             wrapper.eq(AiNews::getDeleted, 0)
@@ -396,6 +511,83 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
         }
     }
 
+    @Override
+    public SearchResult searchAiNewsHits(String keyword, int limit) {
+        if (searchMode == SearchMode.MEMORY && aiNewsSearchIndex.isReady()) {
+            return aiNewsSearchIndex.search(SearchQuery.parse(keyword), 0, limit);
+        }
+        Page<AiNews> page = new Page<>(1, limit);
+        if (searchMode == SearchMode.FULLTEXT) {
+            String booleanQuery = SearchQuery.parse(keyword).toBooleanMode();
+            if (!booleanQuery.isEmpty()) {
+                aiNewsMapper.searchNewsIdsFulltext(page, booleanQuery);
+            }
+        } else {
+            aiNewsMapper.searchNewsIds(page, keyword);
+        }
+        // LIKE模式没有相关度，得分为0，由调用方按名次折算
+        List<SearchHit> hits = page.getRecords().stream()
+                .map(aiNews -> new SearchHit(aiNews.getId(),
+                        aiNews.getSearchScore() != null ? aiNews.getSearchScore() : 0, null, null))
+                .toList();
+        return new SearchResult(page.getTotal(), hits);
+    }
+
+    @Override
+    public List<AiNews> getAiNewsByIds(List<Long> ids) {
+        List<AiNews> newsList = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AiNews aiNews = aiNewsDetailCache.get(id, this::loadAiNews);
+            if (aiNews != null) {
+                newsList.add(aiNews);
+            }
+        }
+        return newsList;
+    }
+
+    private Result<Page<AiNews>> searchAiNewsByFulltext(String keyword, PageQuery query) {
+        try {
+            Page<AiNews> page = new Page<>(query.getPageNum(), query.getPageSize());
+            String booleanQuery = SearchQuery.parse(keyword).toBooleanMode();
+            if (!booleanQuery.isEmpty()) {
+                aiNewsMapper.searchNewsFulltext(page, booleanQuery);
+            }
+            return Result.success(page);
+        } catch (Exception e) {
+            log.error("搜索AI新闻失败，关键词: {}", keyword, e);
+            return Result.error("搜索失败");
+        }
+    }
+
+    private Result<Page<AiNews>> searchAiNewsByIndex(String keyword, PageQuery query) {
+        try {
+            SearchResultPage<AiNews> page = new SearchResultPage<>(query.getPageNum(), query.getPageSize());
+            SearchResult result = aiNewsSearchIndex.search(SearchQuery.parse(keyword),
+                    (int) page.offset(), (int) page.getSize());
+            List<AiNews> records = new ArrayList<>(result.hits().size());
+            for (SearchHit hit : result.hits()) {
+                AiNews cached = aiNewsDetailCache.get(hit.id(), this::loadAiNews);
+                if (cached == null) {
+                    continue;
+                }
+                // 缓存实例为共享对象，高亮字段在副本上设置
+                AiNews aiNews = new AiNews();
+                BeanUtils.copyProperties(cached, aiNews);
+                aiNews.setHighlightTitle(hit.title());
+                aiNews.setHighlightSnippet(hit.snippet());
+                aiNews.setSearchScore(hit.score());
+                records.add(aiNews);
+            }
+            page.setRecords(records);
+            page.setTotal(result.total());
+            page.setSuggestion(result.suggestion());
+            return Result.success(page);
+        } catch (Exception e) {
+            log.error("搜索AI新闻失败，关键词: {}", keyword, e);
+            return Result.error("搜索失败");
+        }
+    }
+
     @Override
     public Result<List<String>> getAiNewsCategories() {
         try {
@@ -439,6 +631,7 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
     }
 
     @Override
+    @SingleFlight
     public Result<Map<String, Object>> getAiNewsStats() {
         try {
             Map<String, Object> stats = new HashMap<>();
@@ -510,6 +703,56 @@ public class AiNewsServiceImpl extends ServiceImpl<AiNewsMapper, AiNews> impleme
         }
     }
 
+    /**
+     * 详情缓存加载，已删除的新闻视为不存在
+     */
+    private AiNews loadAiNews(Long id) {
+        AiNews aiNews = aiNewsMapper.selectById(id);
+        return aiNews == null || aiNews.getDeleted() == 1 ? null : aiNews;
+    }
+
+    /**
+     * 新闻变更后失效详情缓存、增量更新列表快照并同步静态页面、搜索与联想索引；在事务提交后执行，避免并发读回填旧值
+     */
+    private void onAiNewsChanged(Long id) {
+        TransactionUtils.afterCommit(() -> {
+            aiNewsDetailCache.evict(id);
+            aiNewsListCache.upsert(id);
+            AiNews aiNews = loadAiNews(id);
+            snapshotWriter.syncAiNews(id, aiNews);
+            searchIndexer.syncAiNews(id, aiNews);
+            suggestService.syncAiNews(id, aiNews);
+            invalidationBus.publish(CachedEntity.NEWS, List.of(id));
+        });
+    }
+
+    private void onAiNewsChanged(List<Long> ids) {
+        TransactionUtils.afterCommit(() -> {
+            ids.forEach(aiNewsDetailCache::evict);
+            aiNewsListCache.upsert(ids);
+            ids.forEach(id -> {
+                AiNews aiNews = loadAiNews(id);
+                snapshotWriter.syncAiNews(id, aiNews);
+                searchIndexer.syncAiNews(id, aiNews);
+                suggestService.syncAiNews(id, aiNews);
+            });
+            invalidationBus.publish(CachedEntity.NEWS, ids);
+        });
+    }
+
+    /**
+     * 其他节点变更新闻后刷新本节点的进程内缓存、搜索与联想索引；二级缓存与静态快照已由发布节点处理
+     */
+    private void onRemoteAiNewsChanged(List<Long> ids) {
+        ids.forEach(aiNewsDetailCache::evictLocal);
+        aiNewsListCache.upsert(ids);
+        ids.forEach(id -> {
+            AiNews aiNews = loadAiNews(id);
+            searchIndexer.syncAiNews(id, aiNews);
+            suggestService.syncAiNews(id, aiNews);
+        });
+    }
+
     /**
      * 自动生成摘要
      */
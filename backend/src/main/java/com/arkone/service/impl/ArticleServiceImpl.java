@@ -1,23 +1,55 @@
 package com.arkone.service.impl;
 
+import com.arkone.cache.CachedEntity;
+import com.arkone.cache.ContentIdFilter;
+import com.arkone.cache.ContentListCache;
+import com.arkone.cache.InvalidationBus;
+import com.arkone.cache.SingleFlight;
+import com.arkone.cache.TwoLevelCache;
+import com.arkone.counter.TrendingRanking;
+import com.arkone.counter.UniqueVisitorCounter;
+import com.arkone.counter.ViewCountBuffer;
+import com.arkone.dto.ArticlePage;
 import com.arkone.dto.ArticleQuery;
 import com.arkone.dto.ArticleSaveDTO;
+import com.arkone.dto.ContentVersion;
+import com.arkone.dto.LikeStatus;
+import com.arkone.dto.SearchResultPage;
 import com.arkone.entity.Article;
+import com.arkone.entity.ContentType;
+import com.arkone.filter.ArticleFilterIndex;
 import com.arkone.mapper.ArticleMapper;
+import com.arkone.search.SearchHit;
+import com.arkone.search.SearchIndex;
+import com.arkone.search.SearchIndexer;
+import com.arkone.search.SearchMode;
+import com.arkone.search.SearchQuery;
+import com.arkone.search.SearchResult;
 import com.arkone.service.ArticleService;
+import com.arkone.service.LikeService;
+import com.arkone.service.SuggestService;
+import com.arkone.snapshot.StaticSnapshotWriter;
+import com.arkone.util.TransactionUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 文章服务实现类
@@ -30,24 +62,95 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> implements ArticleService {
 
+    /**
+     * 热门文章候选集倍数
+     */
+    private static final int HOT_CANDIDATE_FACTOR = 3;
+
     private final ArticleMapper articleMapper;
+    private final ViewCountBuffer viewCountBuffer;
+    private final LikeService likeService;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
+    private final TwoLevelCache<Article> articleDetailCache;
+    private final ContentListCache<Article> articleListCache;
+    private final TrendingRanking trendingRanking;
+    private final StaticSnapshotWriter snapshotWriter;
+    private final ContentIdFilter contentIdFilter;
+    private final InvalidationBus invalidationBus;
+    private final SearchIndex articleSearchIndex;
+    private final SearchIndexer searchIndexer;
+    private final SuggestService suggestService;
+    private final ArticleFilterIndex articleFilterIndex;
+
+    @Value("${arkone.uv.window-days:7}")
+    private int uvWindowDays;
+
+    @Value("${arkone.search.mode:memory}")
+    private SearchMode searchMode;
+
+    @PostConstruct
+    public void subscribeInvalidation() {
+        invalidationBus.subscribe(CachedEntity.ARTICLE, this::onRemoteArticlesChanged);
+    }
 
     @Override
     public IPage<Article> getArticlePage(ArticleQuery query) {
-        Page<Article> page = new Page<>(query.getPageNum(), query.getPageSize());
+        ArticlePage page = new ArticlePage(query.getPageNum(), query.getPageSize());
+        if (articleFilterIndex.isReady() && ArticleFilterIndex.supports(query)) {
+            return getArticlePageByIndex(page, query);
+        }
         return articleMapper.selectArticlePageWithCategory(page, query);
     }
 
+    private IPage<Article> getArticlePageByIndex(ArticlePage page, ArticleQuery query) {
+        ArticleFilterIndex.Result result = articleFilterIndex.query(query, (int) page.offset(), (int) page.getSize());
+        page.setRecords(getArticlesByIds(result.ids()));
+        page.setTotal(result.total());
+        page.setFacets(result.facets());
+        return page;
+    }
+
     @Override
-    public Article getArticleDetail(Long id) {
-        Article article = articleMapper.selectArticleWithCategoryById(id);
-        if (article != null) {
-            // 异步增加浏览量
-            incrementViewCount(id);
+    public Article getArticleDetail(Long id, String clientId) {
+        if (!contentIdFilter.mightContain(ContentType.ARTICLE, id)) {
+            return null;
+        }
+        Article cached = articleDetailCache.get(id, articleMapper::selectArticleWithCategoryById);
+        if (cached == null) {
+            return null;
+        }
+        // 缓存实例为共享对象，计数字段在副本上覆盖
+        Article article = new Article();
+        BeanUtils.copyProperties(cached, article);
+        recordView(id, clientId);
+        article.setUniqueViewCount(uniqueVisitorCounter.count(ContentType.ARTICLE, id, uvWindowDays));
+        // 点赞数以Redis为准
+        Long likeCount = likeService.getLikeCount(ContentType.ARTICLE, id);
+        if (likeCount != null) {
+            article.setLikeCount(likeCount.intValue());
         }
         return article;
     }
 
+    @Override
+    public ContentVersion getArticleVersion(Long id) {
+        if (!contentIdFilter.mightContain(ContentType.ARTICLE, id)) {
+            return null;
+        }
+        Article article = articleDetailCache.get(id, articleMapper::selectArticleWithCategoryById);
+        return article != null ? ContentVersion.of(id, article.getUpdatedAt(), article.getTitle(), article.getSummary(),
+                article.getContent(), article.getCoverImage(), article.getTags(), article.getStatus(),
+                article.getIsTop(), article.getCategoryId(), article.getCategoryName(), article.getPublishTime()) : null;
+    }
+
+    @Override
+    public void recordView(Long id, String clientId) {
+        // 浏览量写入缓冲，定时批量刷盘
+        incrementViewCount(id);
+        // 独立访客
+        uniqueVisitorCounter.record(ContentType.ARTICLE, id, clientId);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean saveArticle(ArticleSaveDTO dto) {
@@ -64,7 +167,12 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             article.setSummary(generateSummary(dto.getContent()));
         }
         
-        return save(article);
+        boolean saved = save(article);
+        if (saved) {
+            contentIdFilter.add(ContentType.ARTICLE, article.getId());
+            onArticleChanged(article.getId());
+        }
+        return saved;
     }
 
     @Override
@@ -90,18 +198,21 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             article.setSummary(generateSummary(dto.getContent()));
         }
         
+        onArticleChanged(dto.getId());
         return updateById(article);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteArticle(Long id) {
+        onArticleChanged(id);
         return removeById(id);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteArticles(List<Long> ids) {
+        onArticlesChanged(ids);
         return removeByIds(ids);
     }
 
@@ -112,6 +223,7 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         article.setId(id);
         article.setStatus(Article.ArticleStatus.PUBLISHED);
         article.setPublishTime(LocalDateTime.now());
+        onArticleChanged(id);
         return updateById(article);
     }
 
@@ -121,6 +233,7 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         Article article = new Article();
         article.setId(id);
         article.setStatus(Article.ArticleStatus.DRAFT);
+        onArticleChanged(id);
         return updateById(article);
     }
 
@@ -130,6 +243,7 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         Article article = new Article();
         article.setId(id);
         article.setIsTop(true);
+        onArticleChanged(id);
         return updateById(article);
     }
 
@@ -139,42 +253,93 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         Article article = new Article();
         article.setId(id);
         article.setIsTop(false);
+        onArticleChanged(id);
         return updateById(article);
     }
 
     @Override
     public boolean incrementViewCount(Long id) {
-        return articleMapper.incrementViewCount(id) > 0;
+        viewCountBuffer.increment(ContentType.ARTICLE, id);
+        return true;
     }
 
     @Override
-    public boolean likeArticle(Long id) {
-        return articleMapper.incrementLikeCount(id) > 0;
+    public LikeStatus likeArticle(Long id, String clientId) {
+        return likeService.like(ContentType.ARTICLE, id, clientId);
     }
 
     @Override
-    public boolean unlikeArticle(Long id) {
-        return articleMapper.decrementLikeCount(id) > 0;
+    public LikeStatus unlikeArticle(Long id, String clientId) {
+        return likeService.unlike(ContentType.ARTICLE, id, clientId);
+    }
+
+    @Override
+    public LikeStatus getLikeStatus(Long id, String clientId) {
+        return likeService.getLikeStatus(ContentType.ARTICLE, id, clientId);
     }
 
     @Override
     public List<Article> getHotArticles(Integer limit) {
-        return articleMapper.selectHotArticles(limit != null ? limit : 10);
+        int size = limit != null ? limit : 10;
+        // 优先按时间衰减热度排行，不足时以累计热门补齐
+        List<Article> trending = new ArrayList<>(size);
+        for (Long id : trendingRanking.top(ContentType.ARTICLE, size * HOT_CANDIDATE_FACTOR)) {
+            Article article = articleDetailCache.get(id, articleMapper::selectArticleWithCategoryById);
+            if (article != null && Article.ArticleStatus.PUBLISHED.equals(article.getStatus())) {
+                trending.add(article);
+                if (trending.size() == size) {
+                    return trending;
+                }
+            }
+        }
+        Set<Long> seen = trending.stream().map(Article::getId).collect(Collectors.toSet());
+        getAllTimeHotArticles(size).stream()
+                .filter(article -> !seen.contains(article.getId()))
+                .limit(size - trending.size())
+                .forEach(trending::add);
+        return trending;
+    }
+
+    /**
+     * 累计热门文章
+     */
+    private List<Article> getAllTimeHotArticles(int size) {
+        // 按浏览量取候选集，再以窗口内独立访客数重排，削弱刷新和爬虫的影响
+        List<Article> candidates = articleListCache.get(ContentListCache.HOT, size * HOT_CANDIDATE_FACTOR);
+        Map<Long, Long> uniqueViews = uniqueVisitorCounter.count(ContentType.ARTICLE,
+                candidates.stream().map(Article::getId).toList(), uvWindowDays);
+        if (uniqueViews.isEmpty()) {
+            return candidates.subList(0, Math.min(size, candidates.size()));
+        }
+        // 快照中的实例为共享对象，在副本上设置独立访客数
+        return candidates.stream()
+                .map(candidate -> {
+                    Article article = new Article();
+                    BeanUtils.copyProperties(candidate, article);
+                    article.setUniqueViewCount(uniqueViews.getOrDefault(candidate.getId(), 0L));
+                    return article;
+                })
+                .sorted(Comparator.comparing(Article::getUniqueViewCount).reversed())
+                .limit(size)
+                .collect(Collectors.toList());
     }
 
     @Override
     public List<Article> getLatestArticles(Integer limit) {
-        return articleMapper.selectLatestArticles(limit != null ? limit : 10);
+        return articleListCache.get(ContentListCache.LATEST, limit != null ? limit : 10);
     }
 
     @Override
     public List<Article> getRecommendArticles(Integer limit) {
-        return articleMapper.selectRecommendArticles(limit != null ? limit : 5);
+        return articleListCache.get(ContentListCache.RECOMMEND, limit != null ? limit : 5);
     }
 
     @Override
     public List<Article> getArticlesByCategory(Long categoryId, Integer limit) {
-        return articleMapper.selectArticlesByCategoryId(categoryId, limit != null ? limit : 10);
+        if (categoryId == null) {
+            return List.of();
+        }
+        return articleListCache.get(ContentListCache.BY_CATEGORY, categoryId, limit != null ? limit : 10);
     }
 
     @Override
@@ -185,10 +350,77 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
     @Override
     public IPage<Article> searchArticles(String keyword, Integer pageNum, Integer pageSize) {
         Page<Article> page = new Page<>(pageNum != null ? pageNum : 1, pageSize != null ? pageSize : 10);
+        if (searchMode == SearchMode.MEMORY && articleSearchIndex.isReady()) {
+            return searchArticlesByIndex(page.getCurrent(), page.getSize(), keyword);
+        }
+        if (searchMode == SearchMode.FULLTEXT) {
+            String query = SearchQuery.parse(keyword).toBooleanMode();
+            return query.isEmpty() ? page : articleMapper.searchArticlesFulltext(page, query);
+        }
+        // LIKE模式，或索引首次构建完成前
         return articleMapper.searchArticles(page, keyword);
     }
 
     @Override
+    public SearchResult searchArticleHits(String keyword, int limit) {
+        if (searchMode == SearchMode.MEMORY && articleSearchIndex.isReady()) {
+            return articleSearchIndex.search(SearchQuery.parse(keyword), 0, limit);
+        }
+        Page<Article> page = new Page<>(1, limit);
+        if (searchMode == SearchMode.FULLTEXT) {
+            String query = SearchQuery.parse(keyword).toBooleanMode();
+            if (!query.isEmpty()) {
+                articleMapper.searchArticleIdsFulltext(page, query);
+            }
+        } else {
+            articleMapper.searchArticleIds(page, keyword);
+        }
+        // LIKE模式没有相关度，得分为0，由调用方按名次折算
+        List<SearchHit> hits = page.getRecords().stream()
+                .map(article -> new SearchHit(article.getId(),
+                        article.getSearchScore() != null ? article.getSearchScore() : 0, null, null))
+                .toList();
+        return new SearchResult(page.getTotal(), hits);
+    }
+
+    @Override
+    public List<Article> getArticlesByIds(List<Long> ids) {
+        List<Article> articles = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Article article = articleDetailCache.get(id, articleMapper::selectArticleWithCategoryById);
+            if (article != null) {
+                articles.add(article);
+            }
+        }
+        return articles;
+    }
+
+    private IPage<Article> searchArticlesByIndex(long current, long size, String keyword) {
+        SearchResultPage<Article> page = new SearchResultPage<>(current, size);
+        SearchResult result = articleSearchIndex.search(SearchQuery.parse(keyword),
+                (int) page.offset(), (int) page.getSize());
+        List<Article> records = new ArrayList<>(result.hits().size());
+        for (SearchHit hit : result.hits()) {
+            Article cached = articleDetailCache.get(hit.id(), articleMapper::selectArticleWithCategoryById);
+            if (cached == null) {
+                continue;
+            }
+            // 缓存实例为共享对象，高亮字段在副本上设置
+            Article article = new Article();
+            BeanUtils.copyProperties(cached, article);
+            article.setHighlightTitle(hit.title());
+            article.setHighlightSnippet(hit.snippet());
+            article.setSearchScore(hit.score());
+            records.add(article);
+        }
+        page.setRecords(records);
+        page.setTotal(result.total());
+        page.setSuggestion(result.suggestion());
+        return page;
+    }
+
+    @Override
+    @SingleFlight
     public Object getArticleStats() {
         return articleMapper.getArticleStats();
     }
@@ -208,6 +440,51 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         }
     }
 
+    /**
+     * 文章变更后失效详情缓存、增量更新列表快照并同步静态页面、搜索、联想与筛选索引；在事务提交后执行，避免并发读回填旧值
+     */
+    private void onArticleChanged(Long id) {
+        TransactionUtils.afterCommit(() -> {
+            articleDetailCache.evict(id);
+            articleListCache.upsert(id);
+            Article article = articleMapper.selectArticleWithCategoryById(id);
+            snapshotWriter.syncArticle(id, article);
+            searchIndexer.syncArticle(id, article);
+            suggestService.syncArticle(id, article);
+            articleFilterIndex.sync(id, article);
+            invalidationBus.publish(CachedEntity.ARTICLE, List.of(id));
+        });
+    }
+
+    private void onArticlesChanged(List<Long> ids) {
+        TransactionUtils.afterCommit(() -> {
+            ids.forEach(articleDetailCache::evict);
+            articleListCache.upsert(ids);
+            ids.forEach(id -> {
+                Article article = articleMapper.selectArticleWithCategoryById(id);
+                snapshotWriter.syncArticle(id, article);
+                searchIndexer.syncArticle(id, article);
+                suggestService.syncArticle(id, article);
+                articleFilterIndex.sync(id, article);
+            });
+            invalidationBus.publish(CachedEntity.ARTICLE, ids);
+        });
+    }
+
+    /**
+     * 其他节点变更文章后刷新本节点的进程内缓存、搜索、联想与筛选索引；二级缓存与静态快照已由发布节点处理
+     */
+    private void onRemoteArticlesChanged(List<Long> ids) {
+        ids.forEach(articleDetailCache::evictLocal);
+        articleListCache.upsert(ids);
+        ids.forEach(id -> {
+            Article article = articleMapper.selectArticleWithCategoryById(id);
+            searchIndexer.syncArticle(id, article);
+            suggestService.syncArticle(id, article);
+            articleFilterIndex.sync(id, article);
+        });
+    }
+
     /**
      * 生成文章摘要
      */
@@ -1,12 +1,19 @@
 package com.arkone.service.impl;
 
+import com.arkone.cache.CachedEntity;
+import com.arkone.cache.CategoryTreeCache;
+import com.arkone.cache.InvalidationBus;
 import com.arkone.entity.Category;
 import com.arkone.mapper.CategoryMapper;
 import com.arkone.service.CategoryService;
+import com.arkone.dto.ContentVersion;
 import com.arkone.dto.Result;
+import com.arkone.util.TransactionUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +22,7 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,6 +36,14 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> implements CategoryService {
 
     private final CategoryMapper categoryMapper;
+    private final CategoryTreeCache categoryTreeCache;
+    private final InvalidationBus invalidationBus;
+
+    @PostConstruct
+    public void subscribeInvalidation() {
+        // 分类树整体重建，其他节点的变更只需失效本地快照
+        invalidationBus.subscribe(CachedEntity.CATEGORY, ids -> categoryTreeCache.invalidate());
+    }
 
     @Override
     public Result<List<Category>> getCategoriesByType(Category.CategoryType type) {
@@ -118,7 +134,11 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
                 category.setSortOrder(0);
             }
             
-            return categoryMapper.insert(category) > 0;
+            boolean saved = categoryMapper.insert(category) > 0;
+            if (saved) {
+                onCategoryChanged(category.getId());
+            }
+            return saved;
         } catch (Exception e) {
             log.error("创建分类失败", e);
             return false;
@@ -141,7 +161,11 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
             }
             
             category.setUpdatedAt(LocalDateTime.now());
-            return categoryMapper.updateById(category) > 0;
+            boolean updated = categoryMapper.updateById(category) > 0;
+            if (updated) {
+                onCategoryChanged(category.getId());
+            }
+            return updated;
         } catch (Exception e) {
             log.error("更新分类失败，ID: {}", category.getId(), e);
             return false;
@@ -174,7 +198,11 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
                    .set(Category::getDeleted, 1)
                    .set(Category::getUpdatedAt, LocalDateTime.now());
             
-            return categoryMapper.update(null, wrapper) > 0;
+            boolean deleted = categoryMapper.update(null, wrapper) > 0;
+            if (deleted) {
+                onCategoryChanged(id);
+            }
+            return deleted;
         } catch (Exception e) {
             log.error("删除分类失败，ID: {}", id, e);
             return false;
@@ -220,44 +248,69 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
     @Override
     public Result<List<Category>> buildCategoryTree(Category.CategoryType type) {
         try {
-            // 获取所有该类型的分类
-            LambdaQueryWrapper<Category> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(Category::getDeleted, 0)
-                   .eq(Category::getStatus, Category.CategoryStatus.ACTIVE)
-                   .eq(Category::getType, type)
-                   .orderByAsc(Category::getSortOrder)
-                   .orderByAsc(Category::getCreatedAt);
-            
-            List<Category> allCategories = categoryMapper.selectList(wrapper);
-            
-            // 构建树形结构
-            List<Category> tree = buildTree(allCategories, null);
-            
-            return Result.success(tree);
+            return Result.success(categoryTreeCache.get(type, this::loadCategoryTree).tree());
+        } catch (Exception e) {
+            log.error("构建分类树失败，类型: {}", type, e);
+            return Result.error("构建失败");
+        }
+    }
+
+    @Override
+    public Result<RawValue> getCategoryTreeJson(Category.CategoryType type) {
+        try {
+            return Result.success(categoryTreeCache.get(type, this::loadCategoryTree).json());
         } catch (Exception e) {
             log.error("构建分类树失败，类型: {}", type, e);
             return Result.error("构建失败");
         }
     }
 
+    @Override
+    public ContentVersion getCategoryTreeVersion(Category.CategoryType type) {
+        return categoryTreeCache.get(type, this::loadCategoryTree).etag();
+    }
+
+    /**
+     * 查询该类型的全部启用分类并构建树
+     */
+    private List<Category> loadCategoryTree(Category.CategoryType type) {
+        LambdaQueryWrapper<Category> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Category::getDeleted, 0)
+               .eq(Category::getStatus, Category.CategoryStatus.ACTIVE)
+               .eq(Category::getType, type)
+               .orderByAsc(Category::getSortOrder)
+               .orderByAsc(Category::getCreatedAt);
+
+        return buildTree(categoryMapper.selectList(wrapper));
+    }
+
     /**
-     * 递归构建分类树
+     * 按父分类ID分组后一次遍历构建分类树，同级保持查询顺序
      */
-    private List<Category> buildTree(List<Category> allCategories, Long parentId) {
-        List<Category> tree = new ArrayList<>();
-        
+    private List<Category> buildTree(List<Category> allCategories) {
+        Map<Long, List<Category>> childrenByParent = new HashMap<>();
+        List<Category> roots = new ArrayList<>();
         for (Category category : allCategories) {
-            if ((parentId == null && category.getParentId() == null) ||
-                (parentId != null && parentId.equals(category.getParentId()))) {
-                
-                // 递归查找子分类
-                List<Category> children = buildTree(allCategories, category.getId());
-                // 注意：Category实体类中没有children字段，这里需要根据实际需求处理
-                
-                tree.add(category);
+            // parent_id列默认值为0，与null一样表示顶级分类
+            if (category.getParentId() == null || category.getParentId() == 0L) {
+                roots.add(category);
+            } else {
+                childrenByParent.computeIfAbsent(category.getParentId(), key -> new ArrayList<>()).add(category);
             }
         }
-        
-        return tree;
+        for (Category category : allCategories) {
+            category.setChildren(List.copyOf(childrenByParent.getOrDefault(category.getId(), List.of())));
+        }
+        return roots;
+    }
+
+    /**
+     * 分类变更后在事务提交后失效分类树缓存，并通知其他节点
+     */
+    private void onCategoryChanged(Long id) {
+        TransactionUtils.afterCommit(() -> {
+            categoryTreeCache.invalidate();
+            invalidationBus.publish(CachedEntity.CATEGORY, List.of(id));
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package com.arkone.service.impl;
+
+import com.arkone.counter.CounterEntry;
+import com.arkone.counter.TrendingRanking;
+import com.arkone.dto.LikeStatus;
+import com.arkone.entity.ContentType;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.arkone.service.LikeService;
+import com.arkone.util.RedisKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 点赞服务实现类
+ * <p>
+ * 每个内容的点赞客户端保存在 Redis Set 中，点赞数保存在 Redis Hash 中，
+ * 点赞/取消点赞通过 Lua 脚本原子完成并记录待刷盘ID，由定时任务批量写回数据库。
+ * 刷盘时先把一批ID原子地移入刷盘中集合，写库成功后再删除，进程崩溃时这些ID在下一周期重新刷盘；
+ * 写回的是绝对点赞数，重复刷盘是幂等的。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LikeServiceImpl implements LikeService {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LIKE_TOGGLE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/like_toggle.lua"), List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LIKE_CLAIM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/like_claim.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ArticleMapper articleMapper;
+    private final AiNewsMapper aiNewsMapper;
+    private final TrendingRanking trendingRanking;
+
+    @Value("${arkone.like.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public LikeStatus like(ContentType type, Long id, String clientId) {
+        return toggle(type, id, clientId, 1);
+    }
+
+    @Override
+    public LikeStatus unlike(ContentType type, Long id, String clientId) {
+        return toggle(type, id, clientId, -1);
+    }
+
+    @Override
+    public LikeStatus getLikeStatus(ContentType type, Long id, String clientId) {
+        if (!ensureLoaded(type, id)) {
+            return null;
+        }
+        Boolean liked = redisTemplate.opsForSet().isMember(RedisKeys.likeUsers(type, id), clientId);
+        return new LikeStatus(Boolean.TRUE.equals(liked), getLikeCount(type, id));
+    }
+
+    @Override
+    public Long getLikeCount(ContentType type, Long id) {
+        Object count = redisTemplate.opsForHash().get(RedisKeys.likeCounts(type), String.valueOf(id));
+        return count != null ? Long.valueOf(count.toString()) : null;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${arkone.like.flush-interval:10000}")
+    public void flushLikeCounts() {
+        for (ContentType type : ContentType.values()) {
+            try {
+                flushLikeCounts(type);
+            } catch (Exception e) {
+                log.error("点赞数刷盘失败，类型: {}", type, e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void flushLikeCounts(ContentType type) {
+        String processingKey = RedisKeys.likeProcessing(type);
+        while (true) {
+            List<String> ids = redisTemplate.execute(LIKE_CLAIM_SCRIPT,
+                    List.of(RedisKeys.likeDirty(type), processingKey), String.valueOf(batchSize));
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            List<Object> counts = redisTemplate.opsForHash().multiGet(RedisKeys.likeCounts(type), new ArrayList<>(ids));
+            List<CounterEntry> entries = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                Object count = counts.get(i);
+                if (count != null) {
+                    entries.add(new CounterEntry(Long.valueOf(ids.get(i)), Long.parseLong(count.toString())));
+                }
+            }
+            // 写库失败时ID留在刷盘中集合，下一周期优先重试
+            if (!entries.isEmpty()) {
+                switch (type) {
+                    case ARTICLE -> articleMapper.batchUpdateLikeCount(entries);
+                    case NEWS -> aiNewsMapper.batchUpdateLikeCount(entries);
+                }
+            }
+            redisTemplate.opsForSet().remove(processingKey, ids.toArray());
+            log.debug("点赞数刷盘完成，类型: {}, 条数: {}", type, entries.size());
+        }
+    }
+
+    private LikeStatus toggle(ContentType type, Long id, String clientId, int op) {
+        if (!ensureLoaded(type, id)) {
+            return null;
+        }
+        List<?> result = redisTemplate.execute(LIKE_TOGGLE_SCRIPT,
+                List.of(RedisKeys.likeUsers(type, id), RedisKeys.likeCounts(type), RedisKeys.likeDirty(type)),
+                clientId, String.valueOf(id), String.valueOf(op));
+        Long count = result != null && result.size() == 2 ? ((Number) result.get(1)).longValue() : 0L;
+        if (result != null && !result.isEmpty() && ((Number) result.get(0)).longValue() == 1) {
+            trendingRanking.recordLike(type, id, op);
+        }
+        return new LikeStatus(op > 0, count);
+    }
+
+    /**
+     * 首次访问时以数据库中的点赞数初始化Redis计数，内容不存在时返回false
+     */
+    private boolean ensureLoaded(ContentType type, Long id) {
+        String countsKey = RedisKeys.likeCounts(type);
+        String field = String.valueOf(id);
+        if (redisTemplate.opsForHash().hasKey(countsKey, field)) {
+            return true;
+        }
+        Integer likeCount = switch (type) {
+            case ARTICLE -> articleMapper.selectLikeCount(id);
+            case NEWS -> aiNewsMapper.selectLikeCount(id);
+        };
+        if (likeCount == null) {
+            return false;
+        }
+        redisTemplate.opsForHash().putIfAbsent(countsKey, field, String.valueOf(likeCount));
+        return true;
+    }
+}
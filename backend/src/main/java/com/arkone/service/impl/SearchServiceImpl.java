@@ -0,0 +1,350 @@
+package com.arkone.service.impl;
+
+import com.arkone.cache.TagDictionary;
+import com.arkone.dto.SearchItem;
+import com.arkone.dto.SearchPage;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.Tag;
+import com.arkone.search.Highlighter;
+import com.arkone.search.SearchHit;
+import com.arkone.search.SearchResult;
+import com.arkone.search.SearchType;
+import com.arkone.search.SuggestIndex;
+import com.arkone.service.AiNewsService;
+import com.arkone.service.ArticleService;
+import com.arkone.service.SearchService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 综合搜索服务实现类
+ * <p>
+ * 三类内容并行检索，每类取前 页码×每页大小 条（不超过最大深度）的ID、得分与高亮，不读取正文；
+ * 各类得分除以该类最高分归一化到 (0, 1]，没有相关度的回退查询（LIKE）按名次折算。合并时从第一页起逐页按得分挑选，
+ * 每页中每类不超过配额，其他类型不足以填满时放宽配额，因此同一查询各页之间不重不漏。
+ * 合并出当前页后只为该页的条目经详情缓存读取标题、封面等展示字段。
+ * 超出最大深度的结果翻不到，总数不超过最大深度。某类检索超时或失败时只返回其他类型的结果。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final ArticleService articleService;
+    private final AiNewsService aiNewsService;
+    private final TagDictionary tagDictionary;
+
+    @Value("${arkone.search.unified.max-depth:200}")
+    private int maxDepth;
+
+    @Value("${arkone.search.unified.timeout:2s}")
+    private Duration timeout;
+
+    @Value("${arkone.search.unified.threads:8}")
+    private int threads;
+
+    @Value("${arkone.search.unified.quota.article:0.6}")
+    private double articleQuota;
+
+    @Value("${arkone.search.unified.quota.news:0.6}")
+    private double newsQuota;
+
+    @Value("${arkone.search.unified.quota.tag:0.2}")
+    private double tagQuota;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "unified-search-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public SearchPage search(String keyword, Integer pageNum, Integer pageSize) {
+        int current = pageNum != null && pageNum > 0 ? pageNum : 1;
+        int size = pageSize != null && pageSize > 0 ? pageSize : 10;
+        SearchPage page = new SearchPage();
+        page.setCurrent(current);
+        page.setSize(size);
+        page.setRecords(List.of());
+        page.setTotal(0L);
+        page.setTypeTotals(new EnumMap<>(SearchType.class));
+        if (!StringUtils.hasText(keyword)) {
+            return page;
+        }
+        int depth = Math.min(current * size, maxDepth);
+
+        Map<SearchType, CompletableFuture<Ranked>> futures = new EnumMap<>(SearchType.class);
+        futures.put(SearchType.ARTICLE, CompletableFuture.supplyAsync(() -> searchArticles(keyword, depth), executor));
+        futures.put(SearchType.NEWS, CompletableFuture.supplyAsync(() -> searchNews(keyword, depth), executor));
+        futures.put(SearchType.TAG, CompletableFuture.supplyAsync(() -> searchTags(keyword, depth), executor));
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<SearchType, Ranked> results = new EnumMap<>(SearchType.class);
+        futures.forEach((type, future) -> {
+            try {
+                results.put(type, future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("综合搜索超时，跳过类型: {}, 关键词: {}", type, keyword);
+            } catch (Exception e) {
+                log.error("综合搜索失败，跳过类型: {}, 关键词: {}", type, keyword, e);
+            }
+        });
+
+        results.forEach((type, ranked) -> page.getTypeTotals().put(type, ranked.total()));
+        // 每类最多取maxDepth条，超出部分翻不到，总数按可翻页的条数报告
+        page.setTotal(Math.min(results.values().stream().mapToLong(Ranked::total).sum(), maxDepth));
+        page.setSuggestion(results.values().stream().map(Ranked::suggestion)
+                .filter(Objects::nonNull).findFirst().orElse(null));
+        if ((long) (current - 1) * size < depth) {
+            page.setRecords(load(merge(results, current, size)));
+        }
+        return page;
+    }
+
+    /**
+     * 从第一页起逐页挑选，返回第current页
+     */
+    private List<SearchItem> merge(Map<SearchType, Ranked> results, int current, int size) {
+        Map<SearchType, Integer> cursors = new EnumMap<>(SearchType.class);
+        Map<SearchType, Integer> quotas = new EnumMap<>(SearchType.class);
+        results.keySet().forEach(type -> {
+            cursors.put(type, 0);
+            quotas.put(type, Math.max(1, (int) Math.ceil(quota(type) * size)));
+        });
+        List<SearchItem> selected = List.of();
+        for (int pageIndex = 1; pageIndex <= current; pageIndex++) {
+            selected = new ArrayList<>(size);
+            Map<SearchType, Integer> used = new EnumMap<>(SearchType.class);
+            while (selected.size() < size) {
+                SearchType next = pick(results, cursors, used, quotas, true);
+                if (next == null) {
+                    next = pick(results, cursors, used, quotas, false);
+                }
+                if (next == null) {
+                    break;
+                }
+                int cursor = cursors.get(next);
+                selected.add(results.get(next).items().get(cursor));
+                cursors.put(next, cursor + 1);
+                used.merge(next, 1, Integer::sum);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 选出下一条得分最高的类型；withinQuota为true时跳过本页已达配额的类型
+     */
+    private SearchType pick(Map<SearchType, Ranked> results, Map<SearchType, Integer> cursors,
+                            Map<SearchType, Integer> used, Map<SearchType, Integer> quotas, boolean withinQuota) {
+        SearchType best = null;
+        double bestScore = -1;
+        for (Map.Entry<SearchType, Ranked> entry : results.entrySet()) {
+            SearchType type = entry.getKey();
+            List<SearchItem> items = entry.getValue().items();
+            int cursor = cursors.get(type);
+            if (cursor >= items.size() || (withinQuota && used.getOrDefault(type, 0) >= quotas.get(type))) {
+                continue;
+            }
+            double score = items.get(cursor).getScore();
+            if (score > bestScore) {
+                best = type;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private double quota(SearchType type) {
+        return switch (type) {
+            case ARTICLE -> articleQuota;
+            case NEWS -> newsQuota;
+            case TAG -> tagQuota;
+        };
+    }
+
+    private Ranked searchArticles(String keyword, int depth) {
+        return ranked(SearchType.ARTICLE, articleService.searchArticleHits(keyword, depth));
+    }
+
+    private Ranked searchNews(String keyword, int depth) {
+        return ranked(SearchType.NEWS, aiNewsService.searchAiNewsHits(keyword, depth));
+    }
+
+    /**
+     * 命中转为只含ID、得分与高亮的条目，标题、封面等在合并出当前页后由 {@link #load} 补齐
+     */
+    private static Ranked ranked(SearchType type, SearchResult result) {
+        return normalize(result.total(), result.hits(), result.suggestion(), SearchHit::score, hit -> {
+            SearchItem item = new SearchItem();
+            item.setType(type);
+            item.setId(hit.id());
+            item.setHighlightTitle(hit.title());
+            item.setSnippet(hit.snippet());
+            return item;
+        });
+    }
+
+    /**
+     * 只为当前页的文章与新闻读取详情（经详情缓存），补齐展示字段；两次读取之间被删除或下线的内容从本页移除
+     */
+    private List<SearchItem> load(List<SearchItem> selected) {
+        Map<Long, Article> articles = new HashMap<>();
+        articleService.getArticlesByIds(idsOf(selected, SearchType.ARTICLE))
+                .forEach(article -> articles.put(article.getId(), article));
+        Map<Long, AiNews> news = new HashMap<>();
+        aiNewsService.getAiNewsByIds(idsOf(selected, SearchType.NEWS))
+                .forEach(aiNews -> news.put(aiNews.getId(), aiNews));
+        List<SearchItem> loaded = new ArrayList<>(selected.size());
+        for (SearchItem item : selected) {
+            switch (item.getType()) {
+                case ARTICLE -> {
+                    Article article = articles.get(item.getId());
+                    if (article == null) {
+                        continue;
+                    }
+                    fill(item, article.getTitle(), article.getSummary(), article.getCoverImage(),
+                            article.getPublishTime(), article.getViewCount());
+                }
+                case NEWS -> {
+                    AiNews aiNews = news.get(item.getId());
+                    if (aiNews == null) {
+                        continue;
+                    }
+                    fill(item, aiNews.getTitle(), aiNews.getSummary(), aiNews.getCoverImage(),
+                            aiNews.getPublishedAt(), aiNews.getViewCount());
+                }
+                case TAG -> {
+                }
+            }
+            loaded.add(item);
+        }
+        return loaded;
+    }
+
+    private static List<Long> idsOf(List<SearchItem> items, SearchType type) {
+        return items.stream().filter(item -> item.getType() == type).map(SearchItem::getId).toList();
+    }
+
+    private static void fill(SearchItem item, String title, String summary, String coverImage,
+                             LocalDateTime publishedAt, Integer viewCount) {
+        item.setTitle(title);
+        if (item.getSnippet() == null) {
+            item.setSnippet(summary);
+        }
+        item.setCoverImage(coverImage);
+        item.setPublishedAt(publishedAt);
+        item.setViewCount(viewCount);
+    }
+
+    /**
+     * 标签在内存字典中匹配：名称相同、前缀、包含、被查询包含依次递减，同分按使用次数排序
+     */
+    private Ranked searchTags(String keyword, int depth) {
+        String normalized = SuggestIndex.normalize(keyword);
+        List<Tag> matched = new ArrayList<>();
+        Map<Long, Double> scoreById = new HashMap<>();
+        for (Tag tag : tagDictionary.values()) {
+            if (!Tag.TagStatus.ACTIVE.equals(tag.getStatus())) {
+                continue;
+            }
+            String name = SuggestIndex.normalize(tag.getName());
+            double score;
+            if (name.isEmpty()) {
+                continue;
+            } else if (name.equals(normalized)) {
+                score = 1.0;
+            } else if (name.startsWith(normalized)) {
+                score = 0.8;
+            } else if (name.contains(normalized)) {
+                score = 0.6;
+            } else if (normalized.contains(name)) {
+                score = 0.4;
+            } else {
+                continue;
+            }
+            matched.add(tag);
+            scoreById.put(tag.getId(), score);
+        }
+        matched.sort(Comparator.comparing((Tag tag) -> scoreById.get(tag.getId())).reversed()
+                .thenComparing(tag -> tag.getUsageCount() != null ? tag.getUsageCount() : 0, Comparator.reverseOrder()));
+        List<String> highlights = List.of(keyword.trim());
+        List<SearchItem> items = new ArrayList<>(Math.min(depth, matched.size()));
+        for (Tag tag : matched.subList(0, Math.min(depth, matched.size()))) {
+            SearchItem item = new SearchItem();
+            item.setType(SearchType.TAG);
+            item.setId(tag.getId());
+            item.setTitle(tag.getName());
+            item.setHighlightTitle(Highlighter.highlight(tag.getName(), highlights));
+            item.setSnippet(tag.getDescription());
+            item.setViewCount(tag.getUsageCount());
+            item.setScore(scoreById.get(tag.getId()));
+            items.add(item);
+        }
+        return new Ranked(matched.size(), items, null);
+    }
+
+    /**
+     * 得分除以本类最高分；没有得分时按名次折算
+     */
+    private static <T> Ranked normalize(long total, List<T> records, String suggestion, Function<T, Double> score,
+                                        Function<T, SearchItem> converter) {
+        double max = records.stream().map(score).filter(value -> value != null && value > 0)
+                .mapToDouble(Double::doubleValue).max().orElse(0);
+        List<SearchItem> items = new ArrayList<>(records.size());
+        for (int rank = 0; rank < records.size(); rank++) {
+            T record = records.get(rank);
+            Double value = score.apply(record);
+            SearchItem item = converter.apply(record);
+            item.setScore(max > 0 && value != null ? value / max : 1.0 - (double) rank / records.size());
+            items.add(item);
+        }
+        return new Ranked(total, items, suggestion);
+    }
+
+    /**
+     * 单类检索结果
+     *
+     * @param suggestion 原关键词无结果时纠正拼写后的关键词
+     */
+    private record Ranked(long total, List<SearchItem> items, String suggestion) {
+    }
+}
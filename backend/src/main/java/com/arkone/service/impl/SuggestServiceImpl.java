@@ -0,0 +1,178 @@
+package com.arkone.service.impl;
+
+import com.arkone.config.SchedulingConfig;
+import com.arkone.dto.SuggestResult;
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.Tag;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.arkone.mapper.TagMapper;
+import com.arkone.search.SearchType;
+import com.arkone.search.SuggestIndex;
+import com.arkone.search.Suggestion;
+import com.arkone.service.SuggestService;
+import com.arkone.util.KeysetScan;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 输入联想服务实现类
+ * <p>
+ * 每类内容一个前缀索引，按热度（标签使用次数、浏览量）排序。浏览量由计数缓冲异步刷盘，
+ * 写入时同步的是当时的数据库值，热度变化由定时全量重建吸收。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+
+    private final ArticleMapper articleMapper;
+    private final AiNewsMapper aiNewsMapper;
+    private final TagMapper tagMapper;
+
+    @Value("${arkone.suggest.max-prefix-length:16}")
+    private int maxPrefixLength;
+
+    @Value("${arkone.suggest.max-results:10}")
+    private int maxResults;
+
+    @Value("${arkone.suggest.batch-size:2000}")
+    private int batchSize;
+
+    private final Map<SearchType, SuggestIndex> indexes = new EnumMap<>(SearchType.class);
+
+    @PostConstruct
+    public void init() {
+        for (SearchType type : SearchType.values()) {
+            indexes.put(type, new SuggestIndex(maxPrefixLength, maxResults));
+        }
+    }
+
+    @Override
+    public SuggestResult suggest(String prefix, Integer limit) {
+        int size = Math.min(limit != null && limit > 0 ? limit : maxResults, maxResults);
+        // 同名标签可能分属不同类型，只保留热度最高的一个
+        Set<String> seen = new HashSet<>();
+        List<Suggestion> tags = indexes.get(SearchType.TAG).suggest(prefix, maxResults).stream()
+                .filter(tag -> seen.add(SuggestIndex.normalize(tag.text())))
+                .limit(size)
+                .toList();
+        return new SuggestResult(
+                tags,
+                indexes.get(SearchType.ARTICLE).suggest(prefix, size),
+                indexes.get(SearchType.NEWS).suggest(prefix, size));
+    }
+
+    @Override
+    public void syncArticle(Long id, Article article) {
+        SuggestIndex index = indexes.get(SearchType.ARTICLE);
+        if (article != null && Article.ArticleStatus.PUBLISHED.equals(article.getStatus())) {
+            index.upsert(toSuggestion(article));
+        } else {
+            index.remove(id);
+        }
+    }
+
+    @Override
+    public void syncAiNews(Long id, AiNews aiNews) {
+        SuggestIndex index = indexes.get(SearchType.NEWS);
+        if (aiNews != null && AiNews.NewsStatus.PUBLISHED.equals(aiNews.getStatus())) {
+            index.upsert(toSuggestion(aiNews));
+        } else {
+            index.remove(id);
+        }
+    }
+
+    @Override
+    public void syncTags(Collection<Tag> tags) {
+        SuggestIndex index = indexes.get(SearchType.TAG);
+        for (Tag tag : tags) {
+            if (Tag.TagStatus.ACTIVE.equals(tag.getStatus()) && (tag.getDeleted() == null || tag.getDeleted() == 0)) {
+                index.upsert(toSuggestion(tag));
+            } else {
+                index.remove(tag.getId());
+            }
+        }
+    }
+
+    @Override
+    public void removeTags(Collection<Long> ids) {
+        ids.forEach(indexes.get(SearchType.TAG)::remove);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${arkone.suggest.rebuild-interval:600000}",
+            fixedDelayString = "${arkone.suggest.rebuild-interval:600000}",
+            scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public synchronized void rebuild() {
+        rebuild(SearchType.TAG, tagMapper, Tag::getId, wrapper -> wrapper
+                .select(Tag::getId, Tag::getName, Tag::getUsageCount)
+                .eq(Tag::getStatus, Tag.TagStatus.ACTIVE), SuggestServiceImpl::toSuggestion);
+        rebuild(SearchType.ARTICLE, articleMapper, Article::getId, wrapper -> wrapper
+                .select(Article::getId, Article::getTitle, Article::getViewCount)
+                .eq(Article::getStatus, Article.ArticleStatus.PUBLISHED), SuggestServiceImpl::toSuggestion);
+        rebuild(SearchType.NEWS, aiNewsMapper, AiNews::getId, wrapper -> wrapper
+                .select(AiNews::getId, AiNews::getTitle, AiNews::getViewCount)
+                .eq(AiNews::getStatus, AiNews.NewsStatus.PUBLISHED), SuggestServiceImpl::toSuggestion);
+    }
+
+    /**
+     * 按ID分批读取并重建一类索引
+     */
+    private <T> void rebuild(SearchType type, BaseMapper<T> mapper, SFunction<T, Long> id,
+                             Consumer<LambdaQueryWrapper<T>> condition, Function<T, Suggestion> toSuggestion) {
+        SuggestIndex.Rebuild rebuild = indexes.get(type).startRebuild();
+        try {
+            long count = KeysetScan.forEachBatch(mapper, id, condition, batchSize,
+                    batch -> batch.forEach(item -> rebuild.add(toSuggestion.apply(item))));
+            rebuild.commit();
+            log.info("输入联想索引重建完成，类型: {}, 条数: {}", type, count);
+        } catch (Exception e) {
+            rebuild.abort();
+            log.error("输入联想索引重建失败，类型: {}", type, e);
+        }
+    }
+
+    private static Suggestion toSuggestion(Tag tag) {
+        return new Suggestion(SearchType.TAG, tag.getId(), tag.getName(), valueOf(tag.getUsageCount()));
+    }
+
+    private static Suggestion toSuggestion(Article article) {
+        return new Suggestion(SearchType.ARTICLE, article.getId(), article.getTitle(), valueOf(article.getViewCount()));
+    }
+
+    private static Suggestion toSuggestion(AiNews aiNews) {
+        return new Suggestion(SearchType.NEWS, aiNews.getId(), aiNews.getTitle(), valueOf(aiNews.getViewCount()));
+    }
+
+    private static long valueOf(Integer count) {
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,213 @@
+package com.arkone.service.impl;
+
+import com.arkone.cache.CachedEntity;
+import com.arkone.cache.InvalidationBus;
+import com.arkone.dto.Result;
+import com.arkone.entity.SystemConfig;
+import com.arkone.mapper.SystemConfigMapper;
+import com.arkone.service.SystemConfigService;
+import com.arkone.util.TransactionUtils;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 系统配置服务实现类
+ * <p>
+ * 整张配置表以不可变快照常驻内存，值在加载时按类型预先解析，读取只做一次哈希查找，
+ * 布尔与整数配置直接返回基本类型。定时比较表的版本戳（行数、最大更新时间、内容校验和），
+ * 变化时整体重新加载；通过本服务修改的配置在提交后立即刷新，并经失效总线通知其他节点。
+ * 系统配置（is_system）只能在数据库中维护，接口修改的值须符合配置类型。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SystemConfigServiceImpl implements SystemConfigService {
+
+    private static final String TYPE_STRING = "string";
+    private static final String TYPE_NUMBER = "number";
+    private static final String TYPE_BOOLEAN = "boolean";
+    private static final String TYPE_JSON = "json";
+
+    private final SystemConfigMapper systemConfigMapper;
+    private final InvalidationBus invalidationBus;
+    private final ObjectMapper objectMapper;
+
+    private volatile ConfigSnapshot snapshot;
+
+    @PostConstruct
+    public void subscribeInvalidation() {
+        invalidationBus.subscribe(CachedEntity.CONFIG, ids -> reload());
+    }
+
+    @Override
+    public String getString(String key, String defaultValue) {
+        Entry entry = snapshot().entries().get(key);
+        return entry != null && entry.value() != null ? entry.value() : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Entry entry = snapshot().entries().get(key);
+        return entry != null && entry.booleanValid() ? entry.booleanValue() : defaultValue;
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        Entry entry = snapshot().entries().get(key);
+        return entry != null && entry.longValid() ? entry.longValue() : defaultValue;
+    }
+
+    @Override
+    public List<SystemConfig> getAll() {
+        return snapshot().configs();
+    }
+
+    @Override
+    @Transactional
+    public Result<Void> updateValue(String key, String value) {
+        SystemConfig config = systemConfigMapper.selectOne(new LambdaQueryWrapper<SystemConfig>()
+                .eq(SystemConfig::getConfigKey, key));
+        if (config == null) {
+            return Result.error("配置不存在");
+        }
+        if (Boolean.TRUE.equals(config.getIsSystem())) {
+            return Result.error("系统配置不允许修改");
+        }
+        if (!isValid(config.getConfigType(), value)) {
+            return Result.error("配置值与类型不符: " + config.getConfigType());
+        }
+        // 更新条件中再次排除系统配置，防止读取后被并发改为系统配置
+        if (systemConfigMapper.updateValueByKey(key, value) == 0) {
+            return Result.error("系统配置不允许修改");
+        }
+        TransactionUtils.afterCommit(() -> {
+            reload();
+            invalidationBus.publish(CachedEntity.CONFIG, List.of(0L));
+        });
+        return Result.success();
+    }
+
+    /**
+     * 按配置类型校验值；布尔只接受true/false，数值为十进制数，json须能完整解析
+     */
+    private boolean isValid(String type, String value) {
+        if (value == null) {
+            return false;
+        }
+        String trimmed = value.trim();
+        switch (type != null ? type : TYPE_STRING) {
+            case TYPE_STRING:
+                return true;
+            case TYPE_NUMBER:
+                try {
+                    new BigDecimal(trimmed);
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            case TYPE_BOOLEAN:
+                return "true".equalsIgnoreCase(trimmed) || "false".equalsIgnoreCase(trimmed);
+            case TYPE_JSON:
+                try {
+                    objectMapper.readTree(trimmed);
+                    return !trimmed.isEmpty();
+                } catch (JsonProcessingException e) {
+                    return false;
+                }
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${arkone.system-config.poll-interval:30000}",
+            fixedDelayString = "${arkone.system-config.poll-interval:30000}")
+    public void refreshIfChanged() {
+        try {
+            ConfigSnapshot current = snapshot;
+            if (current == null || !Objects.equals(current.stamp(), systemConfigMapper.selectVersionStamp())) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("检查系统配置版本失败，沿用当前快照", e);
+        }
+    }
+
+    private ConfigSnapshot snapshot() {
+        ConfigSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized void reload() {
+        try {
+            snapshot = load();
+        } catch (Exception e) {
+            log.error("系统配置重新加载失败，沿用当前快照", e);
+        }
+    }
+
+    private ConfigSnapshot load() {
+        // 先取版本戳再读数据，期间的修改最多导致下一次轮询多加载一次
+        String stamp = systemConfigMapper.selectVersionStamp();
+        List<SystemConfig> configs = systemConfigMapper.selectList(null);
+        Map<String, Entry> entries = new HashMap<>(configs.size() * 2);
+        for (SystemConfig config : configs) {
+            entries.put(config.getConfigKey(), Entry.parse(config.getConfigValue()));
+        }
+        log.info("系统配置加载完成，条数: {}", entries.size());
+        return new ConfigSnapshot(stamp, Map.copyOf(entries), List.copyOf(configs));
+    }
+
+    private record ConfigSnapshot(String stamp, Map<String, Entry> entries, List<SystemConfig> configs) {
+    }
+
+    /**
+     * 预先解析的配置值
+     */
+    private record Entry(String value, boolean booleanValid, boolean booleanValue, boolean longValid, long longValue) {
+
+        static Entry parse(String value) {
+            String trimmed = value != null ? value.trim() : "";
+            boolean booleanValid = true;
+            boolean booleanValue = false;
+            switch (trimmed.toLowerCase()) {
+                case "true", "1", "yes", "on" -> booleanValue = true;
+                case "false", "0", "no", "off" -> booleanValue = false;
+                default -> booleanValid = false;
+            }
+            boolean longValid = true;
+            long longValue = 0L;
+            try {
+                longValue = Long.parseLong(trimmed);
+            } catch (NumberFormatException e) {
+                longValid = false;
+            }
+            return new Entry(value, booleanValid, booleanValue, longValid, longValue);
+        }
+    }
+}
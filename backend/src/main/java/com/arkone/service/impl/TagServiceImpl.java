@@ -1,14 +1,21 @@
 package com.arkone.service.impl;
 
+import com.arkone.cache.CachedEntity;
+import com.arkone.cache.InvalidationBus;
+import com.arkone.cache.TagDictionary;
 import com.arkone.dto.PageQuery;
 import com.arkone.dto.Result;
 import com.arkone.entity.Tag;
 import com.arkone.mapper.TagMapper;
+import com.arkone.service.SuggestService;
 import com.arkone.service.TagService;
+import com.arkone.util.TransactionUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,6 +38,14 @@ import java.util.stream.Collectors;
 public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagService {
 
     private final TagMapper tagMapper;
+    private final TagDictionary tagDictionary;
+    private final InvalidationBus invalidationBus;
+    private final SuggestService suggestService;
+
+    @PostConstruct
+    public void subscribeInvalidation() {
+        invalidationBus.subscribe(CachedEntity.TAG, this::syncDictionary);
+    }
 
     @Override
     public Result<Page<Tag>> getTagPage(PageQuery pageQuery) {
@@ -99,7 +114,11 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagSe
             tag.setCreatedAt(LocalDateTime.now());
             tag.setUpdatedAt(LocalDateTime.now());
             
-            return tagMapper.insert(tag) > 0;
+            boolean saved = tagMapper.insert(tag) > 0;
+            if (saved) {
+                onTagChanged(tag.getId());
+            }
+            return saved;
         } catch (Exception e) {
             log.error("保存标签失败", e);
             return false;
@@ -122,7 +141,11 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagSe
             }
             
             tag.setUpdatedAt(LocalDateTime.now());
-            return tagMapper.updateById(tag) > 0;
+            boolean updated = tagMapper.updateById(tag) > 0;
+            if (updated) {
+                onTagChanged(tag.getId());
+            }
+            return updated;
         } catch (Exception e) {
             log.error("更新标签失败，ID: {}", tag.getId(), e);
             return false;
@@ -145,7 +168,11 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagSe
                    .set(Tag::getDeleted, 1)
                    .set(Tag::getUpdatedAt, LocalDateTime.now());
             
-            return tagMapper.update(null, wrapper) > 0;
+            boolean deleted = tagMapper.update(null, wrapper) > 0;
+            if (deleted) {
+                onTagsRemoved(List.of(id));
+            }
+            return deleted;
         } catch (Exception e) {
             log.error("删除标签失败，ID: {}", id, e);
             return false;
@@ -174,7 +201,11 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagSe
                    .set(Tag::getDeleted, 1)
                    .set(Tag::getUpdatedAt, LocalDateTime.now());
             
-            return tagMapper.update(null, wrapper) > 0;
+            boolean deleted = tagMapper.update(null, wrapper) > 0;
+            if (deleted) {
+                onTagsRemoved(ids);
+            }
+            return deleted;
         } catch (Exception e) {
             log.error("批量删除标签失败，IDs: {}", ids, e);
             return false;
@@ -254,16 +285,8 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagSe
                 return false;
             }
             
-            LambdaQueryWrapper<Tag> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(Tag::getName, name)
-                   .eq(Tag::getType, type)
-                   .eq(Tag::getDeleted, 0);
-            
-            if (excludeId != null) {
-                wrapper.ne(Tag::getId, excludeId);
-            }
-            
-            return tagMapper.selectCount(wrapper) > 0;
+            Tag existing = tagDictionary.get(name, type);
+            return existing != null && !existing.getId().equals(excludeId);
         } catch (Exception e) {
             log.error("检查标签名称是否存在失败，名称: {}", name, e);
             return false;
@@ -350,41 +373,14 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagSe
     @Override
     @Transactional
     public Result<Tag> getOrCreateTagByName(String name, Tag.TagType type) {
-        try {
-            if (!StringUtils.hasText(name) || type == null) {
-                return Result.error("标签名称和类型不能为空");
-            }
-            
-            // 先查询是否存在
-            LambdaQueryWrapper<Tag> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(Tag::getName, name)
-                   .eq(Tag::getType, type)
-                   .eq(Tag::getDeleted, 0);
-            
-            Tag existingTag = tagMapper.selectOne(wrapper);
-            if (existingTag != null) {
-                return Result.success(existingTag);
-            }
-            
-            // 不存在则创建
-            Tag newTag = new Tag();
-            newTag.setName(name);
-            newTag.setType(type);
-            newTag.setStatus(Tag.TagStatus.ACTIVE);
-            newTag.setSortOrder(0);
-            newTag.setUsageCount(0);
-            newTag.setCreatedAt(LocalDateTime.now());
-            newTag.setUpdatedAt(LocalDateTime.now());
-            
-            if (tagMapper.insert(newTag) > 0) {
-                return Result.success(newTag);
-            } else {
-                return Result.error("创建标签失败");
-            }
-        } catch (Exception e) {
-            log.error("根据名称获取或创建标签失败，名称: {}, 类型: {}", name, type, e);
-            return Result.error("操作失败");
+        if (!StringUtils.hasText(name) || type == null) {
+            return Result.error("标签名称和类型不能为空");
+        }
+        Result<List<Tag>> result = getOrCreateTagsByNames(List.of(name), type);
+        if (!result.isSuccess()) {
+            return Result.error(result.getMessage());
         }
+        return result.getData().isEmpty() ? Result.error("创建标签失败") : Result.success(result.getData().get(0));
     }
 
     @Override
@@ -395,21 +391,111 @@ public class TagServiceImpl extends ServiceImpl<TagMapper, Tag> implements TagSe
                 return Result.error("标签名称列表和类型不能为空");
             }
             
-            List<Tag> result = new ArrayList<>();
-            
+            // 去重（不区分大小写，与唯一索引一致），保持传入顺序
+            Map<String, String> requested = new LinkedHashMap<>();
             for (String name : names) {
                 if (StringUtils.hasText(name)) {
-                    Result<Tag> tagResult = getOrCreateTagByName(name.trim(), type);
-                    if (tagResult.isSuccess() && tagResult.getData() != null) {
-                        result.add(tagResult.getData());
-                    }
+                    requested.putIfAbsent(TagDictionary.normalize(name), name.trim());
                 }
             }
             
+            Map<String, Tag> resolved = new HashMap<>(tagDictionary.getAll(requested.values(), type));
+            List<String> missing = requested.entrySet().stream()
+                    .filter(entry -> !resolved.containsKey(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.toList());
+            
+            if (!missing.isEmpty()) {
+                resolveMissing(missing, type).forEach(tag -> resolved.put(TagDictionary.normalize(tag.getName()), tag));
+            }
+            
+            List<Tag> result = requested.keySet().stream()
+                    .map(resolved::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
             return Result.success(result);
         } catch (Exception e) {
             log.error("批量根据名称获取或创建标签失败，名称: {}, 类型: {}", names, type, e);
             return Result.error("操作失败");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 字典未命中的标签：一条多行 INSERT IGNORE 插入（ID预先生成），
+     * 全部插入成功时无需回查；有唯一键冲突（并发创建或已逻辑删除）时再按名称查询一次
+     */
+    private List<Tag> resolveMissing(List<String> names, Tag.TagType type) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Tag> candidates = new ArrayList<>(names.size());
+        for (String name : names) {
+            Tag tag = new Tag();
+            tag.setId(IdWorker.getId());
+            tag.setName(name);
+            tag.setType(type);
+            tag.setStatus(Tag.TagStatus.ACTIVE);
+            tag.setSortOrder(0);
+            tag.setUsageCount(0);
+            tag.setCreatedAt(now);
+            tag.setUpdatedAt(now);
+            tag.setDeleted(0);
+            candidates.add(tag);
+        }
+        
+        List<Tag> resolved = candidates;
+        if (tagMapper.insertIgnoreBatch(candidates) < candidates.size()) {
+            resolved = tagMapper.selectByNamesIncludingDeleted(type, names);
+            List<Long> restored = resolved.stream()
+                    .filter(tag -> tag.getDeleted() != null && tag.getDeleted() == 1)
+                    .map(Tag::getId)
+                    .collect(Collectors.toList());
+            if (!restored.isEmpty()) {
+                tagMapper.restoreByIds(restored);
+                resolved.forEach(tag -> tag.setDeleted(0));
+            }
+        }
+        
+        List<Tag> created = resolved;
+        TransactionUtils.afterCommit(() -> {
+            tagDictionary.putAll(created);
+            suggestService.syncTags(created);
+            invalidationBus.publish(CachedEntity.TAG, created.stream().map(Tag::getId).toList());
+        });
+        return resolved;
+    }
+
+    /**
+     * 标签新增或更新后在事务提交后同步字典
+     */
+    private void onTagChanged(Long id) {
+        TransactionUtils.afterCommit(() -> {
+            syncDictionary(List.of(id));
+            invalidationBus.publish(CachedEntity.TAG, List.of(id));
+        });
+    }
+
+    /**
+     * 标签删除后在事务提交后同步字典与联想索引
+     */
+    private void onTagsRemoved(List<Long> ids) {
+        TransactionUtils.afterCommit(() -> {
+            tagDictionary.remove(ids);
+            suggestService.removeTags(ids);
+            invalidationBus.publish(CachedEntity.TAG, ids);
+        });
+    }
+
+    /**
+     * 按数据库当前状态同步字典与联想索引中的标签，已删除的移除
+     */
+    private void syncDictionary(List<Long> ids) {
+        List<Tag> tags = tagMapper.selectBatchIds(ids);
+        tagDictionary.putAll(tags);
+        suggestService.syncTags(tags);
+        Set<Long> found = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+        List<Long> missing = ids.stream().filter(id -> !found.contains(id)).toList();
+        if (!missing.isEmpty()) {
+            tagDictionary.remove(missing);
+            suggestService.removeTags(missing);
+        }
+    }
+}
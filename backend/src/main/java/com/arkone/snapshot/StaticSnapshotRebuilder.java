@@ -0,0 +1,81 @@
+package com.arkone.snapshot;
+
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.ContentType;
+import com.arkone.mapper.AiNewsMapper;
+import com.arkone.mapper.ArticleMapper;
+import com.arkone.util.KeysetScan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 启动时全量重建静态快照
+ * <p>
+ * 发布/下线时的增量写入只覆盖应用运行期间的变更；启动时按ID分批重写全部已发布内容，
+ * 并删除磁盘上已不再发布的快照，吸收停机期间的数据变更及模板调整。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "arkone.snapshot", name = "rebuild-on-startup", havingValue = "true", matchIfMissing = true)
+public class StaticSnapshotRebuilder {
+
+    private final StaticSnapshotWriter snapshotWriter;
+    private final ArticleMapper articleMapper;
+    private final AiNewsMapper aiNewsMapper;
+
+    @Value("${arkone.snapshot.batch-size:200}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            rebuildArticles();
+            rebuildAiNews();
+        } catch (Exception e) {
+            log.error("静态快照全量重建失败", e);
+        }
+    }
+
+    private void rebuildArticles() {
+        Set<Long> published = new HashSet<>();
+        KeysetScan.forEachBatch(articleMapper::selectPublishedWithCategory, Article::getId, batchSize, batch -> {
+            for (Article article : batch) {
+                snapshotWriter.syncArticle(article.getId(), article);
+                published.add(article.getId());
+            }
+        });
+        prune(ContentType.ARTICLE, published);
+    }
+
+    private void rebuildAiNews() {
+        Set<Long> published = new HashSet<>();
+        KeysetScan.forEachBatch(aiNewsMapper, AiNews::getId,
+                wrapper -> wrapper.eq(AiNews::getStatus, AiNews.NewsStatus.PUBLISHED), batchSize, batch -> {
+                    for (AiNews news : batch) {
+                        snapshotWriter.syncAiNews(news.getId(), news);
+                        published.add(news.getId());
+                    }
+                });
+        prune(ContentType.NEWS, published);
+    }
+
+    private void prune(ContentType type, Set<Long> published) {
+        Set<Long> stale = snapshotWriter.listIds(type);
+        stale.removeAll(published);
+        stale.forEach(id -> snapshotWriter.remove(type, id));
+        log.info("静态快照重建完成，类型: {}, 页面数: {}, 清理: {}", type, published.size(), stale.size());
+    }
+}
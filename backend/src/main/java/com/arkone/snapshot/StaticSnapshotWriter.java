@@ -0,0 +1,274 @@
+package com.arkone.snapshot;
+
+import com.arkone.entity.AiNews;
+import com.arkone.entity.Article;
+import com.arkone.entity.ContentType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 已发布内容的静态HTML快照
+ * <p>
+ * 每篇已发布的文章/AI新闻渲染为一个带有标题、描述、canonical、Open Graph 和 JSON-LD 的静态页面，
+ * 写入 {@code {path}/articles/{id}.html} 与 {@code {path}/ai-news/{id}.html}，由 nginx 对搜索引擎与社交平台抓取器
+ * 直接以 sendfile 返回；普通访问者仍进入前端SPA。
+ * 文件先写入同目录临时文件再原子替换，nginx 不会读到写了一半的页面。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StaticSnapshotWriter {
+
+    private static final String TEMPLATE = "snapshot/page.html";
+    private static final String SUFFIX = ".html";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}");
+    private static final DateTimeFormatter DISPLAY_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${arkone.snapshot.path:data/snapshots}")
+    private String snapshotPath;
+
+    @Value("${arkone.snapshot.site-url:http://localhost}")
+    private String siteUrl;
+
+    @Value("${arkone.snapshot.site-name:ArkOne}")
+    private String siteName;
+
+    private Path directory;
+    private String template;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Paths.get(snapshotPath);
+        for (ContentType type : ContentType.values()) {
+            Files.createDirectories(directory.resolve(folderOf(type)));
+        }
+        try (InputStream in = new ClassPathResource(TEMPLATE).getInputStream()) {
+            template = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 按文章当前状态写入或删除快照；article为null表示已删除
+     */
+    public void syncArticle(Long id, Article article) {
+        if (article == null || !Article.ArticleStatus.PUBLISHED.equals(article.getStatus())) {
+            remove(ContentType.ARTICLE, id);
+            return;
+        }
+        write(ContentType.ARTICLE, id, render(article));
+    }
+
+    /**
+     * 按新闻当前状态写入或删除快照；news为null表示已删除
+     */
+    public void syncAiNews(Long id, AiNews news) {
+        if (news == null || !AiNews.NewsStatus.PUBLISHED.equals(news.getStatus())) {
+            remove(ContentType.NEWS, id);
+            return;
+        }
+        write(ContentType.NEWS, id, render(news));
+    }
+
+    /**
+     * 删除快照，不存在时忽略
+     */
+    public void remove(ContentType type, Long id) {
+        try {
+            if (Files.deleteIfExists(fileOf(type, id))) {
+                log.debug("删除静态快照，类型: {}, ID: {}", type, id);
+            }
+        } catch (IOException e) {
+            log.warn("删除静态快照失败，类型: {}, ID: {}", type, id, e);
+        }
+    }
+
+    /**
+     * 磁盘上已有快照的内容ID
+     */
+    public Set<Long> listIds(ContentType type) {
+        try (Stream<Path> files = Files.list(directory.resolve(folderOf(type)))) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> name.substring(0, name.length() - SUFFIX.length()))
+                    .filter(name -> name.chars().allMatch(Character::isDigit) && !name.isEmpty())
+                    .map(Long::valueOf)
+                    .collect(Collectors.toSet());
+        } catch (IOException e) {
+            log.warn("读取静态快照目录失败，类型: {}", type, e);
+            return new HashSet<>();
+        }
+    }
+
+    private void write(ContentType type, Long id, String html) {
+        Path target = fileOf(type, id);
+        // 临时文件与目标位于同一目录，保证可以原子替换；权限沿用默认umask，nginx需要可读
+        Path temp = target.resolveSibling("." + id + SUFFIX + ".tmp");
+        try {
+            Files.writeString(temp, html, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.debug("写入静态快照，类型: {}, ID: {}", type, id);
+        } catch (IOException e) {
+            log.warn("写入静态快照失败，类型: {}, ID: {}", type, id, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 残留的临时文件在下次写入同一ID时覆盖
+            }
+        }
+    }
+
+    private String render(Article article) {
+        // 文章正文为富文本HTML，与前端详情页 v-html 的渲染方式一致
+        return render(ContentType.ARTICLE, article.getId(), article.getTitle(), article.getSummary(),
+                article.getTags(), article.getCoverImage(), article.getContent(),
+                article.getPublishTime(), article.getUpdatedAt(), article.getCategoryName());
+    }
+
+    private String render(AiNews news) {
+        // 新闻正文来自外部抓取，按段落转义后输出
+        String body = news.getContent() == null ? "" : news.getContent().lines()
+                .filter(StringUtils::hasText)
+                .map(line -> "<p>" + HtmlUtils.htmlEscape(line.trim()) + "</p>")
+                .collect(Collectors.joining("\n"));
+        return render(ContentType.NEWS, news.getId(), news.getTitle(), news.getSummary(),
+                news.getTags(), news.getCoverImage(), body,
+                news.getPublishedAt(), news.getUpdatedAt(), news.getSource());
+    }
+
+    private String render(ContentType type, Long id, String title, String summary, List<String> tags,
+                          String coverImage, String body, LocalDateTime published, LocalDateTime modified,
+                          String origin) {
+        String url = siteUrl + "/" + folderOf(type) + "/" + id;
+        String image = absolute(coverImage);
+        String description = summary != null ? summary.replaceAll("\\s+", " ").trim() : "";
+
+        Map<String, Object> jsonLd = new LinkedHashMap<>();
+        jsonLd.put("@context", "https://schema.org");
+        jsonLd.put("@type", type == ContentType.NEWS ? "NewsArticle" : "Article");
+        jsonLd.put("headline", title);
+        jsonLd.put("description", description);
+        jsonLd.put("url", url);
+        jsonLd.put("mainEntityOfPage", url);
+        if (StringUtils.hasText(image)) {
+            jsonLd.put("image", image);
+        }
+        if (published != null) {
+            jsonLd.put("datePublished", isoTime(published));
+        }
+        if (modified != null) {
+            jsonLd.put("dateModified", isoTime(modified));
+        }
+        if (tags != null && !tags.isEmpty()) {
+            jsonLd.put("keywords", String.join(",", tags));
+        }
+        jsonLd.put("publisher", Map.of("@type", "Organization", "name", siteName));
+
+        StringBuilder meta = new StringBuilder();
+        if (published != null) {
+            meta.append(published.format(DISPLAY_TIME));
+        }
+        if (StringUtils.hasText(origin)) {
+            meta.append(meta.isEmpty() ? "" : " · ").append(origin);
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("siteName", HtmlUtils.htmlEscape(siteName));
+        values.put("section", type == ContentType.NEWS ? "AI资讯" : "文章");
+        values.put("listPath", "/" + folderOf(type));
+        values.put("title", escape(title));
+        values.put("description", escape(description));
+        values.put("keywords", tags != null ? escape(String.join(",", tags)) : "");
+        values.put("url", escape(url));
+        values.put("image", escape(image));
+        values.put("published", published != null ? isoTime(published) : "");
+        values.put("modified", modified != null ? isoTime(modified) : "");
+        values.put("jsonLd", toJson(jsonLd));
+        values.put("meta", escape(meta.toString()));
+        values.put("body", body != null ? body : "");
+
+        // 单次替换，正文中出现的 ${...} 不会被再次展开
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder html = new StringBuilder(template.length() + values.get("body").length());
+        while (matcher.find()) {
+            matcher.appendReplacement(html, Matcher.quoteReplacement(values.getOrDefault(matcher.group(1), "")));
+        }
+        matcher.appendTail(html);
+        return html.toString();
+    }
+
+    private String toJson(Map<String, Object> value) {
+        try {
+            // 防止字符串中的 </script> 提前结束脚本块
+            return objectMapper.writeValueAsString(value).replace("</", "<\\/");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("JSON-LD序列化失败", e);
+        }
+    }
+
+    private String absolute(String path) {
+        if (!StringUtils.hasText(path) || path.startsWith("http://") || path.startsWith("https://")) {
+            return path != null ? path : "";
+        }
+        return siteUrl + (path.startsWith("/") ? "" : "/") + path;
+    }
+
+    private Path fileOf(ContentType type, Long id) {
+        return directory.resolve(folderOf(type)).resolve(id + SUFFIX);
+    }
+
+    private static String escape(String value) {
+        return value != null ? HtmlUtils.htmlEscape(value) : "";
+    }
+
+    private static String isoTime(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toOffsetDateTime().toString();
+    }
+
+    /**
+     * 快照目录名，与前端详情页路由一致
+     */
+    private static String folderOf(ContentType type) {
+        return switch (type) {
+            case ARTICLE -> "articles";
+            case NEWS -> "ai-news";
+        };
+    }
+}
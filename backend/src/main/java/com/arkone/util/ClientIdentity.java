@@ -0,0 +1,244 @@
+package com.arkone.util;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 客户端标识
+ * <p>
+ * 客户端ID由服务端签发：首次访问时生成随机ID，以 HMAC 签名后写入 HttpOnly Cookie，之后以 Cookie 中验签通过的ID
+ * 作为点赞去重与独立访客的标识，客户端无法伪造或指定他人的ID。没有有效 Cookie 的请求以 IP + User-Agent 指纹标识，
+ * 同时签发新的 Cookie；同一IP每小时签发的新ID数有上限，超出后不再签发，避免脚本丢弃 Cookie 反复获取新身份刷赞。
+ * <p>
+ * 客户端IP只在直连地址属于受信任代理（如 nginx）时才采信 X-Forwarded-For / X-Real-IP，
+ * 并从 X-Forwarded-For 右侧起取第一个不受信任的地址，客户端自行添加的请求头不会生效。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClientIdentity {
+
+    /**
+     * 客户端ID Cookie名
+     */
+    public static final String COOKIE_NAME = "arkone_cid";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${arkone.client.secret:${arkone.jwt.secret}}")
+    private String secret;
+
+    @Value("${arkone.client.cookie-max-age:365d}")
+    private Duration cookieMaxAge;
+
+    @Value("${arkone.client.max-issued-per-hour:100}")
+    private long maxIssuedPerHour;
+
+    @Value("${arkone.client.trusted-proxies:127.0.0.0/8,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+    private List<String> trustedProxies;
+
+    private SecretKeySpec key;
+    private final List<AddressRange> trustedRanges = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        for (String range : trustedProxies) {
+            if (StringUtils.hasText(range)) {
+                trustedRanges.add(AddressRange.parse(range.trim()));
+            }
+        }
+    }
+
+    /**
+     * 解析客户端标识；请求不带有效 Cookie 时在响应中签发新的客户端ID
+     */
+    public String resolve(HttpServletRequest request, HttpServletResponse response) {
+        String clientId = readCookie(request);
+        if (clientId != null) {
+            return "c:" + clientId;
+        }
+        String ip = resolveIp(request);
+        if (response != null && mayIssue(ip)) {
+            issue(request, response);
+        }
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        return "f:" + DigestUtil.md5Hex(ip + "|" + (userAgent != null ? userAgent : ""));
+    }
+
+    /**
+     * 解析客户端IP：直连地址为受信任代理时，从 X-Forwarded-For 右侧起取第一个不受信任的地址
+     */
+    public String resolveIp(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (!isTrusted(remote)) {
+            return remote;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (StringUtils.hasText(forwardedFor)) {
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && !isTrusted(hop)) {
+                    return hop;
+                }
+            }
+            return hops[0].trim();
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        return StringUtils.hasText(realIp) ? realIp.trim() : remote;
+    }
+
+    private String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (!COOKIE_NAME.equals(cookie.getName()) || cookie.getValue() == null) {
+                continue;
+            }
+            int dot = cookie.getValue().indexOf('.');
+            if (dot <= 0) {
+                return null;
+            }
+            String id = cookie.getValue().substring(0, dot);
+            byte[] signature = cookie.getValue().substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(signature, sign(id).getBytes(StandardCharsets.US_ASCII)) ? id : null;
+        }
+        return null;
+    }
+
+    private void issue(HttpServletRequest request, HttpServletResponse response) {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, id + "." + sign(id))
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(cookieMaxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * 同一IP每小时签发的新ID数是否未超过上限；Redis不可用时放行
+     */
+    private boolean mayIssue(String ip) {
+        try {
+            String counterKey = RedisKeys.clientIssued(ip, System.currentTimeMillis() / Duration.ofHours(1).toMillis());
+            Long issued = redisTemplate.opsForValue().increment(counterKey);
+            if (issued != null && issued == 1L) {
+                redisTemplate.expire(counterKey, Duration.ofHours(1));
+            }
+            return issued == null || issued <= maxIssuedPerHour;
+        } catch (Exception e) {
+            log.warn("客户端ID签发计数失败，IP: {}", ip, e);
+            return true;
+        }
+    }
+
+    private String sign(String id) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(id.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("客户端ID签名失败", e);
+        }
+    }
+
+    private boolean isTrusted(String address) {
+        byte[] bytes = AddressRange.toBytes(address);
+        if (bytes == null) {
+            return false;
+        }
+        for (AddressRange range : trustedRanges) {
+            if (range.contains(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * CIDR 地址段
+     */
+    private record AddressRange(byte[] network, int prefixLength) {
+
+        private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+        private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+        static AddressRange parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            byte[] network = toBytes(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("无效的受信任代理地址: " + cidr);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            return new AddressRange(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+
+        /**
+         * 解析IP字面量，不做DNS查询；不是IP字面量时返回null
+         */
+        static byte[] toBytes(String address) {
+            if (address == null || !(IPV4.matcher(address).matches() || IPV6.matcher(address).matches())) {
+                return null;
+            }
+            try {
+                return InetAddress.getByName(address).getAddress();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
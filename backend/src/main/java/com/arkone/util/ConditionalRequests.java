@@ -0,0 +1,45 @@
+package com.arkone.util;
+
+import com.arkone.dto.ContentVersion;
+import com.arkone.dto.Result;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 条件请求工具类
+ * <p>
+ * 写入 ETag / Last-Modified 响应头，并根据 If-None-Match / If-Modified-Since 判断是否未修改。
+ * 返回true时响应状态已设置为304，控制器直接返回null即可，不再序列化响应体。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    public static boolean checkNotModified(WebRequest request, ContentVersion version) {
+        if (version == null) {
+            return false;
+        }
+        if (version.lastModified() > 0) {
+            return request.checkNotModified(version.headerValue(), version.lastModified());
+        }
+        return request.checkNotModified(version.headerValue());
+    }
+
+    /**
+     * 列表结果的条件请求判断，失败的结果不参与
+     */
+    public static <T> boolean checkNotModified(WebRequest request, Result<List<T>> result,
+                                               Function<T, Long> idOf, Function<T, LocalDateTime> updatedAtOf) {
+        if (result == null || !result.isSuccess() || result.getData() == null) {
+            return false;
+        }
+        return checkNotModified(request, ContentVersion.ofList(result.getData(), idOf, updatedAtOf));
+    }
+}
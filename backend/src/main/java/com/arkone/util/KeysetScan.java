@@ -0,0 +1,80 @@
+package com.arkone.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按主键分批遍历
+ * <p>
+ * 每批读取 {@code id > 上一批最大ID ORDER BY id LIMIT batchSize}，每批都走主键索引定位，
+ * 不会像 OFFSET 分页那样越往后越慢；某一批不足batchSize时结束。
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class KeysetScan {
+
+    private KeysetScan() {
+    }
+
+    /**
+     * 读取lastId之后按ID升序的前limit条记录
+     */
+    @FunctionalInterface
+    public interface BatchLoader<T> {
+        List<T> load(long lastId, int limit);
+    }
+
+    /**
+     * 按主键分批读取实体
+     *
+     * @param mapper    实体Mapper
+     * @param id        主键列
+     * @param condition 附加的查询列与过滤条件，为null时读取全部列、全部记录
+     * @param batchSize 每批条数
+     * @param consumer  逐批处理
+     * @return 读取的记录总数
+     */
+    public static <T> long forEachBatch(BaseMapper<T> mapper, SFunction<T, Long> id,
+                                        Consumer<LambdaQueryWrapper<T>> condition, int batchSize,
+                                        Consumer<List<T>> consumer) {
+        return forEachBatch((lastId, limit) -> {
+            LambdaQueryWrapper<T> wrapper = new LambdaQueryWrapper<>();
+            if (condition != null) {
+                condition.accept(wrapper);
+            }
+            return mapper.selectList(wrapper.gt(id, lastId).orderByAsc(id).last("LIMIT " + limit));
+        }, id, batchSize, consumer);
+    }
+
+    /**
+     * 由自定义查询按主键分批读取
+     *
+     * @param loader    按lastId与limit读取一批记录
+     * @param id        记录的主键
+     * @param batchSize 每批条数
+     * @param consumer  逐批处理
+     * @return 读取的记录总数
+     */
+    public static <T> long forEachBatch(BatchLoader<T> loader, Function<T, Long> id, int batchSize,
+                                        Consumer<List<T>> consumer) {
+        long lastId = 0L;
+        long total = 0L;
+        while (true) {
+            List<T> batch = loader.load(lastId, batchSize);
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+                total += batch.size();
+                lastId = id.apply(batch.get(batch.size() - 1));
+            }
+            if (batch.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+}
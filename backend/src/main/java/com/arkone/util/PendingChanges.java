@@ -0,0 +1,65 @@
+package com.arkone.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 全量重建期间的增量变更
+ * <p>
+ * 内存索引全量重建时在锁外读取数据库构建新索引，构建期间的写入仍作用于旧索引，同时记录在此；
+ * 新索引替换旧索引前按写入顺序重放，避免被构建开始时的快照覆盖。同一ID只保留最后一次变更。
+ * 非线程安全，由所属索引的写锁保护。
+ *
+ * @param <V> 变更后的值
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class PendingChanges<V> {
+
+    /**
+     * 值为null表示删除；不在重建中时为null
+     */
+    private Map<Long, V> changes;
+
+    /**
+     * 开始记录
+     */
+    public void start() {
+        changes = new LinkedHashMap<>();
+    }
+
+    /**
+     * 是否正在重建
+     */
+    public boolean isActive() {
+        return changes != null;
+    }
+
+    /**
+     * 重建期间记录变更，value为null表示删除；不在重建中时忽略
+     */
+    public void record(Long id, V value) {
+        if (changes != null) {
+            changes.put(id, value);
+        }
+    }
+
+    /**
+     * 按写入顺序重放并结束记录，value为null表示删除
+     */
+    public void replay(BiConsumer<Long, V> consumer) {
+        Map<Long, V> recorded = changes;
+        changes = null;
+        if (recorded != null) {
+            recorded.forEach(consumer);
+        }
+    }
+
+    /**
+     * 放弃记录
+     */
+    public void discard() {
+        changes = null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.arkone.util;
+
+import com.arkone.entity.ContentType;
+
+/**
+ * Redis键定义
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+public final class RedisKeys {
+
+    private static final String PREFIX = "arkone:";
+
+    private RedisKeys() {
+    }
+
+    /**
+     * 点赞客户端集合：arkone:like:users:{type}:{id}
+     */
+    public static String likeUsers(ContentType type, Long id) {
+        return PREFIX + "like:users:" + type.getCode() + ":" + id;
+    }
+
+    /**
+     * 点赞数Hash（field为内容ID）：arkone:like:count:{type}
+     */
+    public static String likeCounts(ContentType type) {
+        return PREFIX + "like:count:" + type.getCode();
+    }
+
+    /**
+     * 点赞数待刷盘内容ID集合：arkone:like:dirty:{type}
+     */
+    public static String likeDirty(ContentType type) {
+        return PREFIX + "like:dirty:" + type.getCode();
+    }
+
+    /**
+     * 点赞数刷盘处理中的内容ID集合，写库成功后移除：arkone:like:processing:{type}
+     */
+    public static String likeProcessing(ContentType type) {
+        return PREFIX + "like:processing:" + type.getCode();
+    }
+
+    /**
+     * 每小时按IP签发的客户端ID计数：arkone:client:issued:{ip}:{hour}
+     */
+    public static String clientIssued(String ip, long hour) {
+        return PREFIX + "client:issued:" + ip + ":" + hour;
+    }
+
+    /**
+     * 每日独立访客HyperLogLog：arkone:uv:{type}:{id}:{yyyyMMdd}
+     */
+    public static String uniqueVisitors(ContentType type, Long id, String day) {
+        return PREFIX + "uv:" + type.getCode() + ":" + id + ":" + day;
+    }
+
+    /**
+     * 二级缓存条目：arkone:cache:{name}:{key}
+     */
+    public static String cache(String name, Object key) {
+        return PREFIX + "cache:" + name + ":" + key;
+    }
+
+    /**
+     * 热度有序集合（分数为前向衰减后的热度）：arkone:trending:{type}
+     */
+    public static String trending(ContentType type) {
+        return PREFIX + "trending:" + type.getCode();
+    }
+
+    /**
+     * 热度衰减基准时间（秒）：arkone:trending:landmark:{type}
+     */
+    public static String trendingLandmark(ContentType type) {
+        return PREFIX + "trending:landmark:" + type.getCode();
+    }
+
+    /**
+     * 由热度自动设置为热门的内容ID集合：arkone:trending:auto-hot:{type}
+     */
+    public static String trendingAutoHot(ContentType type) {
+        return PREFIX + "trending:auto-hot:" + type.getCode();
+    }
+
+    /**
+     * 分布式任务锁：arkone:lock:{name}
+     */
+    public static String lock(String name) {
+        return PREFIX + "lock:" + name;
+    }
+
+    /**
+     * 节点间广播频道：arkone:channel:{name}
+     */
+    public static String channel(String name) {
+        return PREFIX + "channel:" + name;
+    }
+
+    /**
+     * 缓存失效消息的全局递增版本号：arkone:invalidation:version
+     */
+    public static String invalidationVersion() {
+        return PREFIX + "invalidation:version";
+    }
+}
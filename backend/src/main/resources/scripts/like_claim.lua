@@ -0,0 +1,13 @@
+-- 领取一批待刷盘的内容ID（原子操作）
+-- KEYS[1] 待刷盘内容ID集合  KEYS[2] 刷盘中内容ID集合
+-- ARGV[1] 批大小
+-- 刷盘中集合仍有上次未确认的ID时优先重试这些ID，否则从待刷盘集合中取出一批移入刷盘中集合；
+-- 数据库写入成功后由调用方从刷盘中集合删除，进程在写入前后崩溃都不会丢失待刷盘标记
+local ids = redis.call('SRANDMEMBER', KEYS[2], ARGV[1])
+if #ids == 0 then
+    ids = redis.call('SPOP', KEYS[1], ARGV[1])
+    if #ids > 0 then
+        redis.call('SADD', KEYS[2], unpack(ids))
+    end
+end
+return ids
@@ -0,0 +1,16 @@
+-- 点赞/取消点赞（原子操作）
+-- KEYS[1] 点赞客户端集合  KEYS[2] 点赞数Hash  KEYS[3] 待刷盘内容ID集合
+-- ARGV[1] 客户端标识  ARGV[2] 内容ID  ARGV[3] 操作（1：点赞，-1：取消点赞）
+local changed
+if ARGV[3] == '1' then
+    changed = redis.call('SADD', KEYS[1], ARGV[1])
+else
+    changed = redis.call('SREM', KEYS[1], ARGV[1])
+end
+local count = tonumber(redis.call('HGET', KEYS[2], ARGV[2]) or '0')
+if changed == 1 then
+    count = math.max(count + tonumber(ARGV[3]), 0)
+    redis.call('HSET', KEYS[2], ARGV[2], count)
+    redis.call('SADD', KEYS[3], ARGV[2])
+end
+return {changed, count}
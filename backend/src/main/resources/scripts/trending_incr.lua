@@ -0,0 +1,14 @@
+-- 热度累加（前向衰减：权重乘以 e^(λ·(t-landmark))，分数只增不减即可体现时间衰减）
+-- KEYS[1] 热度有序集合  KEYS[2] 基准时间键
+-- ARGV[1] 当前时间（秒）  ARGV[2] 衰减系数λ  ARGV[3..] 成对的内容ID与权重
+local now = tonumber(ARGV[1])
+local landmark = tonumber(redis.call('GET', KEYS[2]) or '')
+if not landmark then
+    landmark = now
+    redis.call('SET', KEYS[2], landmark)
+end
+local factor = math.exp(tonumber(ARGV[2]) * (now - landmark))
+for i = 3, #ARGV, 2 do
+    redis.call('ZINCRBY', KEYS[1], tonumber(ARGV[i + 1]) * factor, ARGV[i])
+end
+return landmark
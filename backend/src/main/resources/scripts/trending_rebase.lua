@@ -0,0 +1,17 @@
+-- 热度基准时间前移：全部分数乘以 e^(-λ·(now-landmark))，避免分数无限增长
+-- KEYS[1] 热度有序集合  KEYS[2] 基准时间键
+-- ARGV[1] 当前时间（秒）  ARGV[2] 衰减系数λ  ARGV[3] 最小保留分数  ARGV[4] 最多保留条数
+local now = tonumber(ARGV[1])
+local landmark = tonumber(redis.call('GET', KEYS[2]) or '')
+if not landmark or now <= landmark then
+    return 0
+end
+local factor = math.exp(-tonumber(ARGV[2]) * (now - landmark))
+local entries = redis.call('ZRANGE', KEYS[1], 0, -1, 'WITHSCORES')
+for i = 1, #entries, 2 do
+    redis.call('ZADD', KEYS[1], tonumber(entries[i + 1]) * factor, entries[i])
+end
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[4]) + 1))
+redis.call('SET', KEYS[2], now)
+return #entries / 2
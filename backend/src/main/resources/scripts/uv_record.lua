@@ -0,0 +1,8 @@
+-- 记录独立访客
+-- KEYS[1] HyperLogLog键
+-- ARGV[1] 客户端标识  ARGV[2] 过期时间（秒）
+local changed = redis.call('PFADD', KEYS[1], ARGV[1])
+if redis.call('TTL', KEYS[1]) < 0 then
+    redis.call('EXPIRE', KEYS[1], ARGV[2])
+end
+return changed
@@ -0,0 +1,13 @@
+-- ArkOne计数批次迁移脚本：记录已写回数据库的浏览量批次，使本地日志重放幂等
+-- 新建库已在 init.sql 中包含，仅需在已有库上执行一次。
+
+USE arkone;
+
+CREATE TABLE IF NOT EXISTS counter_batches (
+    batch_id BIGINT PRIMARY KEY COMMENT '浏览量批次ID',
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '落库时间',
+    INDEX idx_applied_at (applied_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='已落库计数批次表';
+
+-- 回滚：
+-- DROP TABLE counter_batches;
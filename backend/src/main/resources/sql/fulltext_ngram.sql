@@ -0,0 +1,16 @@
+-- ArkOne全文检索迁移脚本：为 arkone.search.mode=fulltext 创建ngram全文索引
+-- 需要 MySQL 5.7.6+ / 8.0。ngram分词长度由服务端参数 ngram_token_size 决定（默认2，只能在启动时设置），
+-- 长度小于该值的查询词（如单个汉字）无法命中，此时应使用 memory 或 like 模式。
+-- 在大表上建全文索引会重建表并占用较多磁盘与时间，建议在低峰期执行。
+
+USE arkone;
+
+ALTER TABLE articles
+    ADD FULLTEXT INDEX ft_title_summary_content (title, summary, content) WITH PARSER ngram;
+
+ALTER TABLE ai_news
+    ADD FULLTEXT INDEX ft_title_summary_content (title, summary, content) WITH PARSER ngram;
+
+-- 回滚：
+-- ALTER TABLE articles DROP INDEX ft_title_summary_content;
+-- ALTER TABLE ai_news DROP INDEX ft_title_summary_content;
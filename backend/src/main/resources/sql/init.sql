@@ -26,7 +26,8 @@ CREATE TABLE IF NOT EXISTS articles (
     INDEX idx_status (status),
     INDEX idx_category (category_id),
     INDEX idx_publish_time (publish_time),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文章表';
 
 -- AI新闻表
@@ -51,7 +52,8 @@ CREATE TABLE IF NOT EXISTS ai_news (
     INDEX idx_category (category),
     INDEX idx_status (status),
     INDEX idx_is_hot (is_hot),
-    INDEX idx_published_at (published_at)
+    INDEX idx_published_at (published_at),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='AI新闻表';
 
 -- 分类表
@@ -71,6 +73,24 @@ CREATE TABLE IF NOT EXISTS categories (
     INDEX idx_parent_id (parent_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='分类表';
 
+-- 标签表
+CREATE TABLE IF NOT EXISTS tags (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
+    name VARCHAR(50) NOT NULL COMMENT '标签名称',
+    description VARCHAR(255) COMMENT '标签描述',
+    type ENUM('article', 'news', 'general') NOT NULL COMMENT '标签类型',
+    color VARCHAR(20) COMMENT '标签颜色',
+    usage_count INT DEFAULT 0 COMMENT '使用次数',
+    sort_order INT DEFAULT 0 COMMENT '排序',
+    status ENUM('active', 'inactive') DEFAULT 'active' COMMENT '状态',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    deleted TINYINT DEFAULT 0 COMMENT '逻辑删除标记',
+    UNIQUE KEY uk_name_type (name, type),
+    INDEX idx_type (type),
+    INDEX idx_usage_count (usage_count)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='标签表';
+
 -- 用户表
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '主键ID',
@@ -140,6 +160,13 @@ CREATE TABLE IF NOT EXISTS upload_files (
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文件上传记录表';
 
+-- 已落库计数批次表
+CREATE TABLE IF NOT EXISTS counter_batches (
+    batch_id BIGINT PRIMARY KEY COMMENT '浏览量批次ID',
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '落库时间',
+    INDEX idx_applied_at (applied_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='已落库计数批次表';
+
 -- 插入默认数据
 
 -- 默认管理员用户
@@ -0,0 +1,12 @@
+-- ArkOne搜索索引追平迁移脚本：为按更新时间读取变更记录（SearchIndexer 追平水位之后的变更）建立索引
+-- 新建库已在 init.sql 中包含，仅需在已有库上执行一次。
+
+USE arkone;
+
+ALTER TABLE articles ADD INDEX idx_updated_at (updated_at);
+
+ALTER TABLE ai_news ADD INDEX idx_updated_at (updated_at);
+
+-- 回滚：
+-- ALTER TABLE articles DROP INDEX idx_updated_at;
+-- ALTER TABLE ai_news DROP INDEX idx_updated_at;
@@ -0,0 +1,94 @@
+package com.arkone.cache;
+
+import com.arkone.entity.Tag;
+import com.arkone.mapper.TagMapper;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 标签字典测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class TagDictionaryTest {
+
+    private final TagMapper tagMapper = mock(TagMapper.class);
+    private final TagDictionary dictionary = new TagDictionary(tagMapper);
+
+    @BeforeAll
+    static void initTableInfo() {
+        // 构建查询条件时按Lambda解析列名，单元测试中没有MyBatis上下文，手动注册实体元数据
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Tag.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(tagMapper.selectList(any())).thenReturn(List.of(
+                tag(1L, "Java", Tag.TagType.ARTICLE), tag(2L, "Go", Tag.TagType.ARTICLE)));
+    }
+
+    @Test
+    void lookupIgnoresCaseAndSurroundingWhitespace() {
+        assertThat(dictionary.get(" java ", Tag.TagType.ARTICLE).getId()).isEqualTo(1L);
+        assertThat(dictionary.get("java", Tag.TagType.NEWS)).isNull();
+        assertThat(dictionary.getAll(List.of("JAVA", "rust"), Tag.TagType.ARTICLE)).containsOnlyKeys("java");
+    }
+
+    @Test
+    void putAllRemovesOldKeyOnRename() {
+        dictionary.putAll(List.of(tag(1L, "Kotlin", Tag.TagType.ARTICLE)));
+
+        assertThat(dictionary.get("java", Tag.TagType.ARTICLE)).isNull();
+        assertThat(dictionary.get("kotlin", Tag.TagType.ARTICLE).getId()).isEqualTo(1L);
+        assertThat(dictionary.values()).extracting(Tag::getId).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void putAllRemovesOldKeyOnTypeChange() {
+        dictionary.putAll(List.of(tag(1L, "Java", Tag.TagType.NEWS)));
+
+        assertThat(dictionary.get("java", Tag.TagType.ARTICLE)).isNull();
+        assertThat(dictionary.get("java", Tag.TagType.NEWS).getId()).isEqualTo(1L);
+        assertThat(dictionary.values()).hasSize(2);
+    }
+
+    @Test
+    void putAllDropsDeletedTags() {
+        Tag deleted = tag(2L, "Go", Tag.TagType.ARTICLE);
+        deleted.setDeleted(1);
+        dictionary.putAll(List.of(deleted, tag(3L, "Rust", Tag.TagType.ARTICLE)));
+
+        assertThat(dictionary.get("go", Tag.TagType.ARTICLE)).isNull();
+        assertThat(dictionary.values()).extracting(Tag::getId).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void removeDropsById() {
+        dictionary.remove(List.of(1L));
+
+        assertThat(dictionary.get("java", Tag.TagType.ARTICLE)).isNull();
+        assertThat(dictionary.values()).extracting(Tag::getId).containsExactly(2L);
+    }
+
+    private static Tag tag(Long id, String name, Tag.TagType type) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setName(name);
+        tag.setType(type);
+        tag.setStatus(Tag.TagStatus.ACTIVE);
+        tag.setDeleted(0);
+        return tag;
+    }
+}
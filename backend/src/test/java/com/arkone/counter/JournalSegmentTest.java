@@ -0,0 +1,76 @@
+package com.arkone.counter;
+
+import com.arkone.entity.ContentType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 计数日志段测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class JournalSegmentTest {
+
+    private static final int TWO_RECORDS = JournalSegment.HEADER_SIZE + 2 * JournalSegment.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsSurviveReopenWithBatchId() {
+        JournalSegment segment = JournalSegment.create(directory.resolve("a.journal"), TWO_RECORDS, 7L);
+        segment.append(ContentType.ARTICLE, 1L, 3L);
+        segment.append(ContentType.NEWS, 2L, 5L);
+
+        JournalSegment reopened = JournalSegment.open(directory.resolve("a.journal"));
+
+        assertThat(reopened.getBatchId()).isEqualTo(7L);
+        assertThat(records(reopened)).containsExactly("ARTICLE:1:3", "NEWS:2:5");
+    }
+
+    @Test
+    void fullSegmentStopsAdvancingPosition() {
+        JournalSegment segment = JournalSegment.create(directory.resolve("b.journal"), TWO_RECORDS, 1L);
+        assertThat(segment.append(ContentType.ARTICLE, 1L, 1L)).isTrue();
+        assertThat(segment.append(ContentType.ARTICLE, 2L, 1L)).isTrue();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(segment.append(ContentType.ARTICLE, 3L, 1L)).isFalse();
+        }
+
+        AtomicInteger position = (AtomicInteger) ReflectionTestUtils.getField(segment, "position");
+        assertThat(position.get()).isLessThanOrEqualTo(3 * JournalSegment.RECORD_SIZE);
+        assertThat(records(segment)).hasSize(2);
+    }
+
+    @Test
+    void resetClearsRecordsForReuse() {
+        JournalSegment segment = JournalSegment.create(directory.resolve("c.journal"), TWO_RECORDS, 1L);
+        segment.append(ContentType.ARTICLE, 1L, 1L);
+        segment.append(ContentType.ARTICLE, 2L, 1L);
+        segment.append(ContentType.ARTICLE, 3L, 1L);
+
+        segment.reset(2L);
+
+        assertThat(segment.isEmpty()).isTrue();
+        assertThat(segment.getBatchId()).isEqualTo(2L);
+        assertThat(records(segment)).isEmpty();
+        assertThat(segment.append(ContentType.NEWS, 4L, 2L)).isTrue();
+        assertThat(records(segment)).containsExactly("NEWS:4:2");
+    }
+
+    private static List<String> records(JournalSegment segment) {
+        List<String> records = new ArrayList<>();
+        segment.forEachCommitted((type, id, delta) -> records.add(type + ":" + id + ":" + delta));
+        return records;
+    }
+}
@@ -0,0 +1,195 @@
+package com.arkone.filter;
+
+import com.arkone.dto.ArticleQuery;
+import com.arkone.entity.Article;
+import com.arkone.mapper.ArticleMapper;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文章筛选索引测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class ArticleFilterIndexTest {
+
+    private final ArticleMapper articleMapper = mock(ArticleMapper.class);
+    private final ArticleFilterIndex index = new ArticleFilterIndex(articleMapper);
+
+    private final Article a1 = article(1, 10L, Article.ArticleStatus.PUBLISHED, Article.SourceType.MANUAL,
+            List.of("java", "spring"), true, day(5), null);
+    private final Article a2 = article(2, 10L, Article.ArticleStatus.PUBLISHED, Article.SourceType.WECHAT,
+            List.of("java"), false, day(3), null);
+    private final Article a3 = article(3, 20L, Article.ArticleStatus.DRAFT, Article.SourceType.MANUAL,
+            List.of("go"), false, null, day(4));
+    private final Article a4 = article(4, 20L, Article.ArticleStatus.PUBLISHED, Article.SourceType.MANUAL,
+            List.of("java", " go "), false, day(1), null);
+    private final Article a5 = article(5, 10L, Article.ArticleStatus.ARCHIVED, Article.SourceType.MANUAL,
+            List.of(), false, day(2), null);
+
+    @BeforeAll
+    static void initTableInfo() {
+        // 构建查询条件时按Lambda解析列名，单元测试中没有MyBatis上下文，手动注册实体元数据
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Article.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "batchSize", 2);
+        ReflectionTestUtils.setField(index, "facetTags", 20);
+    }
+
+    @Test
+    void notReadyUntilFirstBuild() {
+        assertThat(index.isReady()).isFalse();
+
+        build();
+
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    void pagesBySortTimeInBothDirections() {
+        build();
+
+        ArticleFilterIndex.Result all = index.query(new ArticleQuery(), 0, 10);
+        assertThat(all.total()).isEqualTo(5);
+        assertThat(all.ids()).containsExactly(1L, 3L, 2L, 5L, 4L);
+        assertThat(index.query(new ArticleQuery(), 1, 2).ids()).containsExactly(3L, 2L);
+
+        ArticleQuery ascending = new ArticleQuery();
+        ascending.setSortOrder("asc");
+        assertThat(index.query(ascending, 0, 10).ids()).containsExactly(4L, 5L, 2L, 3L, 1L);
+    }
+
+    @Test
+    void filtersIntersectAndFacetsExcludeOwnDimension() {
+        build();
+        ArticleQuery query = new ArticleQuery();
+        query.setCategoryId(10L);
+        query.setStatus(Article.ArticleStatus.PUBLISHED);
+
+        ArticleFilterIndex.Result result = index.query(query, 0, 10);
+
+        assertThat(result.ids()).containsExactly(1L, 2L);
+        assertThat(result.facets().getCategories()).containsExactly(entry(10L, 2L), entry(20L, 1L));
+        assertThat(result.facets().getStatuses()).containsExactly(entry("published", 2L), entry("archived", 1L));
+        assertThat(result.facets().getSourceTypes()).containsOnly(entry("manual", 1L), entry("wechat", 1L));
+        assertThat(result.facets().getTags()).containsExactly(entry("java", 2L), entry("spring", 1L));
+        assertThat(result.facets().getTop()).isEqualTo(1L);
+    }
+
+    @Test
+    void tagsTopAndTimeRangeFilters() {
+        build();
+
+        ArticleQuery tags = new ArticleQuery();
+        tags.setTags(List.of("java", "go"));
+        assertThat(index.query(tags, 0, 10).ids()).containsExactly(4L);
+
+        ArticleQuery notTop = new ArticleQuery();
+        notTop.setIsTop(false);
+        assertThat(index.query(notTop, 0, 10).ids()).containsExactly(3L, 2L, 5L, 4L);
+
+        ArticleQuery range = new ArticleQuery();
+        range.setStartTime(day(2));
+        range.setEndTime(day(4));
+        range.setSortOrder("asc");
+        ArticleFilterIndex.Result ranged = index.query(range, 0, 10);
+        assertThat(ranged.ids()).containsExactly(5L, 2L, 3L);
+        assertThat(ranged.total()).isEqualTo(3);
+
+        ArticleQuery unknown = new ArticleQuery();
+        unknown.setCategoryId(99L);
+        assertThat(index.query(unknown, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void syncUpdatesAndRemovesEntries() {
+        build();
+
+        index.sync(2L, article(2, 20L, Article.ArticleStatus.PUBLISHED, Article.SourceType.WECHAT,
+                List.of("java"), false, day(6), null));
+        index.sync(1L, null);
+
+        assertThat(index.query(new ArticleQuery(), 0, 10).ids()).containsExactly(2L, 3L, 5L, 4L);
+        ArticleQuery category = new ArticleQuery();
+        category.setCategoryId(10L);
+        assertThat(index.query(category, 0, 10).ids()).containsExactly(5L);
+        ArticleQuery top = new ArticleQuery();
+        top.setIsTop(true);
+        assertThat(index.query(top, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void rebuildReplaysChangesMadeWhileBuilding() {
+        Article a6 = article(6, 20L, Article.ArticleStatus.PUBLISHED, Article.SourceType.MANUAL,
+                List.of(), false, day(9), null);
+        when(articleMapper.selectList(any()))
+                .thenAnswer(invocation -> {
+                    // 构建读取第一批期间，另一个请求新增了6并删除了4
+                    index.sync(6L, a6);
+                    index.sync(4L, null);
+                    return List.of(a1, a2);
+                })
+                .thenReturn(List.of(a3, a4))
+                .thenReturn(List.of(a5));
+
+        index.rebuild();
+
+        ArticleFilterIndex.Result result = index.query(new ArticleQuery(), 0, 10);
+        assertThat(result.ids()).containsExactly(6L, 1L, 3L, 2L, 5L);
+    }
+
+    @Test
+    void supportsOnlyFilterAndTimeSortedQueries() {
+        assertThat(ArticleFilterIndex.supports(new ArticleQuery())).isTrue();
+        ArticleQuery keyword = new ArticleQuery();
+        keyword.setKeyword("java");
+        assertThat(ArticleFilterIndex.supports(keyword)).isFalse();
+        ArticleQuery sorted = new ArticleQuery();
+        sorted.setSortField("viewCount");
+        assertThat(ArticleFilterIndex.supports(sorted)).isFalse();
+    }
+
+    private void build() {
+        when(articleMapper.selectList(any()))
+                .thenReturn(List.of(a1, a2))
+                .thenReturn(List.of(a3, a4))
+                .thenReturn(List.of(a5));
+        index.rebuild();
+    }
+
+    private static LocalDateTime day(int day) {
+        return LocalDateTime.of(2024, 1, day, 0, 0);
+    }
+
+    private static Article article(long id, Long categoryId, Article.ArticleStatus status, Article.SourceType sourceType,
+                                   List<String> tags, boolean top, LocalDateTime publishTime, LocalDateTime createdAt) {
+        Article article = new Article();
+        article.setId(id);
+        article.setCategoryId(categoryId);
+        article.setStatus(status);
+        article.setSourceType(sourceType);
+        article.setTags(tags);
+        article.setIsTop(top);
+        article.setPublishTime(publishTime);
+        article.setCreatedAt(createdAt);
+        return article;
+    }
+}
@@ -0,0 +1,113 @@
+package com.arkone.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 压缩位图测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class RoaringBitmapTest {
+
+    @Test
+    void addRemoveContainsAcrossContainers() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.add(3);
+        bitmap.add(70_000);
+        bitmap.add(3);
+        bitmap.add(1 << 20);
+
+        assertThat(bitmap.cardinality()).isEqualTo(3);
+        assertThat(bitmap.contains(70_000)).isTrue();
+        assertThat(bitmap.contains(4)).isFalse();
+        assertThat(values(bitmap)).containsExactly(3, 70_000, 1 << 20);
+
+        bitmap.remove(70_000);
+        bitmap.remove(12345);
+
+        assertThat(values(bitmap)).containsExactly(3, 1 << 20);
+        bitmap.remove(3);
+        bitmap.remove(1 << 20);
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void denseContainerConvertsAndShrinksBack() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i * 2);
+        }
+        assertThat(bitmap.cardinality()).isEqualTo(10_000);
+        assertThat(bitmap.contains(19_998)).isTrue();
+        assertThat(bitmap.contains(19_999)).isFalse();
+
+        for (int i = 0; i < 9_000; i++) {
+            bitmap.remove(i * 2);
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(1_000);
+        assertThat(values(bitmap)).first().isEqualTo(18_000);
+        assertThat(values(bitmap)).isSorted();
+    }
+
+    @Test
+    void setOperationsMatchReferenceImplementation() {
+        Random random = new Random(20240101);
+        for (int round = 0; round < 20; round++) {
+            // 稀疏与稠密混合，覆盖数组容器与位图容器的各种组合
+            TreeSet<Integer> left = randomSet(random, round % 2 == 0 ? 200 : 30_000);
+            TreeSet<Integer> right = randomSet(random, round % 3 == 0 ? 20_000 : 500);
+            RoaringBitmap a = bitmapOf(left);
+            RoaringBitmap b = bitmapOf(right);
+
+            TreeSet<Integer> intersection = new TreeSet<>(left);
+            intersection.retainAll(right);
+            TreeSet<Integer> difference = new TreeSet<>(left);
+            difference.removeAll(right);
+
+            assertThat(values(a)).containsExactlyElementsOf(left);
+            assertThat(values(RoaringBitmap.and(a, b))).containsExactlyElementsOf(intersection);
+            assertThat(RoaringBitmap.andCardinality(a, b)).isEqualTo(intersection.size());
+            assertThat(values(RoaringBitmap.andNot(a, b))).containsExactlyElementsOf(difference);
+        }
+    }
+
+    @Test
+    void operationResultsAreIndependentOfOperands() {
+        RoaringBitmap a = bitmapOf(new TreeSet<>(List.of(1, 2, 3)));
+        RoaringBitmap b = bitmapOf(new TreeSet<>(List.of(9)));
+
+        RoaringBitmap difference = RoaringBitmap.andNot(a, b);
+        difference.remove(1);
+
+        assertThat(values(a)).containsExactly(1, 2, 3);
+    }
+
+    private static TreeSet<Integer> randomSet(Random random, int count) {
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            set.add(random.nextInt(3 << 16));
+        }
+        return set;
+    }
+
+    private static RoaringBitmap bitmapOf(Iterable<Integer> values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        values.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static List<Integer> values(RoaringBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
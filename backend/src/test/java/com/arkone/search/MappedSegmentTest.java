@@ -0,0 +1,119 @@
+package com.arkone.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 磁盘段读写测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class MappedSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripPreservesDocumentsPostingsAndMeta() throws IOException {
+        MutableSegment source = new MutableSegment();
+        source.add(MutableSegment.analyze(new SearchDocument(42L, "Redis 集群", "分片与复制",
+                "redis cluster uses hash slots; redis replicas follow", LocalDateTime.of(2024, 3, 5, 8, 30))));
+        source.add(MutableSegment.analyze(new SearchDocument(7L, "Kafka", null, "kafka partitions", null)));
+        source.add(MutableSegment.analyze(new SearchDocument(Long.MAX_VALUE, "边界ID", "", "", null)));
+
+        MappedSegment mapped = writeAndOpen(source);
+
+        assertThat(mapped.docCount()).isEqualTo(source.docCount());
+        assertThat(mapped.totalLength()).isEqualTo(source.totalLength());
+        assertThat(mapped.contains(42L)).isTrue();
+        assertThat(mapped.contains(8L)).isFalse();
+        for (long id : new long[]{42L, 7L, Long.MAX_VALUE}) {
+            assertThat(mapped.document(id)).isEqualTo(source.document(id));
+            assertThat(mapped.meta(id)).isEqualTo(source.meta(id));
+        }
+        assertThat(mapped.document(8L)).isNull();
+        assertThat(mapped.meta(8L)).isNull();
+
+        Map<String, Integer> expectedTerms = new HashMap<>();
+        source.forEachTerm(expectedTerms::put);
+        Map<String, Integer> actualTerms = new HashMap<>();
+        mapped.forEachTerm(actualTerms::put);
+        assertThat(actualTerms).isEqualTo(expectedTerms);
+        for (String term : expectedTerms.keySet()) {
+            Segment.Postings expected = source.postings(term);
+            Segment.Postings actual = mapped.postings(term);
+            assertThat(actual.size()).as(term).isEqualTo(expected.size());
+            List<Long> ids = new ArrayList<>();
+            actual.forEachId(ids::add);
+            assertThat(ids).as(term).isSorted();
+            for (long id : ids) {
+                assertThat(actual.positions(id)).as(term).containsExactly(expected.positions(id));
+            }
+            assertThat(actual.positions(8L)).isNull();
+        }
+        assertThat(mapped.postings("absent")).isNull();
+        assertThat(mapped.postings("redis").positions(42L)).hasSize(3);
+    }
+
+    @Test
+    void emptySegmentRoundTrips() throws IOException {
+        MappedSegment mapped = writeAndOpen(new MutableSegment());
+
+        assertThat(mapped.docCount()).isZero();
+        assertThat(mapped.postings("anything")).isNull();
+        List<SearchDocument> documents = new ArrayList<>();
+        mapped.forEachDocument(documents::add);
+        assertThat(documents).isEmpty();
+    }
+
+    @Test
+    void largePostingListsKeepOrdinalOrder() throws IOException {
+        MutableSegment source = new MutableSegment();
+        for (long id = 5000; id > 0; id--) {
+            source.add(MutableSegment.analyze(new SearchDocument(id * 1_000_003L, "common term " + id, "", "", null)));
+        }
+
+        MappedSegment mapped = writeAndOpen(source);
+
+        Segment.Postings postings = mapped.postings("common");
+        assertThat(postings.size()).isEqualTo(5000);
+        List<Long> ids = new ArrayList<>();
+        postings.forEachId(ids::add);
+        assertThat(ids).isSorted().hasSize(5000);
+        assertThat(postings.positions(1_000_003L)).containsExactly(0);
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        MutableSegment source = new MutableSegment();
+        source.add(MutableSegment.analyze(new SearchDocument(1L, "title", "", "body", null)));
+        Path path = directory.resolve("segment.seg");
+        MappedSegment.write(path, source);
+        long size = Files.size(path);
+        try (var channel = Files.newByteChannel(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 1);
+        }
+
+        assertThatThrownBy(() -> MappedSegment.open(path)).isInstanceOf(IOException.class);
+    }
+
+    private MappedSegment writeAndOpen(MutableSegment source) throws IOException {
+        Path path = directory.resolve("segment.seg");
+        MappedSegment.write(path, source);
+        return MappedSegment.open(path);
+    }
+}
@@ -0,0 +1,217 @@
+package com.arkone.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 进程内倒排索引测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class SearchIndexTest {
+
+    private static final LocalDateTime PUBLISHED = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void andOrAndExclusion() {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(doc(1, "Java streams", "collectors and java lambdas"));
+        index.upsert(doc(2, "Kotlin coroutines", "structured concurrency"));
+        index.upsert(doc(3, "Java on Android", "android apps in java"));
+
+        assertThat(ids(index, "java lambdas")).containsExactly(1L);
+        assertThat(ids(index, "java OR kotlin")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(ids(index, "java -android")).containsExactly(1L);
+        assertThat(ids(index, "-java")).isEmpty();
+    }
+
+    @Test
+    void phraseRequiresTermsAtConsecutiveOffsets() {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(doc(1, "Machine learning basics", ""));
+        index.upsert(doc(2, "Learning about the machine", ""));
+        index.upsert(doc(3, "大模型推理优化", ""));
+        index.upsert(doc(4, "模型很大", ""));
+
+        assertThat(ids(index, "\"machine learning\"")).containsExactly(1L);
+        assertThat(ids(index, "machine learning")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index, "大模型")).containsExactly(3L);
+        assertThat(ids(index, "模")).containsExactlyInAnyOrder(3L, 4L);
+    }
+
+    @Test
+    void phraseDoesNotSpanFields() {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(new SearchDocument(1L, "deep", "learning", "", PUBLISHED));
+
+        assertThat(ids(index, "\"deep learning\"")).isEmpty();
+        assertThat(ids(index, "deep learning")).containsExactly(1L);
+    }
+
+    @Test
+    void titleMatchesRankFirstAndHitsAreHighlighted() {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(doc(1, "Weekly notes", "a short paragraph mentioning redis once"));
+        index.upsert(doc(2, "Redis persistence", "snapshots and append only files"));
+
+        SearchResult result = index.search(SearchQuery.parse("redis"), 0, 10);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.hits()).extracting(SearchHit::id).containsExactly(2L, 1L);
+        assertThat(result.hits().get(0).title()).isEqualTo("<em>Redis</em> persistence");
+        assertThat(result.hits().get(1).snippet()).contains("<em>redis</em>");
+    }
+
+    @Test
+    void pagingReportsFullTotal() {
+        SearchIndex index = new SearchIndex("test");
+        for (long id = 1; id <= 5; id++) {
+            index.upsert(doc(id, "cache " + id, ""));
+        }
+
+        SearchResult page = index.search(SearchQuery.parse("cache"), 3, 2);
+
+        assertThat(page.total()).isEqualTo(5);
+        assertThat(page.hits()).hasSize(2);
+        assertThat(index.search(SearchQuery.parse("cache"), 10, 2).hits()).isEmpty();
+    }
+
+    @Test
+    void upsertMasksPreviousVersionAndRemoveHidesDocument() {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(doc(1, "Original title", ""));
+        index.upsert(doc(1, "Revised title", ""));
+
+        assertThat(ids(index, "original")).isEmpty();
+        assertThat(ids(index, "revised")).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1L);
+
+        assertThat(ids(index, "revised")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void rebuildReplaysChangesMadeWhileBuilding() throws IOException {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(doc(9, "Stale document", ""));
+        LocalDateTime watermark = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+        SearchIndex.Rebuild rebuild = index.startRebuild(watermark);
+        // 构建读取的是开始时的快照
+        rebuild.add(doc(1, "Old headline", ""));
+        rebuild.add(doc(2, "Doomed article", ""));
+        // 构建期间的增量变更
+        index.upsert(doc(1, "New headline", ""));
+        index.remove(2L);
+        index.upsert(doc(3, "Fresh article", ""));
+        rebuild.commit();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.getWatermark()).isEqualTo(watermark);
+        assertThat(ids(index, "headline")).containsExactly(1L);
+        assertThat(ids(index, "old")).isEmpty();
+        assertThat(ids(index, "new")).containsExactly(1L);
+        assertThat(ids(index, "article")).containsExactly(3L);
+        assertThat(ids(index, "stale")).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void abortedRebuildKeepsCurrentIndex() {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(doc(1, "Keep me", ""));
+
+        SearchIndex.Rebuild rebuild = index.startRebuild(PUBLISHED);
+        rebuild.add(doc(2, "Discard me", ""));
+        rebuild.abort();
+
+        assertThat(ids(index, "keep")).containsExactly(1L);
+        assertThat(ids(index, "discard")).isEmpty();
+    }
+
+    @Test
+    void flushedSegmentsSurviveReopen() throws IOException {
+        LocalDateTime watermark = LocalDateTime.of(2024, 6, 1, 12, 0);
+        SearchIndex index = new SearchIndex("test", directory, 4);
+        SearchIndex.Rebuild rebuild = index.startRebuild(watermark);
+        rebuild.add(doc(1, "Vector databases", "approximate nearest neighbour"));
+        rebuild.add(doc(2, "向量检索", "近似最近邻"));
+        rebuild.commit();
+        index.upsert(doc(1, "Vector stores", "approximate nearest neighbour"));
+        index.upsert(doc(3, "Graph databases", ""));
+        index.flush();
+
+        SearchIndex reopened = new SearchIndex("test", directory, 4);
+
+        assertThat(reopened.open()).isTrue();
+        assertThat(reopened.getWatermark()).isEqualTo(watermark);
+        assertThat(reopened.size()).isEqualTo(3);
+        assertThat(ids(reopened, "databases")).containsExactly(3L);
+        assertThat(ids(reopened, "\"vector stores\"")).containsExactly(1L);
+        assertThat(ids(reopened, "\"nearest neighbour\"")).containsExactly(1L);
+        assertThat(ids(reopened, "最近邻")).containsExactly(2L);
+    }
+
+    @Test
+    void segmentsAreMergedBeyondLimitAndMaskedVersionsDropped() throws IOException {
+        SearchIndex index = new SearchIndex("test", directory, 1);
+        SearchIndex.Rebuild rebuild = index.startRebuild(PUBLISHED);
+        rebuild.add(doc(1, "First draft", ""));
+        rebuild.add(doc(2, "Second post", ""));
+        rebuild.commit();
+        index.upsert(doc(1, "Final version", ""));
+        index.remove(2L);
+        index.flush();
+
+        assertThat(segmentFiles()).hasSize(1);
+        SearchIndex reopened = new SearchIndex("test", directory, 1);
+        assertThat(reopened.open()).isTrue();
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(ids(reopened, "final")).containsExactly(1L);
+        assertThat(ids(reopened, "draft")).isEmpty();
+        assertThat(ids(reopened, "second")).isEmpty();
+    }
+
+    @Test
+    void misspelledQueryIsCorrectedAgainstDictionary() {
+        SearchIndex index = new SearchIndex("test");
+        index.upsert(doc(1, "Python packaging", ""));
+        index.upsert(doc(2, "Python typing", ""));
+        index.refreshDictionary();
+
+        SearchResult result = index.search(SearchQuery.parse("pyhton typing"), 0, 10);
+
+        assertThat(result.suggestion()).isEqualTo("python typing");
+        assertThat(result.hits()).extracting(SearchHit::id).containsExactly(2L);
+        assertThat(index.search(SearchQuery.parse("python"), 0, 10).suggestion()).isNull();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).toList();
+        }
+    }
+
+    private static List<Long> ids(SearchIndex index, String query) {
+        return index.search(SearchQuery.parse(query), 0, 100).hits().stream().map(SearchHit::id).toList();
+    }
+
+    private static SearchDocument doc(long id, String title, String content) {
+        return new SearchDocument(id, title, "", content, PUBLISHED);
+    }
+}
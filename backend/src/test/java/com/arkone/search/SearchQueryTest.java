@@ -0,0 +1,104 @@
+package com.arkone.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 查询解析测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class SearchQueryTest {
+
+    @Test
+    void whitespaceSeparatedClausesAreAnded() {
+        SearchQuery query = SearchQuery.parse("spring  boot");
+
+        assertThat(query.groups()).hasSize(2);
+        assertThat(query.groups().get(0)).extracting(SearchQuery.Clause::text).containsExactly("spring");
+        assertThat(query.groups().get(1)).extracting(SearchQuery.Clause::text).containsExactly("boot");
+        assertThat(query.excluded()).isEmpty();
+    }
+
+    @Test
+    void orAndPipeJoinClausesIntoOneGroup() {
+        SearchQuery query = SearchQuery.parse("java OR kotlin | scala go");
+
+        assertThat(query.groups()).hasSize(2);
+        assertThat(query.groups().get(0)).extracting(SearchQuery.Clause::text)
+                .containsExactly("java", "kotlin", "scala");
+        assertThat(query.groups().get(1)).extracting(SearchQuery.Clause::text).containsExactly("go");
+    }
+
+    @Test
+    void leadingOrIsIgnored() {
+        SearchQuery query = SearchQuery.parse("OR java");
+
+        assertThat(query.groups()).hasSize(1);
+        assertThat(query.groups().get(0)).extracting(SearchQuery.Clause::text).containsExactly("java");
+    }
+
+    @Test
+    void quotedPhraseKeepsRelativeOffsets() {
+        SearchQuery query = SearchQuery.parse("\"large language model\"");
+
+        SearchQuery.Clause clause = query.groups().get(0).get(0);
+        assertThat(clause.terms()).containsExactly("large", "language", "model");
+        assertThat(clause.offsets()).containsExactly(0, 1, 2);
+        assertThat(clause.text()).isEqualTo("large language model");
+    }
+
+    @Test
+    void unquotedCjkWordIsMatchedAsPhrase() {
+        SearchQuery.Clause clause = SearchQuery.parse("大模型").groups().get(0).get(0);
+
+        assertThat(clause.terms()).containsExactly("大模", "模型");
+        assertThat(clause.offsets()).containsExactly(0, 1);
+    }
+
+    @Test
+    void minusPrefixExcludesClause() {
+        SearchQuery query = SearchQuery.parse("python -\"data science\" - trailing");
+
+        assertThat(query.groups()).extracting(group -> group.get(0).text()).containsExactly("python", "trailing");
+        assertThat(query.excluded()).extracting(SearchQuery.Clause::text).containsExactly("data science");
+    }
+
+    @Test
+    void unterminatedQuoteRunsToEnd() {
+        SearchQuery query = SearchQuery.parse("\"open source");
+
+        assertThat(query.groups().get(0).get(0).terms()).containsExactly("open", "source");
+    }
+
+    @Test
+    void clausesWithoutTokensAreDropped() {
+        assertThat(SearchQuery.parse("!!! ???").isEmpty()).isTrue();
+        assertThat(SearchQuery.parse(null).isEmpty()).isTrue();
+        assertThat(SearchQuery.parse(null).raw()).isEmpty();
+    }
+
+    @Test
+    void positiveTermsAndHighlightTextsSkipExcludedClauses() {
+        SearchQuery query = SearchQuery.parse("java OR \"java stream\" -kotlin");
+
+        assertThat(query.positiveTerms()).containsExactly("java", "stream");
+        assertThat(query.highlightTexts()).containsExactly("java", "java stream");
+    }
+
+    @Test
+    void toBooleanModeQuotesEveryClause() {
+        assertThat(SearchQuery.parse("spring boot").toBooleanMode()).isEqualTo("+\"spring\" +\"boot\"");
+        assertThat(SearchQuery.parse("java OR kotlin -android").toBooleanMode())
+                .isEqualTo("+(\"java\" \"kotlin\") -\"android\"");
+        assertThat(SearchQuery.parse("\"大模型 推理\"").toBooleanMode()).isEqualTo("+\"大模型 推理\"");
+    }
+
+    @Test
+    void toBooleanModeIsEmptyWithoutRequiredClauses() {
+        assertThat(SearchQuery.parse("-android").toBooleanMode()).isEmpty();
+        assertThat(SearchQuery.parse("").toBooleanMode()).isEmpty();
+    }
+}
@@ -0,0 +1,80 @@
+package com.arkone.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 拼写纠错词典测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class TermDictionaryTest {
+
+    private final TermDictionary dictionary = TermDictionary.build(Map.of(
+            "python", 40,
+            "pytorch", 12,
+            "java", 30,
+            "javascript", 25,
+            "kafka", 8,
+            "kafke", 1,
+            "redis", 20,
+            "go", 50,
+            "人工", 5,
+            "2024", 9));
+
+    @Test
+    void onlyLatinTermsOfMinimumLengthAreEligible() {
+        assertThat(TermDictionary.isEligible("redis")).isTrue();
+        assertThat(TermDictionary.isEligible("web3")).isTrue();
+        assertThat(TermDictionary.isEligible("go")).isFalse();
+        assertThat(TermDictionary.isEligible("2024")).isFalse();
+        assertThat(TermDictionary.isEligible("人工智能")).isFalse();
+        assertThat(dictionary.size()).isEqualTo(7);
+        assertThat(dictionary.frequency("go")).isZero();
+        assertThat(dictionary.frequency("redis")).isEqualTo(20);
+    }
+
+    @Test
+    void maxDistanceDependsOnLength() {
+        assertThat(TermDictionary.maxDistance("java")).isEqualTo(1);
+        assertThat(TermDictionary.maxDistance("python")).isEqualTo(2);
+    }
+
+    @Test
+    void transpositionCountsAsSingleEdit() {
+        assertThat(dictionary.corrections("pyhton", 2, 5))
+                .containsExactly(new TermDictionary.Correction("python", 1, 40));
+        assertThat(dictionary.corrections("jaav", 1, 5))
+                .containsExactly(new TermDictionary.Correction("java", 1, 30));
+    }
+
+    @Test
+    void candidatesSortedByDistanceThenFrequency() {
+        assertThat(dictionary.corrections("kafkb", 2, 5)).extracting(TermDictionary.Correction::term)
+                .containsExactly("kafka", "kafke");
+        assertThat(dictionary.corrections("kafkb", 2, 1)).extracting(TermDictionary.Correction::term)
+                .containsExactly("kafka");
+    }
+
+    @Test
+    void exactMatchAndDistantTermsAreExcluded() {
+        assertThat(dictionary.corrections("redis", 2, 5)).isEmpty();
+        assertThat(dictionary.corrections("rust", 1, 5)).isEmpty();
+    }
+
+    @Test
+    void firstLetterMustMatch() {
+        assertThat(dictionary.corrections("edis", 1, 5)).isEmpty();
+        assertThat(dictionary.corrections("rdis", 1, 5)).extracting(TermDictionary.Correction::term)
+                .containsExactly("redis");
+    }
+
+    @Test
+    void emptyDictionaryHasNoCorrections() {
+        assertThat(TermDictionary.EMPTY.corrections("python", 2, 5)).isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.arkone.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分词测试
+ *
+ * @author ArkOne
+ * @since 2024-01-01
+ */
+class TokenizerTest {
+
+    @Test
+    void latinRunsAreLowercasedWithConsecutivePositions() {
+        List<Tokenizer.Token> tokens = Tokenizer.tokenizeForQuery("Spring Boot3, JDK-21");
+
+        assertThat(tokens).extracting(Tokenizer.Token::term).containsExactly("spring", "boot3", "jdk", "21");
+        assertThat(tokens).extracting(Tokenizer.Token::position).containsExactly(0, 1, 2, 3);
+        assertThat(tokens.get(1).start()).isEqualTo(7);
+        assertThat(tokens.get(1).end()).isEqualTo(12);
+    }
+
+    @Test
+    void indexEmitsUnigramsAndBigramsForCjk() {
+        List<Tokenizer.Token> tokens = Tokenizer.tokenizeForIndex("人工智能");
+
+        assertThat(tokens).extracting(Tokenizer.Token::term)
+                .containsExactly("人", "人工", "工", "工智", "智", "智能", "能");
+        assertThat(tokens).extracting(Tokenizer.Token::position).containsExactly(0, 0, 1, 1, 2, 2, 3);
+    }
+
+    @Test
+    void queryEmitsOnlyBigramsForMultiCharacterCjk() {
+        assertThat(Tokenizer.tokenizeForQuery("人工智能")).extracting(Tokenizer.Token::term)
+                .containsExactly("人工", "工智", "智能");
+        assertThat(Tokenizer.tokenizeForQuery("云")).extracting(Tokenizer.Token::term).containsExactly("云");
+    }
+
+    @Test
+    void mixedScriptsSplitAtBoundaries() {
+        List<Tokenizer.Token> tokens = Tokenizer.tokenizeForQuery("用GPT写代码");
+
+        assertThat(tokens).extracting(Tokenizer.Token::term).containsExactly("用", "gpt", "写代", "代码");
+        assertThat(tokens).extracting(Tokenizer.Token::position).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void overlongLatinTermsAreTruncated() {
+        String hash = "a".repeat(100);
+
+        List<Tokenizer.Token> tokens = Tokenizer.tokenizeForIndex(hash);
+
+        assertThat(tokens).hasSize(1);
+        assertThat(tokens.get(0).term()).hasSize(64);
+        assertThat(tokens.get(0).end()).isEqualTo(100);
+    }
+
+    @Test
+    void emptyAndPunctuationOnlyTextYieldNoTokens() {
+        assertThat(Tokenizer.tokenizeForIndex(null)).isEmpty();
+        assertThat(Tokenizer.tokenizeForIndex("")).isEmpty();
+        assertThat(Tokenizer.tokenizeForQuery("，。!?")).isEmpty();
+    }
+}